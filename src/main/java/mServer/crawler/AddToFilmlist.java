@@ -9,29 +9,23 @@ import de.mediathekview.mlib.Config;
 import de.mediathekview.mlib.Const;
 import de.mediathekview.mlib.daten.DatenFilm;
 import de.mediathekview.mlib.daten.ListeFilme;
-import de.mediathekview.mlib.tool.Hash;
 import de.mediathekview.mlib.tool.Log;
-import de.mediathekview.mlib.tool.MVHttpClient;
 import java.util.Optional;
-import javax.ws.rs.core.HttpHeaders;
+import mServer.crawler.sender.base.UrlProbeCache;
 import mServer.crawler.sender.base.UrlUtils;
 import mServer.crawler.sender.orf.OrfVideoInfoDTO;
 import mServer.tool.MserverDaten;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Request.Builder;
-import okhttp3.Response;
+import okhttp3.HttpUrl;
 
-import java.io.IOException;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import org.jetbrains.annotations.NotNull;
 
 public class AddToFilmlist {
 
@@ -39,14 +33,17 @@ public class AddToFilmlist {
    * Minimum size of films in MiB to be included in new list.
    */
   private static final int MIN_SIZE_ADD_OLD = 5;
-  private final static int NUMBER_OF_THREADS = 32;//(Runtime.getRuntime().availableProcessors() * Runtime.getRuntime().availableProcessors()) / 2;
+  private final static int NUMBER_OF_THREADS = 32;
+  private static final int PROGRESS_INTERVAL_SECONDS = 10;
   private final ListeFilme vonListe;
   private final ListeFilme listeEinsortieren;
   /**
    * List of all locally started import threads.
    */
   private final ArrayList<ImportOldFilmlistThread> threadList = new ArrayList<>();
-  private AtomicInteger threadCounter = new AtomicInteger(0);
+  private CountDownLatch threadCounter = new CountDownLatch(0);
+  private final AtomicInteger checkedCounter = new AtomicInteger(0);
+  private final AtomicInteger removedCounter = new AtomicInteger(0);
 
   public AddToFilmlist(ListeFilme vonListe, ListeFilme listeEinsortieren) {
     this.vonListe = vonListe;
@@ -62,15 +59,9 @@ public class AddToFilmlist {
     listeEinsortieren.forEach(vonListe::add);
   }
 
-  private void performTitleSearch(HashSet<Hash> hash, final int size) {
-    vonListe.parallelStream().forEach(f -> {
-      synchronized (hash) {
-        hash.add(f.getHashValueIndexAddOld());
-      }
-    });
-
-    listeEinsortieren.removeIf((f) -> hash.contains(f.getHashValueIndexAddOld()));
-    hash.clear();
+  private void performTitleSearch(final int size) {
+    final FingerprintSet index = FingerprintSet.of(vonListe, FingerprintSet::indexAddOld);
+    listeEinsortieren.removeIf(f -> index.contains(FingerprintSet.indexAddOld(f)));
 
     Log.sysLog("===== Liste einsortieren Title =====");
     Log.sysLog("Liste einsortieren, Anzahl: " + size);
@@ -79,15 +70,9 @@ public class AddToFilmlist {
     Log.sysLog("");
   }
 
-  private void performUrlSearch(HashSet<Hash> hash, final int size) {
-    vonListe.parallelStream().forEach(f -> {
-      synchronized (hash) {
-        hash.add(f.getHashValueUrl());
-      }
-    });
-
-    listeEinsortieren.removeIf((f) -> hash.contains(f.getHashValueUrl()));
-    hash.clear();
+  private void performUrlSearch(final int size) {
+    final FingerprintSet index = FingerprintSet.of(vonListe, FingerprintSet::url);
+    listeEinsortieren.removeIf(f -> index.contains(FingerprintSet.url(f)));
 
     Log.sysLog("===== Liste einsortieren URL =====");
     Log.sysLog("Liste einsortieren, Anzahl: " + size);
@@ -151,12 +136,12 @@ public class AddToFilmlist {
     }
   }
 
-  private void startThreads() {
-    final OkHttpClient client = MVHttpClient.getInstance().getReducedTimeOutClient();
-
-    List syncList = Collections.synchronizedList(listeEinsortieren);
-    for (int i = 0; i < NUMBER_OF_THREADS; ++i) {
-      ImportOldFilmlistThread t = new ImportOldFilmlistThread(syncList, client);
+  private void startThreads(final DatenFilm[] filme) {
+    final int anzahl = Math.max(1, Math.min(NUMBER_OF_THREADS, filme.length));
+    threadCounter = new CountDownLatch(anzahl);
+    // verschränkt aufgeteilt, damit sich die Hosts (CDNs) auf alle Threads verteilen
+    for (int i = 0; i < anzahl; ++i) {
+      ImportOldFilmlistThread t = new ImportOldFilmlistThread(filme, i, anzahl);
       t.setName("ImportOldFilmlistThread Thread-" + i);
       threadList.add(t);
       t.start();
@@ -168,11 +153,11 @@ public class AddToFilmlist {
       for (ImportOldFilmlistThread t : threadList) {
         t.interrupt();
       }
-      for (ImportOldFilmlistThread t : threadList) {
-        try {
-          t.join();
-        } catch (InterruptedException ignored) {
-        }
+    }
+    for (ImportOldFilmlistThread t : threadList) {
+      try {
+        t.join();
+      } catch (InterruptedException ignored) {
       }
     }
   }
@@ -182,37 +167,30 @@ public class AddToFilmlist {
    * dabei werden nur nicht vorhandene Filme einsortiert.
    */
   public int addOldList() {
-    threadCounter = new AtomicInteger(0);
-    final HashSet<Hash> hash = new HashSet<>(vonListe.size() + 1);
-
     performInitialCleanup();
 
     int size = listeEinsortieren.size();
 
-    performTitleSearch(hash, size);
+    performTitleSearch(size);
 
     size = listeEinsortieren.size();
-    performUrlSearch(hash, size);
+    performUrlSearch(size);
 
     size = listeEinsortieren.size();
-    long oldSize = size;
-
-    startThreads();
-
-    int count = 0;
-    while (!Config.getStop() && threadCounter.get() > 0) {
-      try {
-        count++;
-        if (count % 5 == 0) {
-          long curSize = listeEinsortieren.size();
-          System.out.println("Liste: " + curSize);
-          System.out.println("Entfernte Einträge: " + ((oldSize - curSize)));
-          oldSize = curSize;
-        }
-        TimeUnit.SECONDS.sleep(2);
-      } catch (Exception ex) {
-        Log.errorLog(978451205, ex, "Fehler beim Import Old");
+    // jeder Thread prüft seinen Teil der Liste, es gibt keine gemeinsame Liste mehr
+    final DatenFilm[] filme = listeEinsortieren.toArray(new DatenFilm[0]);
+    listeEinsortieren.clear();
+    checkedCounter.set(0);
+    removedCounter.set(0);
+    startThreads(filme);
+
+    try {
+      while (!Config.getStop() && !threadCounter.await(PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS)) {
+        Log.sysLog("Liste einsortieren, geprüft: " + checkedCounter.get() + " von " + filme.length
+                + ", entfernt: " + removedCounter.get());
       }
+    } catch (InterruptedException ex) {
+      Log.errorLog(978451205, ex, "Fehler beim Import Old");
     }
 
     stopThreads();
@@ -235,6 +213,7 @@ public class AddToFilmlist {
    */
   private int retrieveThreadResults() {
     int treffer = 0;
+    final Map<Integer, Integer> removed = new TreeMap<>();
     for (ImportOldFilmlistThread t : threadList) {
       final ArrayList<DatenFilm> localList = t.getLocalAddList();
       if (MserverDaten.debug) {
@@ -243,22 +222,32 @@ public class AddToFilmlist {
       vonListe.addAll(localList);
       localList.clear();
       treffer += t.getTreffer();
+      t.getRemoved().forEach((code, anzahl) -> removed.merge(code, anzahl, Integer::sum));
     }
+    // statt einer Zeile je URL nur die Anzahl je Statuscode
+    removed.forEach((code, anzahl) -> Log.sysLog("films removed: code: " + code + ": " + anzahl));
     return treffer;
   }
 
   private class ImportOldFilmlistThread extends Thread {
 
-    private final List<DatenFilm> listeOld;
-    private final ArrayList<DatenFilm> localAddList = new ArrayList<>(
-        (vonListe.size() / NUMBER_OF_THREADS) + 500);
+    private final DatenFilm[] listeOld;
+    private final int start;
+    private final int step;
+    private final ArrayList<DatenFilm> localAddList;
+    private final Map<Integer, Integer> removed = new HashMap<>();
     private int treffer = 0;
-    private OkHttpClient client = null;
 
-    public ImportOldFilmlistThread(List<DatenFilm> listeOld, OkHttpClient client) {
+    /**
+     * @param listeOld the films to check
+     * @param start the index of the first film of this thread
+     * @param step the number of threads, each thread checks every step-th film
+     */
+    public ImportOldFilmlistThread(DatenFilm[] listeOld, int start, int step) {
       this.listeOld = listeOld;
-      threadCounter.incrementAndGet();
-      this.client = client;
+      this.start = start;
+      this.step = step;
+      localAddList = new ArrayList<>(listeOld.length / step + 1);
     }
 
     public int getTreffer() {
@@ -269,6 +258,13 @@ public class AddToFilmlist {
       return localAddList;
     }
 
+    /**
+     * @return the number of removed films by status code
+     */
+    public Map<Integer, Integer> getRemoved() {
+      return removed;
+    }
+
     private void addOld(DatenFilm film) {
       if (BannedFilmFilter.isBanned(film)) {
         Log.sysLog("Blacklist Treffer im import Old (" + film.arr[DatenFilm.FILM_TITEL] + ")");
@@ -281,77 +277,76 @@ public class AddToFilmlist {
       localAddList.add(film);
     }
 
-    private synchronized DatenFilm popOld(List<DatenFilm> listeOld) {
-      if (!listeOld.isEmpty()) {
-        return listeOld.remove(0);
-      } else {
-        return null;
+    private void removeOld(int code, String url) {
+      removed.merge(code, 1, Integer::sum);
+      removedCounter.incrementAndGet();
+      if (MserverDaten.debug) {
+        Log.sysLog("film removed: code: " + code + ": " + url);
       }
     }
 
     @Override
     public void run() {
+      try {
+        for (int i = start; i < listeOld.length && !isInterrupted() && !Config.getStop(); i += step) {
+          check(listeOld[i]);
+          listeOld[i] = null;
+          checkedCounter.incrementAndGet();
+        }
+      } finally {
+        threadCounter.countDown();
+      }
+    }
 
-      DatenFilm film;
-      while (!isInterrupted() && (film = popOld(listeOld)) != null) {
-        final String url = film.arr[DatenFilm.FILM_URL];
-        if (film.arr[DatenFilm.FILM_GROESSE].isEmpty()) {
-          Request request = createOnlineCheckRequest(url);
-          try (Response response = client.newCall(request).execute()) {
-            if (response.isSuccessful()) {
-              long respLength = determineContentLength(response);
-
-              if (isRelevantContentType(response) && !orfRemovedVideo(film, response) &&
-                  // ignore file length of m3u8-files because it is always too small
-                  (isM3u8File(url) || respLength > MIN_SIZE_ADD_OLD)) {
-                addOld(film);
-              } else {
-                Log.sysLog("film removed: code: " + response.code() + ": " + url);
-              }
+    private void check(DatenFilm film) {
+      final String url = film.arr[DatenFilm.FILM_URL];
+      if (film.arr[DatenFilm.FILM_GROESSE].isEmpty()) {
+        final Optional<UrlProbeCache.Probe> probe = probeOnline(url);
+        if (probe.isPresent()) {
+          if (probe.get().isTransient()) {
+            // Server gerade nicht erreichbar, der Film ist evtl. noch online
+            addOld(film);
+          } else if (probe.get().isSuccessful()) {
+            long respLength = probe.get().getContentLengthMb();
+
+            if (isRelevantContentType(probe.get()) && !orfRemovedVideo(film, probe.get()) &&
+                // ignore file length of m3u8-files because it is always too small
+                (isM3u8File(url) || respLength > MIN_SIZE_ADD_OLD)) {
+              addOld(film);
             } else {
-              Log.sysLog("film removed: code: " + response.code() + ": " + url);
+              removeOld(probe.get().getStatusCode(), url);
             }
-          } catch (SocketTimeoutException ignored) {
-          } catch (IOException ex) {
-            ex.printStackTrace();
+          } else {
+            removeOld(probe.get().getStatusCode(), url);
           }
-        } else {
-          if (Long.parseLong(film.arr[DatenFilm.FILM_GROESSE]) > MIN_SIZE_ADD_OLD) {
-            Request request = createOnlineCheckRequest(url);
-            try (Response response = client.newCall(request).execute()) {
-              if (response.isSuccessful() && isRelevantContentType(response) && !orfRemovedVideo(film, response)) {
-                addOld(film);
-              } else {
-                Log.sysLog("film removed: code: " + response.code() + ": " + url);
-              }
-            } catch (SocketTimeoutException ignored) {
-            } catch (IOException ex) {
-              ex.printStackTrace();
+        }
+      } else {
+        if (Long.parseLong(film.arr[DatenFilm.FILM_GROESSE]) > MIN_SIZE_ADD_OLD) {
+          final Optional<UrlProbeCache.Probe> probe = probeOnline(url);
+          if (probe.isPresent()) {
+            if (probe.get().isTransient()
+                    || probe.get().isSuccessful() && isRelevantContentType(probe.get()) && !orfRemovedVideo(film, probe.get())) {
+              addOld(film);
+            } else {
+              removeOld(probe.get().getStatusCode(), url);
             }
           }
         }
       }
-      threadCounter.decrementAndGet();
     }
 
-    private boolean orfRemovedVideo(DatenFilm film, Response response) {
+    private boolean orfRemovedVideo(DatenFilm film, UrlProbeCache.Probe probe) {
       if (film.arr[DatenFilm.FILM_SENDER].equals(Const.ORF)) {
-        String path = response.request().url().encodedPath();
+        String path = HttpUrl.get(probe.getFinalUrl()).encodedPath();
         return path.contains("/bearbeitung_") || path.contains("/geoprotection");
       }
 
       return false;
     }
 
-    @NotNull
-    private Request createOnlineCheckRequest(String url) {
-      Builder builder = new Builder().url(url);
-      if (isM3u8File(url)) {
-        // head request of m3u8 files always returns 405 => use get instead
-        return builder.get().build();
-      }
-
-      return builder.head().build();
+    private Optional<UrlProbeCache.Probe> probeOnline(String url) {
+      // head request of m3u8 files always returns 405 => use get instead
+      return UrlProbeCache.getInstance().probe(url, isM3u8File(url));
     }
 
     private boolean isM3u8File(String url) {
@@ -363,23 +358,12 @@ public class AddToFilmlist {
       return false;
     }
 
-    private boolean isRelevantContentType(Response response) {
-      final String contentType = response.header(HttpHeaders.CONTENT_TYPE, "");
+    private boolean isRelevantContentType(UrlProbeCache.Probe probe) {
+      final String contentType = probe.getContentType();
 
       // html reponses indicate a redirect
       // this is used for offline films
       return !contentType.contains("text/html");
     }
-
-    private long determineContentLength(Response response) {
-      final String contentLength = response.header("Content-Length", "-1");
-      long respLength = Long.parseLong(contentLength);
-      if (respLength < 1_000_000) {
-        respLength = -1;
-      } else if (respLength > 1_000_000) {
-        respLength /= 1_000_000;
-      }
-      return respLength;
-    }
   }
 }
@@ -0,0 +1,328 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact store of films, e.g. for the old film list kept during the whole
+ * run. A film is a row of ints: the fields with few different values (sender,
+ * topic, date, time, geo...) are ids of a dictionary shared by all films, the
+ * long fields (title, description, urls) are references to UTF-8 bytes in
+ * arenas of {@link #CHUNK_SIZE} bytes.
+ *
+ * The films are created again when they are read, changes of these films do
+ * not change the store. The films are restored as DatenFilm, the class of the
+ * stored film (e.g. ZdfDatenFilm) is not kept.
+ */
+public class CompactFilmStore {
+
+  private static final int CHUNK_SIZE = 1 << 20;
+  private static final int NULL_ID = -1;
+  private static final long NULL_REF = -1;
+  private static final long EMPTY_REF = -2;
+  /**
+   * fields stored as bytes, all the others are stored in the dictionary.
+   */
+  private static final int[] ARENA_FIELDS = {DatenFilm.FILM_NR, DatenFilm.FILM_TITEL, DatenFilm.FILM_BESCHREIBUNG,
+    DatenFilm.FILM_URL, DatenFilm.FILM_WEBSEITE, DatenFilm.FILM_URL_SUBTITLE, DatenFilm.FILM_URL_RTMP,
+    DatenFilm.FILM_URL_AUTH, DatenFilm.FILM_URL_KLEIN, DatenFilm.FILM_URL_RTMP_KLEIN, DatenFilm.FILM_URL_HD,
+    DatenFilm.FILM_URL_RTMP_HD, DatenFilm.FILM_URL_HISTORY};
+  private static final boolean[] IS_ARENA_FIELD = createArenaFlags();
+  private static final int[] DICTIONARY_FIELDS = createDictionaryFields();
+  /**
+   * field -> column in the row of its kind.
+   */
+  private static final int[] COLUMN = createColumns();
+
+  private final Map<String, Integer> dictionaryIds = new HashMap<>();
+  private final List<String> dictionary = new ArrayList<>();
+  private final List<byte[]> chunks = new ArrayList<>();
+  private int chunkPosition = CHUNK_SIZE;
+
+  private int[] dictionaryRows = new int[0];
+  private long[] arenaRows = new long[0];
+  private int size = 0;
+  private int[] urlIndex;
+
+  public CompactFilmStore() {
+  }
+
+  /**
+   * @param aFilms the films to store
+   */
+  public CompactFilmStore(final Iterable<DatenFilm> aFilms) {
+    aFilms.forEach(this::add);
+  }
+
+  public synchronized void add(final DatenFilm aFilm) {
+    ensureCapacity(size + 1);
+    final int dictionaryStart = size * DICTIONARY_FIELDS.length;
+    for (int i = 0; i < DICTIONARY_FIELDS.length; i++) {
+      dictionaryRows[dictionaryStart + i] = getDictionaryId(aFilm.arr[DICTIONARY_FIELDS[i]]);
+    }
+    final int arenaStart = size * ARENA_FIELDS.length;
+    for (int i = 0; i < ARENA_FIELDS.length; i++) {
+      arenaRows[arenaStart + i] = storeBytes(aFilm.arr[ARENA_FIELDS[i]]);
+    }
+    size++;
+    urlIndex = null;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param aRow the number of the film
+   * @param aField the field, e.g. DatenFilm.FILM_SENDER
+   * @return the value of the field, without creating the film
+   */
+  public synchronized String getValue(final int aRow, final int aField) {
+    if (aRow < 0 || aRow >= size) {
+      throw new IndexOutOfBoundsException("row " + aRow + ", size " + size);
+    }
+    final int column = COLUMN[aField];
+    if (IS_ARENA_FIELD[aField]) {
+      return readBytes(arenaRows[aRow * ARENA_FIELDS.length + column]);
+    }
+    final int id = dictionaryRows[aRow * DICTIONARY_FIELDS.length + column];
+    return id == NULL_ID ? null : dictionary.get(id);
+  }
+
+  /**
+   * @param aRow the number of the film
+   * @return a new film with the stored values
+   */
+  public synchronized DatenFilm get(final int aRow) {
+    final DatenFilm film = new DatenFilm();
+    for (int field = 0; field < DatenFilm.MAX_ELEM; field++) {
+      film.arr[field] = getValue(aRow, field);
+    }
+    film.init();
+    return film;
+  }
+
+  /**
+   * @param aUrl the url of the film
+   * @return a new film with the url, null if there is none
+   */
+  public synchronized DatenFilm findByUrl(final String aUrl) {
+    if (size == 0 || aUrl == null) {
+      return null;
+    }
+    if (urlIndex == null) {
+      createUrlIndex();
+    }
+    final int mask = urlIndex.length - 1;
+    for (int slot = hash(aUrl) & mask; urlIndex[slot] != 0; slot = (slot + 1) & mask) {
+      final int row = urlIndex[slot] - 1;
+      if (aUrl.equals(getValue(row, DatenFilm.FILM_URL))) {
+        return get(row);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * passes a new film for each stored film to the consumer.
+   *
+   * @param aConsumer the consumer
+   */
+  public synchronized void forEach(final Consumer<DatenFilm> aConsumer) {
+    for (int row = 0; row < size; row++) {
+      aConsumer.accept(get(row));
+    }
+  }
+
+  /**
+   * @return a film list with all films
+   */
+  public synchronized ListeFilme toListeFilme() {
+    final ListeFilme listeFilme = new ListeFilme();
+    listeFilme.ensureCapacity(size);
+    forEach(listeFilme::add);
+    return listeFilme;
+  }
+
+  /**
+   * @param aSender the sender
+   * @return a film list with the films of the sender
+   */
+  public synchronized ListeFilme toListeFilme(final String aSender) {
+    final ListeFilme listeFilme = new ListeFilme();
+    for (int row = 0; row < size; row++) {
+      if (aSender.equals(getValue(row, DatenFilm.FILM_SENDER))) {
+        listeFilme.add(get(row));
+      }
+    }
+    return listeFilme;
+  }
+
+  /**
+   * @return the estimated heap used by the store in bytes
+   */
+  public synchronized long getUsedBytes() {
+    long bytes = (long) dictionaryRows.length * Integer.BYTES + (long) arenaRows.length * Long.BYTES;
+    for (byte[] chunk : chunks) {
+      bytes += chunk.length;
+    }
+    for (String value : dictionary) {
+      // String + char[] und der Eintrag in der Map, grob
+      bytes += 2L * value.length() + 100;
+    }
+    return bytes;
+  }
+
+  public synchronized void clear() {
+    dictionaryIds.clear();
+    dictionary.clear();
+    chunks.clear();
+    chunkPosition = CHUNK_SIZE;
+    dictionaryRows = new int[0];
+    arenaRows = new long[0];
+    size = 0;
+    urlIndex = null;
+  }
+
+  private void ensureCapacity(final int aRows) {
+    final int capacity = dictionaryRows.length / DICTIONARY_FIELDS.length;
+    if (aRows > capacity) {
+      final int newCapacity = Math.max(aRows, Math.max(1024, capacity + (capacity >> 1)));
+      dictionaryRows = Arrays.copyOf(dictionaryRows, newCapacity * DICTIONARY_FIELDS.length);
+      arenaRows = Arrays.copyOf(arenaRows, newCapacity * ARENA_FIELDS.length);
+    }
+  }
+
+  private int getDictionaryId(final String aValue) {
+    if (aValue == null) {
+      return NULL_ID;
+    }
+    Integer id = dictionaryIds.get(aValue);
+    if (id == null) {
+      id = dictionary.size();
+      dictionary.add(aValue);
+      dictionaryIds.put(aValue, id);
+    }
+    return id;
+  }
+
+  private long storeBytes(final String aValue) {
+    if (aValue == null) {
+      return NULL_REF;
+    }
+    if (aValue.isEmpty()) {
+      return EMPTY_REF;
+    }
+    final byte[] bytes = aValue.getBytes(StandardCharsets.UTF_8);
+    final int length = bytes.length + 5;
+    if (chunkPosition + length > CHUNK_SIZE) {
+      // lange Texte bekommen einen eigenen Block
+      chunks.add(new byte[Math.max(CHUNK_SIZE, length)]);
+      chunkPosition = 0;
+    }
+    final int chunkIndex = chunks.size() - 1;
+    final byte[] chunk = chunks.get(chunkIndex);
+    final int start = chunkPosition;
+    int position = start;
+    // Länge als varint
+    int remaining = bytes.length;
+    while ((remaining & ~0x7f) != 0) {
+      chunk[position++] = (byte) ((remaining & 0x7f) | 0x80);
+      remaining >>>= 7;
+    }
+    chunk[position++] = (byte) remaining;
+    System.arraycopy(bytes, 0, chunk, position, bytes.length);
+    chunkPosition = position + bytes.length;
+    if (chunk.length > CHUNK_SIZE) {
+      chunkPosition = CHUNK_SIZE;
+    }
+    return ((long) chunkIndex << 32) | start;
+  }
+
+  private String readBytes(final long aRef) {
+    if (aRef == NULL_REF) {
+      return null;
+    }
+    if (aRef == EMPTY_REF) {
+      return "";
+    }
+    final byte[] chunk = chunks.get((int) (aRef >>> 32));
+    int position = (int) aRef;
+    int length = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = chunk[position++];
+      length |= (b & 0x7f) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return new String(chunk, position, length, StandardCharsets.UTF_8);
+  }
+
+  private void createUrlIndex() {
+    int capacity = Integer.highestOneBit(Math.max(size, 1) * 2);
+    if (capacity < size * 2) {
+      capacity <<= 1;
+    }
+    final int[] index = new int[capacity];
+    final int mask = capacity - 1;
+    for (int row = 0; row < size; row++) {
+      final String url = getValue(row, DatenFilm.FILM_URL);
+      if (url == null) {
+        continue;
+      }
+      int slot = hash(url) & mask;
+      while (index[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      index[slot] = row + 1;
+    }
+    urlIndex = index;
+  }
+
+  private static int hash(final String aValue) {
+    final int h = aValue.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static boolean[] createArenaFlags() {
+    final boolean[] flags = new boolean[DatenFilm.MAX_ELEM];
+    for (int field : ARENA_FIELDS) {
+      flags[field] = true;
+    }
+    return flags;
+  }
+
+  private static int[] createDictionaryFields() {
+    final int[] fields = new int[DatenFilm.MAX_ELEM - ARENA_FIELDS.length];
+    int count = 0;
+    for (int field = 0; field < DatenFilm.MAX_ELEM; field++) {
+      if (!IS_ARENA_FIELD[field]) {
+        fields[count++] = field;
+      }
+    }
+    return fields;
+  }
+
+  private static int[] createColumns() {
+    final int[] columns = new int[DatenFilm.MAX_ELEM];
+    for (int i = 0; i < ARENA_FIELDS.length; i++) {
+      columns[ARENA_FIELDS[i]] = i;
+    }
+    for (int i = 0; i < DICTIONARY_FIELDS.length; i++) {
+      columns[DICTIONARY_FIELDS[i]] = i;
+    }
+    return columns;
+  }
+}
@@ -0,0 +1,277 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.Config;
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import mServer.crawler.sender.zdf.ZdfDatenFilm;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Checkpoint of the running crawl in the folder of the film lists: for each
+ * processed detail page the films found. The records are collected and
+ * appended every {@link #FLUSH_INTERVAL_SECONDS} seconds as a gzip member, so
+ * the file is only appended and an aborted write loses only the last records.
+ *
+ * If a run is stopped, the next run of the same type within
+ * {@link #MAX_RESUME_HOURS} hours resumes: the crawlers build their url list
+ * again, but the detail pages of the checkpoint are not loaded again, their
+ * films are taken from the checkpoint. A run which ends normally deletes the
+ * checkpoint.
+ */
+public class CrawlCheckpoint {
+
+  private static final Logger LOG = LogManager.getLogger(CrawlCheckpoint.class);
+
+  private static final int FORMAT_VERSION = 1;
+  private static final long FLUSH_INTERVAL_SECONDS = 60;
+  private static final long MAX_RESUME_HOURS = 24;
+  private static final int MAX_URL_LENGTH = 8 * 1024;
+
+  private static CrawlCheckpoint instance;
+
+  private final Path file;
+  private final Map<String, List<DatenFilm>> restored = new ConcurrentHashMap<>();
+  private ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream();
+  private DataOutputStream pending = new DataOutputStream(pendingBytes);
+  private boolean active = false;
+  private long lastFlush = 0;
+  private int recordCount = 0;
+
+  CrawlCheckpoint(final Path aFile) {
+    file = aFile;
+  }
+
+  public static synchronized CrawlCheckpoint getInstance() {
+    if (instance == null) {
+      instance = new CrawlCheckpoint(Paths.get(CrawlerTool.getPathCheckpoint()));
+    }
+    return instance;
+  }
+
+  /**
+   * reads the checkpoint of a stopped run of the same type or starts a new one.
+   */
+  synchronized void start() {
+    final String runType = getRunType();
+    restored.clear();
+    pendingBytes = new ByteArrayOutputStream();
+    pending = new DataOutputStream(pendingBytes);
+    recordCount = 0;
+    lastFlush = System.currentTimeMillis();
+    active = true;
+
+    long startedAt = read(runType);
+    if (startedAt > 0) {
+      Log.sysLog("Checkpoint: Fortsetzen des letzten Laufs, " + restored.size() + " Detailseiten übernommen");
+    } else {
+      restored.clear();
+      startedAt = System.currentTimeMillis();
+    }
+
+    // neu schreiben, ein evtl. unvollständiger letzter Block fällt dabei weg
+    try {
+      Files.deleteIfExists(file);
+      pending.writeInt(FORMAT_VERSION);
+      pending.writeUTF(runType);
+      pending.writeLong(startedAt);
+      for (Map.Entry<String, List<DatenFilm>> entry : restored.entrySet()) {
+        writeRecord(entry.getKey(), entry.getValue());
+      }
+      flush();
+    } catch (IOException e) {
+      Log.errorLog(736201950, e, "Checkpoint: " + file);
+      active = false;
+    }
+  }
+
+  /**
+   * at the end of the run: if the run was stopped the checkpoint is kept,
+   * else it is deleted.
+   */
+  synchronized void finish() {
+    if (!active) {
+      return;
+    }
+    active = false;
+    restored.clear();
+    try {
+      if (Config.getStop()) {
+        flush();
+        Log.sysLog("Checkpoint: Lauf abgebrochen, " + recordCount + " Detailseiten gespeichert");
+      } else {
+        Files.deleteIfExists(file);
+      }
+    } catch (IOException e) {
+      Log.errorLog(736201951, e, "Checkpoint: " + file);
+    }
+  }
+
+  /**
+   * @param aSender the name of the crawler
+   * @param aUrl the url of the detail page
+   * @return the films of the detail page from the checkpoint of the stopped
+   * run, null if the page is to be loaded
+   */
+  public List<DatenFilm> getFilms(final String aSender, final String aUrl) {
+    return restored.isEmpty() ? null : restored.remove(createKey(aSender, aUrl));
+  }
+
+  /**
+   * stores the films of a processed detail page.
+   *
+   * @param aSender the name of the crawler
+   * @param aUrl the url of the detail page
+   * @param aFilms the films found
+   */
+  public synchronized void record(final String aSender, final String aUrl, final Collection<DatenFilm> aFilms) {
+    if (!active || aFilms.isEmpty() || aUrl.length() > MAX_URL_LENGTH) {
+      return;
+    }
+    try {
+      writeRecord(createKey(aSender, aUrl), aFilms);
+      recordCount++;
+      if (System.currentTimeMillis() - lastFlush >= TimeUnit.SECONDS.toMillis(FLUSH_INTERVAL_SECONDS)) {
+        flush();
+      }
+    } catch (IOException e) {
+      Log.errorLog(736201952, e, "Checkpoint: " + file);
+      active = false;
+    }
+  }
+
+  private void flush() throws IOException {
+    lastFlush = System.currentTimeMillis();
+    if (pendingBytes.size() == 0) {
+      return;
+    }
+    // jeder Block ist ein eigener gzip-Member, GZIPInputStream liest sie hintereinander
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+      pendingBytes.writeTo(out);
+    }
+    pendingBytes.reset();
+  }
+
+  private void writeRecord(final String aKey, final Collection<DatenFilm> aFilms) throws IOException {
+    pending.writeUTF(aKey);
+    pending.writeInt(aFilms.size());
+    for (DatenFilm film : aFilms) {
+      writeFilm(film);
+    }
+  }
+
+  private void writeFilm(final DatenFilm aFilm) throws IOException {
+    pending.writeBoolean(aFilm instanceof ZdfDatenFilm);
+    int count = 0;
+    for (String value : aFilm.arr) {
+      if (value != null && !value.isEmpty()) {
+        count++;
+      }
+    }
+    pending.writeByte(count);
+    for (int i = 0; i < aFilm.arr.length; i++) {
+      final String value = aFilm.arr[i];
+      if (value != null && !value.isEmpty()) {
+        pending.writeByte(i);
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        pending.writeInt(bytes.length);
+        pending.write(bytes);
+      }
+    }
+  }
+
+  private static DatenFilm readFilm(final DataInputStream aIn) throws IOException {
+    final boolean zdf = aIn.readBoolean();
+    final String[] arr = new String[DatenFilm.MAX_ELEM];
+    Arrays.fill(arr, "");
+    final int count = aIn.readUnsignedByte();
+    for (int i = 0; i < count; i++) {
+      final int index = aIn.readUnsignedByte();
+      final byte[] bytes = new byte[aIn.readInt()];
+      aIn.readFully(bytes);
+      if (index < arr.length) {
+        arr[index] = new String(bytes, StandardCharsets.UTF_8);
+      }
+    }
+
+    // ZdfDatenFilm wegen des Index ohne Load-Balancing-Host
+    final DatenFilm film = zdf
+            ? new ZdfDatenFilm(arr[DatenFilm.FILM_SENDER], arr[DatenFilm.FILM_THEMA], arr[DatenFilm.FILM_WEBSEITE],
+                    arr[DatenFilm.FILM_TITEL], arr[DatenFilm.FILM_URL], arr[DatenFilm.FILM_URL_RTMP],
+                    arr[DatenFilm.FILM_DATUM], arr[DatenFilm.FILM_ZEIT], 0, arr[DatenFilm.FILM_BESCHREIBUNG])
+            : new DatenFilm();
+    System.arraycopy(arr, 0, film.arr, 0, Math.min(arr.length, film.arr.length));
+    film.init();
+    return film;
+  }
+
+  /**
+   * @return the start of the stopped run, 0 if there is nothing to resume
+   */
+  private long read(final String aRunType) {
+    if (!Files.exists(file)) {
+      return 0;
+    }
+    long startedAt = 0;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != FORMAT_VERSION || !aRunType.equals(in.readUTF())) {
+        return 0;
+      }
+      startedAt = in.readLong();
+      if (System.currentTimeMillis() - startedAt > TimeUnit.HOURS.toMillis(MAX_RESUME_HOURS)) {
+        return 0;
+      }
+      try {
+        while (true) {
+          final String key = in.readUTF();
+          final List<DatenFilm> films = new ArrayList<>();
+          final int count = in.readInt();
+          for (int i = 0; i < count; i++) {
+            films.add(readFilm(in));
+          }
+          restored.put(key, films);
+          recordCount++;
+        }
+      } catch (EOFException e) {
+        // Ende der Datei oder der letzte Block wurde nicht mehr vollständig geschrieben
+        LOG.debug("checkpoint: {} records read", restored.size());
+      }
+      return startedAt;
+    } catch (IOException | RuntimeException e) {
+      // ein beschädigter letzter Block: die gelesenen Seiten trotzdem verwenden
+      Log.errorLog(736201953, e, "Checkpoint: " + file);
+      return restored.isEmpty() ? 0 : startedAt;
+    }
+  }
+
+  private static String getRunType() {
+    return CrawlerConfig.senderLoadHow + "|" + CrawlerConfig.updateFilmliste + "|"
+            + (CrawlerConfig.nurSenderLaden == null ? "" : String.join(",", CrawlerConfig.nurSenderLaden));
+  }
+
+  private static String createKey(final String aSender, final String aUrl) {
+    return aSender + "|" + aUrl;
+  }
+}
@@ -0,0 +1,276 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import mServer.crawler.sender.MediathekReader;
+import mServer.crawler.sender.base.CrawlDeadline;
+import mServer.crawler.sender.base.CrawlerExecutors;
+import mServer.crawler.sender.base.HttpTransport;
+import mServer.crawler.sender.base.SenderQuota;
+import mServer.tool.MserverDaten;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Decides when the readers of a run are started. The readers are started in
+ * the order of their run time in the previous runs, the longest first, so the
+ * run ends as early as possible. A further reader is started as soon as there
+ * is capacity: threads of the shared pool, connections and connections to the
+ * hosts used by the reader. The run times and hosts of the senders are stored
+ * in the folder of the film lists.
+ *
+ * The load is only a preference: if no reader was started for four minutes
+ * or the time left until the deadline is shorter than the previous run time
+ * of the next reader, it is started anyway, so a busy host or a long download
+ * cannot keep the pending readers from running.
+ */
+class CrawlScheduler {
+
+  private static final Logger LOG = LogManager.getLogger(CrawlScheduler.class);
+
+  /**
+   * a further reader is started only if less than this share of the threads and
+   * connections is in use.
+   */
+  private static final double MAX_UTILISATION = 0.75;
+  /**
+   * after a start the measurements settle for some seconds.
+   */
+  private static final long MIN_START_INTERVAL_MILLIS = 10_000;
+  /**
+   * the next reader is started at the latest after this time without a start.
+   */
+  private static final long MAX_WAIT_MILLIS = TimeUnit.MINUTES.toMillis(4);
+  /**
+   * weight of the current run time in the stored run time.
+   */
+  private static final double RUN_TIME_WEIGHT = 0.5;
+  private static final String SEPARATOR = "\t";
+  private static final String HOST_SEPARATOR = ",";
+
+  private final Path file;
+  private final HttpTransport transport;
+  private final LongSupplier clock;
+  private final Map<String, History> history = new HashMap<>();
+  private final LinkedList<MediathekReader> pending = new LinkedList<>();
+  private final Map<String, Thread> running = new HashMap<>();
+  private final Set<String> finished = new HashSet<>();
+  private long lastStart = 0;
+
+  CrawlScheduler(final Path aFile, final List<MediathekReader> aReaders, final HttpTransport aTransport,
+          final LongSupplier aClock) {
+    file = aFile;
+    transport = aTransport;
+    clock = aClock;
+    read();
+    pending.addAll(aReaders);
+    // die längsten zuerst, ohne Laufzeit: Prio 0 am Anfang, sonst am Ende
+    pending.sort(Comparator.comparingLong(this::getEstimatedSeconds).reversed());
+    LOG.debug("start order: {}", pending.stream().map(MediathekReader::getSendername).toArray());
+  }
+
+  CrawlScheduler(final List<MediathekReader> aReaders) {
+    this(Paths.get(CrawlerTool.getPathSenderLaufzeiten()), aReaders, HttpTransport.getInstance(),
+            System::currentTimeMillis);
+  }
+
+  boolean hasPending() {
+    return !pending.isEmpty();
+  }
+
+  /**
+   * @return the number of started readers which are not finished
+   */
+  int getRunningCount() {
+    final Iterator<Map.Entry<String, Thread>> iterator = running.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<String, Thread> entry = iterator.next();
+      // ein Reader, der ohne Meldung beendet wurde, läuft nicht mehr
+      if (!entry.getValue().isAlive() && FilmeSuchen.listeSenderLaufen.getSender(entry.getKey()) == null) {
+        iterator.remove();
+      }
+    }
+    return running.size();
+  }
+
+  /**
+   * starts the next reader if there is capacity.
+   *
+   * @return true if a reader is started
+   */
+  boolean startNextIfPossible() {
+    if (pending.isEmpty()) {
+      return false;
+    }
+    final int runningCount = getRunningCount();
+    final boolean overdue = runningCount > 0 && isOverdue(runningCount);
+    if (runningCount > 0 && !overdue && !hasCapacity(runningCount)) {
+      return false;
+    }
+    if (overdue) {
+      Log.sysLog("Sender starten trotz Auslastung: " + pending.getFirst().getSendername());
+    }
+
+    // den ersten Reader, dessen Hosts nicht ausgelastet sind
+    for (Iterator<MediathekReader> iterator = pending.iterator(); iterator.hasNext();) {
+      final MediathekReader reader = iterator.next();
+      if (runningCount == 0 || overdue || !isAnyHostSaturated(reader.getSendername())) {
+        iterator.remove();
+        start(reader);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * the reader has finished, its run time is stored for the next runs.
+   *
+   * @param aSender the name of the sender
+   * @param aSeconds the run time
+   * @param aCompleted false if the run was stopped
+   */
+  void finished(final String aSender, final int aSeconds, final boolean aCompleted) {
+    running.remove(aSender);
+    if (!finished.add(aSender) || !aCompleted) {
+      return;
+    }
+    final History old = history.get(aSender);
+    final long seconds = old == null
+            ? aSeconds
+            : Math.round(RUN_TIME_WEIGHT * aSeconds + (1 - RUN_TIME_WEIGHT) * old.seconds);
+    final Set<String> hosts = new HashSet<>(SenderQuota.getHosts(aSender));
+    if (hosts.isEmpty() && old != null) {
+      hosts.addAll(old.hosts);
+    }
+    history.put(aSender, new History(seconds, hosts));
+  }
+
+  /**
+   * stores the run times of the senders.
+   */
+  void save() {
+    final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    final List<String> senders = new ArrayList<>(history.keySet());
+    Collections.sort(senders);
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        for (String sender : senders) {
+          final History entry = history.get(sender);
+          writer.write(sender + SEPARATOR + entry.seconds + SEPARATOR + String.join(HOST_SEPARATOR, entry.hosts));
+          writer.newLine();
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Log.errorLog(736201947, e, "Laufzeiten: " + file);
+    }
+  }
+
+  private void start(final MediathekReader aReader) {
+    final History entry = history.get(aReader.getSendername());
+    Log.sysLog("Sender starten: " + aReader.getSendername()
+            + (entry == null ? "" : ", Laufzeit bisher [Min]: " + entry.seconds / 60)
+            + ", laufende Sender: " + running.size());
+    final Thread thread = new Thread(aReader);
+    running.put(aReader.getSendername(), thread);
+    lastStart = clock.getAsLong();
+    thread.start();
+  }
+
+  /**
+   * @return true if the next reader is to be started regardless of the load:
+   * it waited too long or it needs the time left for its run.
+   */
+  private boolean isOverdue(final int aRunningCount) {
+    final long sinceLastStart = clock.getAsLong() - lastStart;
+    if (aRunningCount >= MserverDaten.getCrawlerMaxSenders() || sinceLastStart < MIN_START_INTERVAL_MILLIS) {
+      return false;
+    }
+    if (sinceLastStart >= MAX_WAIT_MILLIS) {
+      return true;
+    }
+    final History entry = history.get(pending.getFirst().getSendername());
+    return entry != null && TimeUnit.SECONDS.toMillis(entry.seconds) >= CrawlDeadline.getRemainingMillis();
+  }
+
+  private boolean hasCapacity(final int aRunningCount) {
+    if (aRunningCount >= MserverDaten.getCrawlerMaxSenders()
+            || clock.getAsLong() - lastStart < MIN_START_INTERVAL_MILLIS) {
+      return false;
+    }
+
+    final ForkJoinPool pool = CrawlerExecutors.getIoPool();
+    return pool.getActiveThreadCount() < pool.getParallelism() * MAX_UTILISATION
+            && transport.getRunningCalls() < transport.getMaxRequests() * MAX_UTILISATION;
+  }
+
+  private boolean isAnyHostSaturated(final String aSender) {
+    final History entry = history.get(aSender);
+    if (entry == null) {
+      return false;
+    }
+    return entry.hosts.stream().anyMatch(transport::isHostSaturated);
+  }
+
+  private long getEstimatedSeconds(final MediathekReader aReader) {
+    final History entry = history.get(aReader.getSendername());
+    if (entry != null) {
+      return entry.seconds;
+    }
+    return aReader.getStartPrio() == 0 ? Long.MAX_VALUE : -1;
+  }
+
+  private void read() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        final String[] values = line.split(SEPARATOR, -1);
+        if (values.length < 2) {
+          continue;
+        }
+        final Set<String> hosts = new HashSet<>();
+        if (values.length > 2 && !values[2].isEmpty()) {
+          hosts.addAll(Arrays.asList(values[2].split(HOST_SEPARATOR)));
+        }
+        history.put(values[0], new History(Long.parseLong(values[1]), hosts));
+      }
+    } catch (IOException | NumberFormatException e) {
+      Log.errorLog(736201948, e, "Laufzeiten: " + file);
+      history.clear();
+    }
+  }
+
+  private static class History {
+
+    private final long seconds;
+    private final Set<String> hosts;
+
+    History(final long aSeconds, final Set<String> aHosts) {
+      seconds = aSeconds;
+      hosts = aHosts;
+    }
+  }
+}
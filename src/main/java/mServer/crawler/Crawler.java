@@ -20,6 +20,7 @@
 package mServer.crawler;
 
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import de.mediathekview.mlib.Config;
@@ -27,9 +28,9 @@ import de.mediathekview.mlib.daten.ListeFilme;
 import de.mediathekview.mlib.filmesuchen.ListenerFilmeLaden;
 import de.mediathekview.mlib.filmesuchen.ListenerFilmeLadenEvent;
 import de.mediathekview.mlib.filmlisten.FilmlisteLesen;
-import de.mediathekview.mlib.filmlisten.WriteFilmlistJson;
 import de.mediathekview.mlib.tool.Functions;
 import de.mediathekview.mlib.tool.Log;
+import mServer.crawler.sender.base.CancellationToken;
 import mServer.tool.HashFileWriter;
 import mServer.tool.StatsUpload;
 
@@ -37,6 +38,7 @@ public class Crawler implements Runnable {
 
     private ListeFilme listeFilme = new ListeFilme();
     private final FilmeSuchen filmeSuchen;
+    private final ImportPrefetch importPrefetch = new ImportPrefetch();
     private boolean serverLaufen = false;
 
     public Crawler() {
@@ -67,7 +69,11 @@ public class Crawler implements Runnable {
             }
         });
         // alte Filmliste laden
-        new FilmlisteLesen().readFilmListe(CrawlerTool.getPathFilmlist_json_akt(false /*aktDate*/), listeFilme, 0 /*all days*/);
+        readListe(CrawlerTool.getPathFilmlist_json_akt(false /*aktDate*/), listeFilme);
+        // die Importlisten hängen nicht vom Suchlauf ab, schon jetzt laden
+        importPrefetch.start(Arrays.asList(CrawlerConfig.importLive, CrawlerConfig.importUrl_1__anhaengen,
+                CrawlerConfig.importUrl_2__anhaengen, CrawlerConfig.importAkt,
+                CrawlerTool.loadLongMax() ? CrawlerConfig.importOld : ""));
         // das eigentliche Suchen der Filme bei den Sendern starten
         if (CrawlerConfig.nurSenderLaden == null) {
             // alle Sender laden
@@ -76,6 +82,8 @@ public class Crawler implements Runnable {
             // dann soll nur ein Sender geladen werden
             filmeSuchen.updateSender(CrawlerConfig.nurSenderLaden, listeFilme);
         }
+        // FilmeSuchen hat die alte Liste kompakt kopiert, die Objekte hier werden nicht mehr gebraucht
+        listeFilme.clear();
         try {
             while (serverLaufen) {
                 TimeUnit.SECONDS.timedWait(this, 5);
@@ -88,8 +96,8 @@ public class Crawler implements Runnable {
 
     public void stop() {
         if (serverLaufen) {
-            // nur dann wird noch gesucht
-            Config.setStop(true);
+            // nur dann wird noch gesucht, laufende Requests werden abgebrochen
+            CancellationToken.cancelRun();
         }
     }
 
@@ -97,12 +105,30 @@ public class Crawler implements Runnable {
         return listeFilme;
     }
 
+    /**
+     * eigene Listen werden aus dem Snapshot gelesen, wenn es einen passenden gibt
+     */
+    private static void readListe(String datei, ListeFilme liste) {
+        if (!FilmlistSnapshot.read(datei, liste)) {
+            new FilmlisteLesen().readFilmListe(datei, liste, 0 /*all days*/);
+        }
+    }
+
+    private void readImport(String importUrl, ListeFilme tmpListe) {
+        final CompactFilmStore filme = importPrefetch.get(importUrl);
+        if (filme != null) {
+            filme.forEach(tmpListe::add);
+        } else {
+            new FilmlisteLesen().readFilmListe(importUrl, tmpListe, 0 /*all days*/);
+        }
+    }
+
     private void importLive(ListeFilme tmpListe, String importUrl) {
         //================================================
         // noch andere Listen importieren
         Log.sysLog("Live-Streams importieren von: " + importUrl);
         tmpListe.clear();
-        new FilmlisteLesen().readFilmListe(importUrl, tmpListe, 0 /*all days*/);
+        readImport(importUrl, tmpListe);
         Log.sysLog("--> von  Anz. Filme: " + listeFilme.size());
         //listeFilme.addLive(tmpListe);
         // Statistikexport Suchlauf Anzahl Livestreams
@@ -110,40 +136,30 @@ public class Crawler implements Runnable {
         new AddToFilmlist(listeFilme, tmpListe).addLiveStream();
         Log.sysLog("--> nach Anz. Filme: " + listeFilme.size());
         tmpListe.clear();
-        System.gc();
-        listeFilme.sort();
     }
 
-    private void importUrl(ListeFilme tmpListe, String importUrl) {
+    private void importUrl(FilmlistImport filmlistImport, String importUrl) {
         //================================================
         // noch andere Listen importieren
         Log.sysLog("Filmliste importieren von: " + importUrl);
-        tmpListe.clear();
-        new FilmlisteLesen().readFilmListe(importUrl, tmpListe, 0 /*all days*/);
         Log.sysLog("--> von  Anz. Filme: " + listeFilme.size());
+        final CompactFilmStore filme = importPrefetch.get(importUrl);
+        final int anzahl = filme != null ? filmlistImport.importListe(filme) : filmlistImport.importListe(importUrl);
         // Statistikexport Suchlauf Anzahl import
-        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_IMPORT, tmpListe.size());
-        listeFilme.updateListe(tmpListe, false /* nur URL vergleichen */, false /*ersetzen*/);
+        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_IMPORT, anzahl);
         Log.sysLog("--> nach Anz. Filme: " + listeFilme.size());
-        tmpListe.clear();
-        System.gc();
-        listeFilme.sort();
     }
 
-    private void importUrlAkt(ListeFilme tmpListe, String importUrl) {
+    private void importUrlAkt(FilmlistImport filmlistImport, String importUrl) {
         //================================================
         // noch andere Listen importieren
         Log.sysLog("Aktuelle Filmliste importieren von: " + importUrl);
-        tmpListe.clear();
-        new FilmlisteLesen().readFilmListe(importUrl, tmpListe, 0 /*all days*/);
         Log.sysLog("--> von  Anz. Filme: " + listeFilme.size());
+        final CompactFilmStore filme = importPrefetch.get(importUrl);
+        final int anzahl = filme != null ? filmlistImport.importListe(filme) : filmlistImport.importListe(importUrl);
         // Statistikexport Suchlauf Anzahl import AKt
-        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_AKTIMPORT, tmpListe.size());
-        listeFilme.updateListe(tmpListe, false /* nur URL vergleichen */, false /*ersetzen*/);
+        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_AKTIMPORT, anzahl);
         Log.sysLog("--> nach Anz. Filme: " + listeFilme.size());
-        tmpListe.clear();
-        System.gc();
-        listeFilme.sort();
     }
 
     private void importOld(ListeFilme tmpListe, String importUrl) {
@@ -151,7 +167,7 @@ public class Crawler implements Runnable {
         // noch andere Listen importieren
         Log.sysLog("Alte Filmliste importieren von: " + importUrl);
         tmpListe.clear();
-        new FilmlisteLesen().readFilmListe(importUrl, tmpListe, 0 /*all days*/);
+        readImport(importUrl, tmpListe);
         Log.sysLog("--> von  Anz. Filme: " + listeFilme.size());
         //int anz = listeFilme.updateListeOld(tmpListe);
         // Statistikexport Suchlauf Anzahl import OLD
@@ -160,12 +176,11 @@ public class Crawler implements Runnable {
         Log.sysLog("    gefunden: " + anz);
         Log.sysLog("--> nach Anz. Filme: " + listeFilme.size());
         tmpListe.clear();
-        System.gc();
-        listeFilme.sort();
     }
 
     private void undTschuess() {
         Config.setStop(false); // zurücksetzen!! sonst klappt das Lesen der Importlisten nicht!!!!!
+        CancellationToken.startRun();
         listeFilme = filmeSuchen.listeFilmeNeu;
         ListeFilme tmpListe = new ListeFilme();
 
@@ -187,12 +202,14 @@ public class Crawler implements Runnable {
             importLive(tmpListe, CrawlerConfig.importLive);
             Log.sysLog("");
         }
+        // der Index der URLs wird für alle Importe nur einmal erstellt
+        final FilmlistImport filmlistImport = new FilmlistImport(listeFilme);
         if (!CrawlerConfig.importUrl_1__anhaengen.isEmpty()) {
             // wenn eine ImportUrl angegeben, dann die Filme die noch nicht drin sind anfügen
             Log.sysLog("");
             Log.sysLog("============================================================================");
             Log.sysLog("Filmliste Import 1");
-            importUrl(tmpListe, CrawlerConfig.importUrl_1__anhaengen);
+            importUrl(filmlistImport, CrawlerConfig.importUrl_1__anhaengen);
             Log.sysLog("");
         }
         if (!CrawlerConfig.importUrl_2__anhaengen.isEmpty()) {
@@ -200,7 +217,7 @@ public class Crawler implements Runnable {
             Log.sysLog("");
             Log.sysLog("============================================================================");
             Log.sysLog("Filmliste Import 2");
-            importUrl(tmpListe, CrawlerConfig.importUrl_2__anhaengen);
+            importUrl(filmlistImport, CrawlerConfig.importUrl_2__anhaengen);
             Log.sysLog("");
         }
         if (!CrawlerConfig.importAkt.isEmpty()) {
@@ -209,7 +226,7 @@ public class Crawler implements Runnable {
             Log.sysLog("");
             Log.sysLog("============================================================================");
             Log.sysLog("Filmliste Import akt");
-            importUrlAkt(tmpListe, CrawlerConfig.importAkt);
+            importUrlAkt(filmlistImport, CrawlerConfig.importAkt);
             Log.sysLog("");
         }
         if (!CrawlerConfig.importOld.isEmpty() && CrawlerTool.loadLongMax()) {
@@ -221,6 +238,11 @@ public class Crawler implements Runnable {
             Log.sysLog("");
         }
 
+        importPrefetch.clear();
+        // nach allen Importen einmal sortieren
+        System.gc();
+        listeFilme.sort();
+
         // Statistikexport Suchlauf Anzahl gesamt
         StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_FILMEGESAMT, listeFilme.size());
 
@@ -235,16 +257,16 @@ public class Crawler implements Runnable {
         Log.sysLog("");
         Log.sysLog("   --> und schreiben:");
 
-        final WriteFilmlistJson writer = new WriteFilmlistJson();
-        writer.filmlisteSchreibenJson(CrawlerTool.getPathFilmlist_json_akt(false /*aktDate*/), listeFilme);
-        writer.filmlisteSchreibenJson(CrawlerTool.getPathFilmlist_json_akt(true /*aktDate*/), listeFilme);
+        // die Liste wird nur einmal geschrieben, Kopien und xz werden daraus erzeugt
+        final FilmlistOutput output = new FilmlistOutput(listeFilme, CrawlerTool.getPathFilmlist_json_akt(false /*aktDate*/));
+        output.addCopy(CrawlerTool.getPathFilmlist_json_akt(true /*aktDate*/));
+        // Snapshot für das schnelle Lesen beim nächsten Lauf
+        output.addSnapshot(CrawlerTool.getPathFilmlist_json_akt(false /*aktDate*/));
         if(compressList.equalsIgnoreCase("n") || compressList.equals("0")) {
-            writer.filmlisteSchreibenJsonCompressed(CrawlerTool.getPathFilmlist_json_akt_xz(), listeFilme);
+            output.addCompressed(CrawlerTool.getPathFilmlist_json_akt_xz());
         } else {
             Log.sysLog("Führe keine xz Komprimierung für die akt-Liste durch.");
         }
-        // Erzeugung von Hash-File für schnelleren Datenabgleich
-        new HashFileWriter(CrawlerConfig.dirFilme).writeHash(listeFilme.getId());
         //================================================
         // Org
         Log.sysLog("");
@@ -253,13 +275,19 @@ public class Crawler implements Runnable {
             Log.sysLog("");
             Log.sysLog("============================================================================");
             Log.sysLog("Org-Lilste schreiben: " + CrawlerTool.getPathFilmlist_json_org());
-            writer.filmlisteSchreibenJson(CrawlerTool.getPathFilmlist_json_org(), listeFilme);
+            output.addCopy(CrawlerTool.getPathFilmlist_json_org());
+            output.addSnapshot(CrawlerTool.getPathFilmlist_json_org());
+            // die Schlüssel der Filme für das Diff der folgenden Läufe
+            output.addKeyIndex(CrawlerTool.getPathFilmlist_json_org());
             if(compressList.equalsIgnoreCase("n") || compressList.equals("0")) {
-                writer.filmlisteSchreibenJsonCompressed(CrawlerTool.getPathFilmlist_json_org_xz(), listeFilme);
+                output.addCompressed(CrawlerTool.getPathFilmlist_json_org_xz());
             } else {
                 Log.sysLog("Führe keine xz Komprimierung für die org-Liste durch.");
             }
         }
+        output.write();
+        // Erzeugung von Hash-File für schnelleren Datenabgleich
+        new HashFileWriter(CrawlerConfig.dirFilme).writeHash(listeFilme.getId());
 
         //====================================================
         // noch das diff erzeugen
@@ -269,33 +297,48 @@ public class Crawler implements Runnable {
         Log.sysLog("Diff erzeugen, von: " + org + " nach: " + CrawlerTool.getPathFilmlist_json_diff());
         tmpListe.clear();
         ListeFilme diff;
-        new FilmlisteLesen().readFilmListe(org, tmpListe, 0 /*all days*/);
+        // die Schlüssel der Org-Liste reichen für das Diff, dann muss sie nicht gelesen werden
+        final FilmKeyIndex orgKeys = FilmKeyIndex.open(org);
+        final ListeFilme orgListe;
+        final int orgAnzahl;
+        if (orgKeys != null) {
+            Log.sysLog("   --> Schlüssel der Orgliste: " + orgKeys.size());
+            orgListe = orgKeys.getMetaListe();
+            orgAnzahl = orgKeys.size();
+        } else {
+            readListe(org, tmpListe);
+            orgListe = tmpListe;
+            orgAnzahl = tmpListe.size();
+        }
         // Statistikexport Suchlauf Anzahl Filme in der Org-Liste
-        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_ORGLISTE, tmpListe.size());
+        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_ORGLISTE, orgAnzahl);
         // Statistikexport Suchlauf Alter Org-Liste
-        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_ORGALTER, tmpListe.getAge());
-        if (tmpListe.isEmpty()) {
+        StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_ORGALTER, orgListe.getAge());
+        if (orgAnzahl == 0) {
             // dann ist die komplette Liste das diff
             Log.sysLog("   --> Lesefehler der Orgliste: Diff bleibt leer!");
             diff = new ListeFilme();
-        } else if (tmpListe.isOlderThan(24 * 60 * 60)) {
+        } else if (orgListe.isOlderThan(24 * 60 * 60)) {
             // älter als ein Tag, dann stimmt was nicht!
             Log.sysLog("   --> Orgliste zu alt: Diff bleibt leer!");
             diff = new ListeFilme();
-        } else {
+        } else if (orgKeys != null) {
             // nur dann macht die Arbeit sinn
+            diff = orgKeys.neueFilme(listeFilme);
+        } else {
             diff = listeFilme.neueFilme(tmpListe);
         }
         // Statistikexport Suchlauf Anzahl Diff (neue Filme)
         StatsUpload.getInstance().setData(StatsUpload.Data.CRAWLSTAT_FILMEDIFF, diff.size());
 
         Log.sysLog("   --> und schreiben:");
-        writer.filmlisteSchreibenJson(CrawlerTool.getPathFilmlist_json_diff(), diff);
+        final FilmlistOutput diffOutput = new FilmlistOutput(diff, CrawlerTool.getPathFilmlist_json_diff());
         if(compressList.equalsIgnoreCase("n") || compressList.equals("0")) {
-            writer.filmlisteSchreibenJsonCompressed(CrawlerTool.getPathFilmlist_json_diff_xz(), diff);
+            diffOutput.addCompressed(CrawlerTool.getPathFilmlist_json_diff_xz());
         } else {
             Log.sysLog("Führe keine xz Komprimierung für die diff-Liste durch.");
         }
+        diffOutput.write();
         Log.sysLog("   --> Anz. Filme Diff: " + diff.size());
 
         // Statistikexport sende Crawler Statistik
@@ -23,6 +23,7 @@ public class CrawlerConfig {
     public static final int LOAD_LONG = 1;
     public static int senderLoadHow = LOAD_SHORT;
     public static final int LOAD_MAX = 2;
+    public static final int LOAD_INCREMENTAL = 3; // wie LOAD_SHORT, unveränderte Detailseiten werden aber nicht nochmal geladen
     public static boolean updateFilmliste = false; // die bestehende Filmliste wird aktualisiert und bleibt erhalten
     public static boolean orgFilmlisteErstellen = false; // dann wird eine neue Org-Liste angelegt, typ. die erste Liste am Tag
     public static String orgFilmliste = ""; // OrgFilmliste, zum Erstellen des Diff, angelegt wird sie immer im Ordner der Filmlisten, wenn leer wird die eigene Org-Liste gesucht
@@ -29,6 +29,9 @@ public class CrawlerTool {
   public static final String nameDiffFilmlist_xz = "filme-diff.xz"; // ist ein diff der aktuellen zur ORG Filmliste, xz komprimiert
   public static final String nameOrgFilmlist = "filme-org.json"; // ist die "ORG" Filmliste, typ. die erste am Tag
   public static final String nameAktFilmlist_xz = "filme.xz"; // ist die aktuelle Filmliste, xz komprimiert
+  public static final String nameSenderLaufzeiten = "sender-laufzeiten.txt"; // Laufzeiten der Sender, für die Startreihenfolge
+  public static final String nameCheckpoint = "checkpoint.gz"; // Filme der bereits geladenen Detailseiten, zum Fortsetzen eines abgebrochenen Laufs
+  public static final String nameIncrementalIndex = "inkrementell.idx"; // Index der geladenen Detailseiten, für das inkrementelle Laden
 
   public static synchronized void startMsg() {
     Log.startZeit.setTime(System.currentTimeMillis());
@@ -43,6 +46,8 @@ public class CrawlerTool {
     Log.sysLog("");
     if (loadLongMax()) {
       Log.sysLog("Laden:  alles");
+    } else if (loadIncremental()) {
+      Log.sysLog("Laden:  nur update, inkrementell");
     } else {
       Log.sysLog("Laden:  nur update");
     }
@@ -63,7 +68,7 @@ public class CrawlerTool {
   }
 
   public static boolean loadShort() {
-    return CrawlerConfig.senderLoadHow == CrawlerConfig.LOAD_SHORT;
+    return CrawlerConfig.senderLoadHow == CrawlerConfig.LOAD_SHORT || loadIncremental();
   }
 
   public static boolean loadLong() {
@@ -75,7 +80,23 @@ public class CrawlerTool {
   }
 
   public static boolean loadLongMax() {
-    return CrawlerConfig.senderLoadHow >= CrawlerConfig.LOAD_LONG;
+    return loadLong() || loadMax();
+  }
+
+  public static boolean loadIncremental() {
+    return CrawlerConfig.senderLoadHow == CrawlerConfig.LOAD_INCREMENTAL;
+  }
+
+  public static String getPathIncrementalIndex() {
+    return Functions.addsPfad(CrawlerConfig.dirFilme, nameIncrementalIndex);
+  }
+
+  public static String getPathSenderLaufzeiten() {
+    return Functions.addsPfad(CrawlerConfig.dirFilme, nameSenderLaufzeiten);
+  }
+
+  public static String getPathCheckpoint() {
+    return Functions.addsPfad(CrawlerConfig.dirFilme, nameCheckpoint);
   }
 
   public static String getPathFilmlist_json_org_xz() {
@@ -0,0 +1,151 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Collects the films found by the readers during a run. The films are kept in
+ * a bucket per sender, each bucket is split in stripes with their own lock, so
+ * the readers do not wait for each other. The duplicate check uses the index
+ * of the film (like ListeFilme.addFilmVomSender), the films can be found by
+ * url.
+ *
+ * At the end of the run the films are moved to the film list in one step.
+ */
+public class FilmCollector {
+
+  private static final int STRIPES = 16;
+
+  private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final Map<String, DatenFilm> filmsByUrl = new ConcurrentHashMap<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * adds a film found by a reader, if the film is not in the collection yet.
+   *
+   * @param aFilm the film
+   * @return true if the film is new
+   */
+  public boolean addFilmVomSender(final DatenFilm aFilm) {
+    final Bucket bucket = buckets.computeIfAbsent(aFilm.arr[DatenFilm.FILM_SENDER], sender -> new Bucket());
+    if (!bucket.add(aFilm)) {
+      return false;
+    }
+    size.incrementAndGet();
+    filmsByUrl.putIfAbsent(normalizeUrl(aFilm.arr[DatenFilm.FILM_URL]), aFilm);
+    return true;
+  }
+
+  /**
+   * @param aUrl the url of the film
+   * @return the first film added with the url (http and https are the same),
+   * null if there is none
+   */
+  public DatenFilm getFilmByUrl(final String aUrl) {
+    return filmsByUrl.get(normalizeUrl(aUrl));
+  }
+
+  /**
+   * @return the number of films collected
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * changes the films of a sender with a method of ListeFilme, e.g.
+   * checkThema. The films of the sender are replaced with the result.
+   *
+   * @param aSender the sender
+   * @param aAction the action changing the list
+   */
+  public void applyToSender(final String aSender, final Consumer<ListeFilme> aAction) {
+    final Bucket bucket = buckets.computeIfAbsent(aSender, sender -> new Bucket());
+    synchronized (bucket) {
+      final ListeFilme senderFilms = new ListeFilme();
+      bucket.drainTo(senderFilms);
+      aAction.accept(senderFilms);
+      for (DatenFilm film : senderFilms) {
+        bucket.add(film);
+      }
+      // die Indizes nur ergänzen, entfernte Filme bleiben für die Prüfung auf Duplikate drin
+      senderFilms.forEach(film -> filmsByUrl.putIfAbsent(normalizeUrl(film.arr[DatenFilm.FILM_URL]), film));
+      size.set(buckets.values().stream().mapToInt(Bucket::size).sum());
+    }
+  }
+
+  /**
+   * moves all films to the list and clears the collection.
+   *
+   * @param aListeFilme the film list
+   */
+  public void drainTo(final ListeFilme aListeFilme) {
+    aListeFilme.ensureCapacity(aListeFilme.size() + size.get());
+    buckets.values().forEach(bucket -> bucket.drainTo(aListeFilme));
+    buckets.clear();
+    filmsByUrl.clear();
+    size.set(0);
+  }
+
+  private static String normalizeUrl(final String aUrl) {
+    final int index = aUrl.indexOf("://");
+    return index > 0 && index < 6 ? aUrl.substring(index + 3) : aUrl;
+  }
+
+  private static class Bucket {
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    Bucket() {
+      for (int i = 0; i < STRIPES; i++) {
+        stripes[i] = new Stripe();
+      }
+    }
+
+    boolean add(final DatenFilm aFilm) {
+      final String index = aFilm.getIndex();
+      final Stripe stripe = stripes[(index.hashCode() & 0x7fffffff) % STRIPES];
+      synchronized (stripe) {
+        if (!stripe.indices.add(index)) {
+          return false;
+        }
+        stripe.films.add(aFilm);
+        return true;
+      }
+    }
+
+    int size() {
+      int result = 0;
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          result += stripe.films.size();
+        }
+      }
+      return result;
+    }
+
+    void drainTo(final List<DatenFilm> aTarget) {
+      for (Stripe stripe : stripes) {
+        synchronized (stripe) {
+          aTarget.addAll(stripe.films);
+          stripe.films.clear();
+          stripe.indices.clear();
+        }
+      }
+    }
+  }
+
+  private static class Stripe {
+
+    private final List<DatenFilm> films = new ArrayList<>();
+    private final Set<String> indices = new HashSet<>();
+  }
+}
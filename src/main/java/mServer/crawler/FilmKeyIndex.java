@@ -0,0 +1,204 @@
+package mServer.crawler;
+
+import com.google.common.hash.Hashing;
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sorted 64 bit keys of the films of a list, kept next to the json file
+ * ({@link #SUFFIX}). The key is a hash of DatenFilm.getIndexAddOld(), the
+ * identity ListeFilme.neueFilme() compares. The org run writes the keys of the
+ * org list, the following runs create the diff by looking up the keys of their
+ * films in the memory mapped file, the org list is not read.
+ *
+ * Like the {@link FilmlistSnapshot} the file contains size and checksum of the
+ * json file, if the json file was replaced the keys are not used.
+ */
+public class FilmKeyIndex {
+
+  public static final String SUFFIX = ".keys";
+  private static final long MAGIC = 0x4d534b4559533031L; // MSKEYS01
+  private static final int FORMAT_VERSION = 1;
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final String[] metaDaten;
+  private final LongBuffer keys;
+
+  private FilmKeyIndex(final String[] aMetaDaten, final LongBuffer aKeys) {
+    metaDaten = aMetaDaten;
+    keys = aKeys;
+  }
+
+  /**
+   * @param aFilm the film
+   * @return the key of the film
+   */
+  public static long getKey(final DatenFilm aFilm) {
+    return Hashing.murmur3_128().hashString(aFilm.getIndexAddOld(), StandardCharsets.UTF_8).asLong();
+  }
+
+  /**
+   * @param aJsonFile the json file of the film list
+   * @return the file of the keys
+   */
+  public static Path getKeyPath(final Path aJsonFile) {
+    return aJsonFile.resolveSibling(aJsonFile.getFileName() + SUFFIX);
+  }
+
+  /**
+   * writes the keys of the film list. The json file must be written before.
+   *
+   * @param aListeFilme the film list
+   * @param aJsonFile the json file of the film list
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(final ListeFilme aListeFilme, final Path aJsonFile) throws IOException {
+    final long[] sorted = aListeFilme.parallelStream().mapToLong(FilmKeyIndex::getKey).toArray();
+    Arrays.parallelSort(sorted);
+    int count = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (i == 0 || sorted[i] != sorted[i - 1]) {
+        sorted[count++] = sorted[i];
+      }
+    }
+
+    final Path file = getKeyPath(aJsonFile);
+    final Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+      out.writeLong(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(Files.size(aJsonFile));
+      out.writeLong(FilmlistSnapshot.checksum(aJsonFile));
+      out.writeInt(aListeFilme.metaDaten.length);
+      for (String value : aListeFilme.metaDaten) {
+        final byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      out.writeInt(count);
+      for (int i = 0; i < count; i++) {
+        out.writeLong(sorted[i]);
+      }
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * opens the keys of the json file.
+   *
+   * @param aJsonFile the json file of the film list
+   * @return the keys, null if there are none or they do not belong to the
+   * json file
+   */
+  public static FilmKeyIndex open(final String aJsonFile) {
+    final Path json;
+    try {
+      json = Paths.get(aJsonFile);
+    } catch (InvalidPathException e) {
+      // z.B. eine URL
+      return null;
+    }
+    final Path file = getKeyPath(json);
+    if (!Files.isRegularFile(json) || !Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getLong() != MAGIC || buffer.getInt() != FORMAT_VERSION || buffer.getLong() != Files.size(json)
+              || buffer.getLong() != FilmlistSnapshot.checksum(json)) {
+        return null;
+      }
+      final String[] metaDaten = new String[buffer.getInt()];
+      for (int i = 0; i < metaDaten.length; i++) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        metaDaten[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+      final int count = buffer.getInt();
+      final ByteBuffer keyBytes = buffer.slice();
+      keyBytes.limit(count * Long.BYTES);
+      // das Mapping bleibt nach dem Schließen des Kanals gültig
+      return new FilmKeyIndex(metaDaten, keyBytes.asLongBuffer());
+    } catch (IOException | RuntimeException e) {
+      Log.errorLog(736201959, e, "Filmschlüssel lesen: " + file);
+      return null;
+    }
+  }
+
+  /**
+   * @return the number of keys
+   */
+  public int size() {
+    return keys.limit();
+  }
+
+  /**
+   * @return a film list without films with the meta data (date, id) of the
+   * list of the keys
+   */
+  public ListeFilme getMetaListe() {
+    final ListeFilme liste = new ListeFilme();
+    System.arraycopy(metaDaten, 0, liste.metaDaten, 0, Math.min(metaDaten.length, liste.metaDaten.length));
+    return liste;
+  }
+
+  /**
+   * @param aFilm the film
+   * @return true if the list of the keys contains the film
+   */
+  public boolean contains(final DatenFilm aFilm) {
+    final long key = getKey(aFilm);
+    int low = 0;
+    int high = keys.limit() - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final long value = keys.get(middle);
+      if (value < key) {
+        low = middle + 1;
+      } else if (value > key) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * like ListeFilme.neueFilme(): the films of the list which are not in the
+   * list of the keys, in the order of the list.
+   *
+   * @param aListeFilme the film list
+   * @return the new films
+   */
+  public ListeFilme neueFilme(final ListeFilme aListeFilme) {
+    final List<DatenFilm> neu = aListeFilme.parallelStream()
+            .filter(film -> !contains(film))
+            .collect(Collectors.toList());
+    final ListeFilme diff = new ListeFilme();
+    diff.addAll(neu);
+    diff.setMeta(aListeFilme);
+    return diff;
+  }
+}
@@ -29,6 +29,9 @@ import mServer.crawler.sender.*;
 import mServer.crawler.sender.ard.ArdCrawler;
 import mServer.crawler.sender.arte.MediathekArte_de;
 import mServer.crawler.sender.arte.MediathekArte_fr;
+import mServer.crawler.sender.base.CancellationToken;
+import mServer.crawler.sender.base.HttpTransport;
+import mServer.crawler.sender.base.UrlProbeCache;
 import mServer.crawler.sender.br.BrCrawler;
 import mServer.crawler.sender.dreisat.DreiSatCrawler;
 import mServer.crawler.sender.kika.KikaCrawler;
@@ -57,7 +60,8 @@ import java.util.LinkedList;
 public class FilmeSuchen {
 
   public ListeFilme listeFilmeNeu; // neu angelegte Liste und da kommen die neu gesuchten Filme rein
-  public ListeFilme listeFilmeAlt; // ist die "alte" Liste, wird beim Aufruf übergeben und enthält am Ende das Ergebnis
+  private CompactFilmStore filmeAlt = new CompactFilmStore(); // die "alte" Liste, wird beim Aufruf übergeben und kompakt gehalten
+  private FilmCollector filmCollector = new FilmCollector(); // sammelt die Filme der Sender während des Suchlaufs
   // private
   private final LinkedList<MediathekReader> mediathekListe = new LinkedList<>(); // ist die Liste mit allen MediathekReadern (also allen Sender)
   private final EventListenerList listeners = new EventListenerList();
@@ -65,6 +69,7 @@ public class FilmeSuchen {
   private Date startZeit = new Date();
   private Date stopZeit = new Date();
   private boolean allStarted = false;
+  private CrawlScheduler scheduler = null;
   private final FastDateFormat sdf = FastDateFormat.getInstance("dd.MM.yyyy HH:mm:ss");
 
   public FilmeSuchen() {
@@ -88,6 +93,14 @@ public class FilmeSuchen {
     mediathekListe.add(new PhoenixCrawler(this, 1));
   }
 
+  public CompactFilmStore getFilmeAlt() {
+    return filmeAlt;
+  }
+
+  public FilmCollector getFilmCollector() {
+    return filmCollector;
+  }
+
   public static String[] getNamenSender() {
     // liefert eine Array mit allen Sendernamen
     return Const.SENDER;
@@ -100,17 +113,18 @@ public class FilmeSuchen {
   /**
    * es werden alle Filme gesucht
    *
-   * @param listeFilme
+   * @param listeFilme die bisherige Filmliste, sie wird kompakt kopiert und
+   * nicht verändert; wer sie nicht mehr braucht, kann sie danach leeren
    */
   public synchronized void filmeBeimSenderLaden(ListeFilme listeFilme) {
     initStart(listeFilme);
-    // die mReader nach Prio starten
-    mrStarten(0);
-    if (!Config.getStop()) {
-      // waren und wenn Suchlauf noch nicht abgebrochen weiter mit dem Rest
-      mrWarten();
-      mrStarten(1);
-      allStarted = true;
+    // die mReader nach Laufzeit starten, weitere sobald Kapazität frei ist
+    scheduler = new CrawlScheduler(mediathekListe);
+    mrStarten();
+    allStarted = true;
+    if (Config.getStop() && scheduler.getRunningCount() == 0) {
+      // abgebrochen und kein Sender läuft mehr, der meldet dann auch nichts mehr
+      meldenFertig("");
     }
   }
 
@@ -118,7 +132,8 @@ public class FilmeSuchen {
    * es werden nur einige Sender aktualisiert
    *
    * @param nameSender
-   * @param listeFilme
+   * @param listeFilme die bisherige Filmliste, sie wird kompakt kopiert und
+   * nicht verändert
    */
   public void updateSender(String[] nameSender, ListeFilme listeFilme) {
     // nur für den Mauskontext "Sender aktualisieren"
@@ -151,10 +166,10 @@ public class FilmeSuchen {
       listeSenderLaufen.add(runSender);
       //wird beim Start des Senders aufgerufen, 1x
       if (listeSenderLaufen.size() <= 1 /* erster Aufruf */) {
-        notifyStart(new ListenerFilmeLadenEvent(sender, text, listeSenderLaufen.getMax(), listeSenderLaufen.getProgress(), listeFilmeNeu.size(), false));
+        notifyStart(new ListenerFilmeLadenEvent(sender, text, listeSenderLaufen.getMax(), listeSenderLaufen.getProgress(), filmCollector.size(), false));
       }
     }
-    notifyProgress(new ListenerFilmeLadenEvent(sender, text, listeSenderLaufen.getMax(), listeSenderLaufen.getProgress(), listeFilmeNeu.size(), false));
+    notifyProgress(new ListenerFilmeLadenEvent(sender, text, listeSenderLaufen.getMax(), listeSenderLaufen.getProgress(), filmCollector.size(), false));
     progressBar();
     return runSender;
   }
@@ -167,6 +182,11 @@ public class FilmeSuchen {
 
       int sekunden = run.getLaufzeitSekunden();
       long anzahlFilme = listeSenderLaufen.get(sender, RunSender.Count.FILME);
+      if (scheduler != null) {
+        scheduler.finished(sender, sekunden, !Config.getStop());
+        // der nächste Sender kann starten
+        notifyAll();
+      }
 
       // Statistikexport pro Sender
       StatsUpload.getInstance().catchSenderStat(sender, sekunden, anzahlFilme);
@@ -186,7 +206,7 @@ public class FilmeSuchen {
     }
     if (!allStarted || !listeSenderLaufen.listeFertig()) {
       //nur ein Sender fertig oder noch nicht alle gestartet
-      notifyProgress(new ListenerFilmeLadenEvent(sender, "", listeSenderLaufen.getMax(), listeSenderLaufen.getProgress(), listeFilmeNeu.size(), false));
+      notifyProgress(new ListenerFilmeLadenEvent(sender, "", listeSenderLaufen.getMax(), listeSenderLaufen.getProgress(), filmCollector.size(), false));
     } else {
       // alles fertig
       // wird einmal aufgerufen, wenn alle Sender fertig sind
@@ -206,11 +226,14 @@ public class FilmeSuchen {
         Log.sysLog("                                                                                     ");
       }
       mrClear();
+      // die gesammelten Filme in einem Schritt in die Liste
+      filmCollector.drainTo(listeFilmeNeu);
       if (CrawlerConfig.updateFilmliste) {
         // alte Filme eintragen wenn angefordert oder nur ein update gesucht wurde
         //////toDo
-        listeFilmeNeu.updateListe(listeFilmeAlt, true /* über den Index vergleichen */, false /*ersetzen*/);
+        listeFilmeNeu.updateListe(filmeAlt.toListeFilme(), true /* über den Index vergleichen */, false /*ersetzen*/);
       }
+      filmeAlt.clear();
       listeFilmeNeu.sort();
       // FilmlisteMetaDaten
       stopZeit = new Date(System.currentTimeMillis());
@@ -267,30 +290,33 @@ public class FilmeSuchen {
     return retArray;
   }
 
-  private synchronized void mrStarten(int prio) {
-    // die MediathekReader mit "prio" starten
-    mediathekListe.stream().filter(mr -> mr.getStartPrio() == prio).forEach(mr -> new Thread(mr).start());
-  }
-
-  private synchronized void mrClear() {
-    //die MediathekReader aufräumen
-    mediathekListe.forEach(MediathekReader::clear);
-  }
-
-  private synchronized void mrWarten() {
-    // 4 Minuten warten, alle 10 Sekunden auf STOP prüfen
+  private synchronized void mrStarten() {
+    // die MediathekReader starten, jede Sekunde und wenn ein Sender fertig ist
+    // auf freie Kapazität und STOP prüfen
     try {
-      for (int i = 0; i < 4 * 60; ++i) {
-        if (Config.getStop()) {
-          break;
+      while (scheduler.hasPending() && !Config.getStop()) {
+        if (!scheduler.startNextIfPossible()) {
+          this.wait(1000);
         }
-        this.wait(1000); // warten, Sender nach der Gesamtlaufzeit starten
       }
     } catch (Exception ex) {
       Log.errorLog(978754213, ex);
     }
   }
 
+  private synchronized void mrClear() {
+    //die MediathekReader aufräumen
+    mediathekListe.forEach(MediathekReader::clear);
+    IncrementalIndex.getInstance().finish();
+    CrawlCheckpoint.getInstance().finish();
+    HttpTransport.getInstance().clearRunCache();
+    UrlProbeCache.getInstance().save();
+    if (scheduler != null) {
+      scheduler.save();
+      scheduler = null;
+    }
+  }
+
   private int getDauerSekunden() {
     int sekunden;
     try {
@@ -308,10 +334,16 @@ public class FilmeSuchen {
     // das Absuchen der Sender vorbereiten
     listeSenderLaufen.clear();
     allStarted = false;
-    listeFilmeAlt = listeFilme;
+    // die alte Liste wird während des ganzen Laufs gebraucht, kompakt halten
+    filmeAlt = new CompactFilmStore(listeFilme);
+    Log.sysLog("Alte Filmliste: " + filmeAlt.size() + " Filme, " + (filmeAlt.getUsedBytes() >> 20) + " MB");
     Config.setStop(false);
+    CancellationToken.startRun();
     startZeit = new Date(System.currentTimeMillis());
     listeFilmeNeu = new ListeFilme();
+    filmCollector = new FilmCollector();
+    IncrementalIndex.getInstance().start(filmeAlt);
+    CrawlCheckpoint.getInstance().start();
 //        listeFilmeNeu.liveStreamEintragen();
     Log.sysLog("");
     Log.sysLog("=======================================");
@@ -320,6 +352,8 @@ public class FilmeSuchen {
       Log.sysLog("Filme laden: max");
     } else if (CrawlerTool.loadLongMax()) {
       Log.sysLog("Filme laden: long");
+    } else if (CrawlerTool.loadIncremental()) {
+      Log.sysLog("Filme laden: incremental");
     } else {
       Log.sysLog("Filme laden: short");
     }
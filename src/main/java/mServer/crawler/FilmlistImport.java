@@ -0,0 +1,131 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import de.mediathekview.mlib.filmlisten.FilmlisteLesen;
+import de.mediathekview.mlib.tool.Log;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Imports foreign film lists into the film list, like
+ * ListeFilme.updateListe() with the comparison of the urls: films whose url is
+ * not in the list yet are added.
+ *
+ * The index of the urls ({@link FingerprintSet}) is built once for all imports. The imported list is
+ * not kept, each film read by FilmlisteLesen (or prefetched by
+ * {@link ImportPrefetch}) is sorted in at once. The film
+ * list is not sorted, this is done once after all imports.
+ *
+ * Like updateListe() a film is compared with the list before the import: films
+ * with the same url in one imported list are all added, the urls are added to
+ * the index when the import is finished.
+ */
+public class FilmlistImport {
+
+  private final ListeFilme listeFilme;
+  private final FingerprintSet urls;
+
+  /**
+   * @param aListeFilme the film list the films are added to
+   */
+  public FilmlistImport(final ListeFilme aListeFilme) {
+    listeFilme = aListeFilme;
+    urls = FingerprintSet.of(aListeFilme, FingerprintSet::url);
+  }
+
+  /**
+   * reads the list and adds the new films.
+   *
+   * @param aSource the url or file of the list
+   * @return the number of films in the imported list
+   */
+  public int importListe(final String aSource) {
+    final Merge merge = new Merge();
+    read(aSource, merge);
+    merge.finish();
+    Log.sysLog("    neue Filme: " + merge.added);
+    return merge.read;
+  }
+
+  /**
+   * adds the new films of a list read before.
+   *
+   * @param aFilme the films of the list
+   * @return the number of films in the imported list
+   */
+  public int importListe(final CompactFilmStore aFilme) {
+    final Merge merge = new Merge();
+    aFilme.forEach(merge);
+    merge.finish();
+    Log.sysLog("    neue Filme: " + merge.added);
+    return merge.read;
+  }
+
+  /**
+   * reads a film list without keeping it: each film read by FilmlisteLesen is
+   * passed to the consumer.
+   *
+   * @param aSource the url or file of the list
+   * @param aConsumer gets the films
+   */
+  static void read(final String aSource, final Consumer<DatenFilm> aConsumer) {
+    new FilmlisteLesen().readFilmListe(aSource, new SinkListe(aConsumer), 0 /*all days*/);
+  }
+
+  private class Merge implements Consumer<DatenFilm> {
+
+    private int read = 0;
+    private int added = 0;
+    private long[] addedUrls = new long[1024];
+
+    @Override
+    public void accept(final DatenFilm aFilm) {
+      read++;
+      // wie updateListe(): nur mit der Liste vor dem Import vergleichen
+      final long url = FingerprintSet.url(aFilm);
+      if (!urls.contains(url)) {
+        listeFilme.add(aFilm);
+        if (added == addedUrls.length) {
+          addedUrls = Arrays.copyOf(addedUrls, added * 2);
+        }
+        addedUrls[added++] = url;
+      }
+    }
+
+    void finish() {
+      for (int i = 0; i < added; i++) {
+        urls.add(addedUrls[i]);
+      }
+      addedUrls = null;
+    }
+  }
+
+  /**
+   * the film list FilmlisteLesen fills, it passes the films on instead of
+   * keeping them.
+   */
+  private static class SinkListe extends ListeFilme {
+
+    private static final long serialVersionUID = -5617339042270146685L;
+
+    private final transient Consumer<DatenFilm> consumer;
+
+    SinkListe(final Consumer<DatenFilm> aConsumer) {
+      consumer = aConsumer;
+    }
+
+    @Override
+    public boolean add(final DatenFilm aFilm) {
+      consumer.accept(aFilm);
+      return true;
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends DatenFilm> aFilms) {
+      aFilms.forEach(this::add);
+      return !aFilms.isEmpty();
+    }
+  }
+}
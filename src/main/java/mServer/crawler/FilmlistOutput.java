@@ -0,0 +1,218 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.daten.ListeFilme;
+import de.mediathekview.mlib.filmlisten.WriteFilmlistJson;
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import mServer.crawler.sender.base.CrawlerExecutors;
+import mServer.tool.MserverDaten;
+import mServer.tool.ParallelXzOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes a film list to several files: the list is serialized once to the json
+ * file, the copies and the compressed file are created from it in parallel,
+ * the compression itself uses {@link ParallelXzOutputStream}.
+ * Compressed files with the same content are only compressed once and then
+ * copied.
+ *
+ * The copies and compressed files are written to a temporary file first and
+ * moved at the end, so a reader never gets a partial file.
+ */
+public class FilmlistOutput {
+
+  private static final Logger LOG = LogManager.getLogger(FilmlistOutput.class);
+
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final ListeFilme listeFilme;
+  private final Path json;
+  private final List<Path> copies = new ArrayList<>();
+  private final List<Path> compressed = new ArrayList<>();
+  private final List<Path> snapshots = new ArrayList<>();
+  private final List<Path> keyIndexes = new ArrayList<>();
+
+  /**
+   * @param aListeFilme the film list
+   * @param aJson the json file the list is serialized to
+   */
+  public FilmlistOutput(final ListeFilme aListeFilme, final String aJson) {
+    listeFilme = aListeFilme;
+    json = Paths.get(aJson);
+  }
+
+  /**
+   * @param aFile a further json file with the list
+   * @return this
+   */
+  public FilmlistOutput addCopy(final String aFile) {
+    copies.add(Paths.get(aFile));
+    return this;
+  }
+
+  /**
+   * @param aFile a xz compressed file with the list
+   * @return this
+   */
+  public FilmlistOutput addCompressed(final String aFile) {
+    compressed.add(Paths.get(aFile));
+    return this;
+  }
+
+  /**
+   * @param aJsonFile the json file or one of the copies which gets a
+   * {@link FilmlistSnapshot}
+   * @return this
+   */
+  public FilmlistOutput addSnapshot(final String aJsonFile) {
+    snapshots.add(FilmlistSnapshot.getSnapshotPath(Paths.get(aJsonFile)));
+    return this;
+  }
+
+  /**
+   * @param aJsonFile the json file or one of the copies which gets a
+   * {@link FilmKeyIndex}
+   * @return this
+   */
+  public FilmlistOutput addKeyIndex(final String aJsonFile) {
+    keyIndexes.add(Paths.get(aJsonFile));
+    return this;
+  }
+
+  /**
+   * writes all files.
+   *
+   * @return true if all files are written
+   */
+  public boolean write() {
+    final long start = System.currentTimeMillis();
+    new WriteFilmlistJson().filmlisteSchreibenJson(json.toString(), listeFilme);
+    if (!Files.exists(json)) {
+      Log.errorLog(736201954, "Filmliste nicht geschrieben: " + json);
+      return false;
+    }
+
+    final List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (Path copy : copies) {
+      futures.add(CompletableFuture.runAsync(() -> copy(json, copy), CrawlerExecutors.getIoPool()));
+    }
+    if (!compressed.isEmpty()) {
+      final Path first = compressed.get(0);
+      final CompletableFuture<Void> compression
+              = CompletableFuture.runAsync(() -> compress(json, first), CrawlerExecutors.getCpuPool());
+      futures.add(compression);
+      for (Path other : compressed.subList(1, compressed.size())) {
+        futures.add(compression.thenRunAsync(() -> copy(first, other), CrawlerExecutors.getIoPool()));
+      }
+    }
+    if (!snapshots.isEmpty()) {
+      // die Kopien der json-Datei sind gleich, der Snapshot passt auch zu ihnen
+      final Path first = snapshots.get(0);
+      final CompletableFuture<Void> snapshot = CompletableFuture.runAsync(() -> writeSnapshot(first),
+              CrawlerExecutors.getIoPool());
+      futures.add(snapshot);
+      for (Path other : snapshots.subList(1, snapshots.size())) {
+        futures.add(snapshot.thenRunAsync(() -> copy(first, other), CrawlerExecutors.getIoPool()));
+      }
+    }
+    for (Path keyIndex : keyIndexes) {
+      futures.add(CompletableFuture.runAsync(() -> writeKeyIndex(keyIndex), CrawlerExecutors.getCpuPool()));
+    }
+
+    boolean ok = true;
+    for (CompletableFuture<Void> future : futures) {
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        Log.errorLog(736201955, e, "Filmliste schreiben");
+        ok = false;
+      }
+    }
+    LOG.debug("film list {} and {} further files written in {} ms", json, copies.size() + compressed.size() + snapshots.size()
+            + keyIndexes.size(),
+            System.currentTimeMillis() - start);
+    return ok;
+  }
+
+  private void writeSnapshot(final Path aSnapshot) {
+    try {
+      FilmlistSnapshot.write(listeFilme, json);
+      final Path written = FilmlistSnapshot.getSnapshotPath(json);
+      if (!written.equals(aSnapshot)) {
+        Files.move(written, aSnapshot, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  private void writeKeyIndex(final Path aJsonFile) {
+    try {
+      // die Prüfsumme der json-Datei stimmt auch für die Kopien
+      FilmKeyIndex.write(listeFilme, json);
+      final Path written = FilmKeyIndex.getKeyPath(json);
+      final Path target = FilmKeyIndex.getKeyPath(aJsonFile);
+      if (!written.equals(target)) {
+        Files.move(written, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  private static void copy(final Path aSource, final Path aTarget) {
+    final Path temp = getTempFile(aTarget);
+    try {
+      Files.copy(aSource, temp, StandardCopyOption.REPLACE_EXISTING);
+      Files.move(temp, aTarget, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      deleteTempFile(temp);
+      throw new CompletionException(e);
+    }
+  }
+
+  private static void compress(final Path aSource, final Path aTarget) {
+    Log.sysLog("Komprimiere Datei: " + aTarget);
+    final Path temp = getTempFile(aTarget);
+    try {
+      try (InputStream in = Files.newInputStream(aSource);
+              OutputStream out = new ParallelXzOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE),
+                      MserverDaten.getXzBlockSizeMb() << 20, MserverDaten.getXzThreads())) {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+          out.write(buffer, 0, read);
+        }
+      }
+      Files.move(temp, aTarget, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      deleteTempFile(temp);
+      throw new CompletionException(e);
+    }
+  }
+
+  private static Path getTempFile(final Path aTarget) {
+    return aTarget.resolveSibling(aTarget.getFileName() + TEMP_SUFFIX);
+  }
+
+  private static void deleteTempFile(final Path aTemp) {
+    try {
+      Files.deleteIfExists(aTemp);
+    } catch (IOException e) {
+      Log.errorLog(736201956, e, "Datei löschen: " + aTemp);
+    }
+  }
+}
@@ -0,0 +1,369 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Binary snapshot of a film list written by MServer, kept next to the json file
+ * ({@link #SUFFIX}). The json columns are stored one after the other as UTF-8
+ * data with an offset table, the file is memory mapped when it is read, so a
+ * value is decoded directly from the file without parsing the json.
+ *
+ * The snapshot stores size and checksum of the json file it belongs to, if the
+ * json file was replaced the snapshot is not used. Foreign lists (imports) are
+ * still read as json.
+ *
+ * File layout: header (magic, version, json size and checksum, number of films,
+ * meta data), the data of the columns, the offset tables of the columns (one
+ * int per film + 1), the directory (field, position of data and offset table
+ * per column) and at the end the position of the directory.
+ */
+public class FilmlistSnapshot {
+
+  private static final Logger LOG = LogManager.getLogger(FilmlistSnapshot.class);
+
+  public static final String SUFFIX = ".snapshot";
+  private static final long MAGIC = 0x4d53534e41503031L; // MSSNAP01
+  private static final int FORMAT_VERSION = 1;
+  private static final int CHECKSUM_BYTES = 64 * 1024;
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final FileChannel channel;
+  private final int filmCount;
+  private final String[] metaDaten;
+  private final int[] fields;
+  private final MappedByteBuffer[] offsets;
+  private final MappedByteBuffer[] data;
+
+  private FilmlistSnapshot(final FileChannel aChannel) throws IOException {
+    channel = aChannel;
+    final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), 1 << 16));
+    header.getLong(); // magic, version, json: schon geprüft
+    header.getInt();
+    header.getLong();
+    header.getLong();
+    filmCount = header.getInt();
+    metaDaten = new String[header.getInt()];
+    for (int i = 0; i < metaDaten.length; i++) {
+      final byte[] bytes = new byte[header.getInt()];
+      header.get(bytes);
+      metaDaten[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    final ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, channel.size() - Long.BYTES, Long.BYTES);
+    final long directoryPosition = trailer.getLong();
+    final ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryPosition,
+            channel.size() - Long.BYTES - directoryPosition);
+    final int fieldCount = directory.getInt();
+    fields = new int[fieldCount];
+    offsets = new MappedByteBuffer[fieldCount];
+    data = new MappedByteBuffer[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      fields[i] = directory.getInt();
+      final long dataPosition = directory.getLong();
+      final long dataSize = directory.getLong();
+      final long offsetPosition = directory.getLong();
+      data[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataPosition, dataSize);
+      offsets[i] = channel.map(FileChannel.MapMode.READ_ONLY, offsetPosition, (filmCount + 1L) * Integer.BYTES);
+    }
+  }
+
+  /**
+   * @param aJsonFile the json file of the film list
+   * @return the file of the snapshot
+   */
+  public static Path getSnapshotPath(final Path aJsonFile) {
+    return aJsonFile.resolveSibling(aJsonFile.getFileName() + SUFFIX);
+  }
+
+  /**
+   * opens the snapshot of the json file.
+   *
+   * @param aJsonFile the json file of the film list
+   * @return the snapshot, null if there is none or it does not belong to the
+   * json file
+   */
+  public static FilmlistSnapshot open(final String aJsonFile) {
+    final Path json;
+    try {
+      json = Paths.get(aJsonFile);
+    } catch (InvalidPathException e) {
+      // z.B. eine URL
+      return null;
+    }
+    final Path snapshot = getSnapshotPath(json);
+    if (!Files.isRegularFile(json) || !Files.isRegularFile(snapshot)) {
+      return null;
+    }
+
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(snapshot, StandardOpenOption.READ);
+      final ByteBuffer header = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + 2 * Long.BYTES);
+      while (header.hasRemaining() && channel.read(header) > 0) {
+        // Kopf lesen
+      }
+      header.flip();
+      if (header.remaining() < header.capacity() || header.getLong() != MAGIC || header.getInt() != FORMAT_VERSION
+              || header.getLong() != Files.size(json) || header.getLong() != checksum(json)) {
+        LOG.debug("snapshot {} does not belong to {}", snapshot, json);
+        channel.close();
+        return null;
+      }
+      return new FilmlistSnapshot(channel);
+    } catch (IOException | RuntimeException e) {
+      Log.errorLog(736201957, e, "Snapshot lesen: " + snapshot);
+      closeQuietly(channel);
+      return null;
+    }
+  }
+
+  /**
+   * reads the film list from the snapshot of the json file.
+   *
+   * @param aJsonFile the json file of the film list
+   * @param aListeFilme the list the films are added to
+   * @return true if the list is read from the snapshot, false if the json file
+   * must be read
+   */
+  public static boolean read(final String aJsonFile, final ListeFilme aListeFilme) {
+    final FilmlistSnapshot snapshot = open(aJsonFile);
+    if (snapshot == null) {
+      return false;
+    }
+    final long start = System.currentTimeMillis();
+    try {
+      aListeFilme.clear();
+      aListeFilme.ensureCapacity(snapshot.size());
+      System.arraycopy(snapshot.metaDaten, 0, aListeFilme.metaDaten, 0,
+              Math.min(snapshot.metaDaten.length, aListeFilme.metaDaten.length));
+      for (int row = 0; row < snapshot.size(); row++) {
+        aListeFilme.add(snapshot.get(row));
+      }
+      Log.sysLog("Filmliste aus Snapshot gelesen: " + aListeFilme.size() + " Filme in "
+              + (System.currentTimeMillis() - start) + " ms");
+      return true;
+    } catch (RuntimeException e) {
+      Log.errorLog(736201958, e, "Snapshot lesen: " + aJsonFile);
+      aListeFilme.clear();
+      return false;
+    } finally {
+      snapshot.close();
+    }
+  }
+
+  /**
+   * writes the snapshot of the film list. The json file must be written
+   * before.
+   *
+   * @param aListeFilme the film list
+   * @param aJsonFile the json file of the film list
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static void write(final ListeFilme aListeFilme, final Path aJsonFile) throws IOException {
+    final Path snapshot = getSnapshotPath(aJsonFile);
+    final Path temp = snapshot.resolveSibling(snapshot.getFileName() + TEMP_SUFFIX);
+    final int[] columns = DatenFilm.JSON_SELECTED_COLUMNS;
+    final int filmCount = aListeFilme.size();
+    final long[] dataPositions = new long[columns.length];
+    final long[] dataSizes = new long[columns.length];
+    final long[] offsetPositions = new long[columns.length];
+    final int[][] offsetTables = new int[columns.length][];
+
+    try (CountingOutputStream counter = new CountingOutputStream(Files.newOutputStream(temp));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, 1 << 16))) {
+      out.writeLong(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(Files.size(aJsonFile));
+      out.writeLong(checksum(aJsonFile));
+      out.writeInt(filmCount);
+      out.writeInt(aListeFilme.metaDaten.length);
+      for (String value : aListeFilme.metaDaten) {
+        final byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+
+      for (int i = 0; i < columns.length; i++) {
+        out.flush();
+        dataPositions[i] = counter.count;
+        final int[] offsetTable = new int[filmCount + 1];
+        long offset = 0;
+        for (int row = 0; row < filmCount; row++) {
+          final String value = aListeFilme.get(row).arr[columns[i]];
+          if (value != null && !value.isEmpty()) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes);
+            offset += bytes.length;
+            if (offset > Integer.MAX_VALUE) {
+              throw new IOException("column " + columns[i] + " too large");
+            }
+          }
+          offsetTable[row + 1] = (int) offset;
+        }
+        dataSizes[i] = offset;
+        offsetTables[i] = offsetTable;
+      }
+
+      for (int i = 0; i < columns.length; i++) {
+        out.flush();
+        offsetPositions[i] = counter.count;
+        for (int value : offsetTables[i]) {
+          out.writeInt(value);
+        }
+        offsetTables[i] = null;
+      }
+
+      out.flush();
+      final long directoryPosition = counter.count;
+      out.writeInt(columns.length);
+      for (int i = 0; i < columns.length; i++) {
+        out.writeInt(columns[i]);
+        out.writeLong(dataPositions[i]);
+        out.writeLong(dataSizes[i]);
+        out.writeLong(offsetPositions[i]);
+      }
+      out.writeLong(directoryPosition);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * @return the number of films
+   */
+  public int size() {
+    return filmCount;
+  }
+
+  /**
+   * @param aRow the number of the film
+   * @param aField the field, e.g. DatenFilm.FILM_URL
+   * @return the value, decoded from the mapped file, "" if the field is not
+   * stored
+   */
+  public String getValue(final int aRow, final int aField) {
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i] == aField) {
+        return getColumnValue(i, aRow);
+      }
+    }
+    return "";
+  }
+
+  /**
+   * @param aRow the number of the film
+   * @return a new film with the values of the snapshot
+   */
+  public DatenFilm get(final int aRow) {
+    final DatenFilm film = new DatenFilm();
+    Arrays.fill(film.arr, "");
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i] < film.arr.length) {
+        film.arr[fields[i]] = getColumnValue(i, aRow);
+      }
+    }
+    film.init();
+    return film;
+  }
+
+  /**
+   * closes the file, the mapped buffers are released by the gc.
+   */
+  public void close() {
+    closeQuietly(channel);
+  }
+
+  private String getColumnValue(final int aColumn, final int aRow) {
+    final int start = offsets[aColumn].getInt(aRow * Integer.BYTES);
+    final int end = offsets[aColumn].getInt((aRow + 1) * Integer.BYTES);
+    if (start == end) {
+      return "";
+    }
+    final ByteBuffer value = data[aColumn].duplicate();
+    value.position(start);
+    value.limit(end);
+    return StandardCharsets.UTF_8.decode(value).toString();
+  }
+
+  /**
+   * @return checksum over size, begin and end of the file: the begin contains
+   * the meta data (date, id) of the list
+   */
+  static long checksum(final Path aFile) throws IOException {
+    final CRC32 crc = new CRC32();
+    try (FileChannel file = FileChannel.open(aFile, StandardOpenOption.READ)) {
+      final long size = file.size();
+      crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, size).array());
+      update(crc, file, 0, Math.min(size, CHECKSUM_BYTES));
+      if (size > CHECKSUM_BYTES) {
+        final long start = Math.max(CHECKSUM_BYTES, size - CHECKSUM_BYTES);
+        update(crc, file, start, size - start);
+      }
+    }
+    return crc.getValue();
+  }
+
+  private static void update(final CRC32 aCrc, final FileChannel aFile, final long aPosition, final long aLength)
+          throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate((int) aLength);
+    while (buffer.hasRemaining() && aFile.read(buffer, aPosition + buffer.position()) > 0) {
+      // weiterlesen
+    }
+    aCrc.update(buffer.array(), 0, buffer.position());
+  }
+
+  private static void closeQuietly(final FileChannel aChannel) {
+    if (aChannel == null) {
+      return;
+    }
+    try {
+      aChannel.close();
+    } catch (IOException e) {
+      LOG.debug("closing snapshot failed", e);
+    }
+  }
+
+  private static class CountingOutputStream extends FilterOutputStream {
+
+    private long count = 0;
+
+    CountingOutputStream(final OutputStream aOut) {
+      super(aOut);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
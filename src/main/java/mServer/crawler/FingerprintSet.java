@@ -0,0 +1,244 @@
+package mServer.crawler;
+
+import com.google.common.hash.Hashing;
+import de.mediathekview.mlib.daten.DatenFilm;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import mServer.crawler.sender.base.CrawlerExecutors;
+
+/**
+ * Set of 64 bit fingerprints of films, e.g. to find the films of a list which
+ * are already in another list (by url or by DatenFilm.getIndexAddOld()). The
+ * fingerprints are kept in open addressing tables of primitive longs, no object
+ * is created per film.
+ *
+ * The set is split into shards by the upper bits of the fingerprint. It is
+ * built in parallel in the CPU pool of the {@link CrawlerExecutors} without
+ * locks: the fingerprints are computed in parallel, partitioned by shard (each
+ * thread writes its own part of the array) and each shard fills its table in
+ * its own task. Lookups are thread safe, adding is not.
+ */
+public class FingerprintSet {
+
+  private static final int SHARD_BITS = 6;
+  private static final int MIN_SIZE_PARALLEL = 1 << 16;
+  private static final int MIN_CAPACITY = 16;
+  private static final long EMPTY = 0;
+
+  private final int shardShift;
+  private final long[][] tables;
+  private final int[] sizes;
+  private boolean containsEmpty = false;
+  private int size = 0;
+
+  private FingerprintSet(final int aShardBits) {
+    // bei 0 Bits gibt es nur eine Tabelle, das Verschieben um 64 ergibt dann 0
+    shardShift = aShardBits == 0 ? 0 : Long.SIZE - aShardBits;
+    tables = new long[1 << aShardBits][];
+    sizes = new int[1 << aShardBits];
+  }
+
+  /**
+   * creates an empty set.
+   */
+  public FingerprintSet() {
+    this(0);
+    tables[0] = new long[MIN_CAPACITY];
+  }
+
+  /**
+   * creates the set of the fingerprints of the films in parallel.
+   *
+   * @param aFilme the films
+   * @param aFingerprint the fingerprint of a film, e.g. {@link #url(DatenFilm)}
+   * @return the set
+   */
+  public static FingerprintSet of(final Collection<DatenFilm> aFilme, final ToLongFunction<DatenFilm> aFingerprint) {
+    // die parallelen Streams laufen im Pool des aufrufenden Tasks
+    final ForkJoinPool pool = CrawlerExecutors.getCpuPool();
+    return pool.submit(() -> build(aFilme, aFingerprint, pool.getParallelism())).join();
+  }
+
+  private static FingerprintSet build(final Collection<DatenFilm> aFilme, final ToLongFunction<DatenFilm> aFingerprint,
+          final int aChunks) {
+    final long[] keys = aFilme.parallelStream().mapToLong(aFingerprint).toArray();
+    if (keys.length < MIN_SIZE_PARALLEL) {
+      final FingerprintSet set = new FingerprintSet(0);
+      set.tables[0] = new long[capacityFor(keys.length)];
+      for (long key : keys) {
+        set.add(key);
+      }
+      return set;
+    }
+
+    final FingerprintSet set = new FingerprintSet(SHARD_BITS);
+    final int shards = set.tables.length;
+    final int chunks = Math.max(1, aChunks);
+    final int chunkSize = (keys.length + chunks - 1) / chunks;
+
+    // 1. je Abschnitt zählen, wie viele Schlüssel in welchen Shard gehören
+    final int[][] counts = new int[chunks][shards];
+    IntStream.range(0, chunks).parallel().forEach(chunk -> {
+      final int[] count = counts[chunk];
+      for (int i = chunk * chunkSize; i < Math.min(keys.length, (chunk + 1) * chunkSize); i++) {
+        count[set.shard(keys[i])]++;
+      }
+    });
+
+    // 2. Startpositionen: die Shards hintereinander, darin die Abschnitte
+    final int[] shardStart = new int[shards + 1];
+    final int[][] offsets = new int[chunks][shards];
+    int position = 0;
+    for (int shard = 0; shard < shards; shard++) {
+      shardStart[shard] = position;
+      for (int chunk = 0; chunk < chunks; chunk++) {
+        offsets[chunk][shard] = position;
+        position += counts[chunk][shard];
+      }
+    }
+    shardStart[shards] = position;
+
+    // 3. jeder Abschnitt schreibt in seine eigenen Bereiche
+    final long[] partitioned = new long[keys.length];
+    IntStream.range(0, chunks).parallel().forEach(chunk -> {
+      final int[] offset = offsets[chunk];
+      for (int i = chunk * chunkSize; i < Math.min(keys.length, (chunk + 1) * chunkSize); i++) {
+        partitioned[offset[set.shard(keys[i])]++] = keys[i];
+      }
+    });
+
+    // 4. jeder Shard füllt seine eigene Tabelle
+    final boolean[] containsEmpty = new boolean[shards];
+    IntStream.range(0, shards).parallel().forEach(shard -> {
+      final long[] table = new long[capacityFor(shardStart[shard + 1] - shardStart[shard])];
+      int count = 0;
+      for (int i = shardStart[shard]; i < shardStart[shard + 1]; i++) {
+        if (partitioned[i] == EMPTY) {
+          containsEmpty[shard] = true;
+        } else if (insert(table, partitioned[i])) {
+          count++;
+        }
+      }
+      set.tables[shard] = table;
+      set.sizes[shard] = count;
+    });
+
+    for (int shard = 0; shard < shards; shard++) {
+      set.size += set.sizes[shard];
+      set.containsEmpty |= containsEmpty[shard];
+    }
+    if (set.containsEmpty) {
+      set.size++;
+    }
+    return set;
+  }
+
+  /**
+   * @param aFilm the film
+   * @return the fingerprint of the url of the film
+   */
+  public static long url(final DatenFilm aFilm) {
+    return Hashing.murmur3_128().hashString(aFilm.getUrl(), StandardCharsets.UTF_8).asLong();
+  }
+
+  /**
+   * @param aFilm the film
+   * @return the fingerprint of DatenFilm.getIndexAddOld()
+   */
+  public static long indexAddOld(final DatenFilm aFilm) {
+    return FilmKeyIndex.getKey(aFilm);
+  }
+
+  /**
+   * @param aKey the fingerprint
+   * @return true if the set contains the fingerprint
+   */
+  public boolean contains(final long aKey) {
+    if (aKey == EMPTY) {
+      return containsEmpty;
+    }
+    final long[] table = tables[shard(aKey)];
+    final int mask = table.length - 1;
+    for (int i = index(aKey, mask); ; i = (i + 1) & mask) {
+      final long value = table[i];
+      if (value == aKey) {
+        return true;
+      }
+      if (value == EMPTY) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * adds the fingerprint, not thread safe.
+   *
+   * @param aKey the fingerprint
+   * @return true if the set did not contain the fingerprint
+   */
+  public boolean add(final long aKey) {
+    if (aKey == EMPTY) {
+      if (containsEmpty) {
+        return false;
+      }
+      containsEmpty = true;
+      size++;
+      return true;
+    }
+    final int shard = shard(aKey);
+    if ((sizes[shard] + 1) * 2 > tables[shard].length) {
+      tables[shard] = resize(tables[shard]);
+    }
+    if (insert(tables[shard], aKey)) {
+      sizes[shard]++;
+      size++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * @return the number of fingerprints
+   */
+  public int size() {
+    return size;
+  }
+
+  private int shard(final long aKey) {
+    return shardShift == 0 ? 0 : (int) (aKey >>> shardShift);
+  }
+
+  private static int index(final long aKey, final int aMask) {
+    // die oberen Bits bestimmen schon den Shard
+    return (int) ((aKey * 0x9E3779B97F4A7C15L) >>> 32) & aMask;
+  }
+
+  private static boolean insert(final long[] aTable, final long aKey) {
+    final int mask = aTable.length - 1;
+    for (int i = index(aKey, mask); ; i = (i + 1) & mask) {
+      final long value = aTable[i];
+      if (value == aKey) {
+        return false;
+      }
+      if (value == EMPTY) {
+        aTable[i] = aKey;
+        return true;
+      }
+    }
+  }
+
+  private static long[] resize(final long[] aTable) {
+    final long[] table = new long[aTable.length * 2];
+    Arrays.stream(aTable).filter(key -> key != EMPTY).forEach(key -> insert(table, key));
+    return table;
+  }
+
+  private static int capacityFor(final int aCount) {
+    // höchstens halb voll
+    return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, aCount) * 2 - 1) << 1);
+  }
+}
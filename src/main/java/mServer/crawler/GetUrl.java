@@ -30,7 +30,8 @@ import java.util.concurrent.TimeUnit;
 import de.mediathekview.mlib.Config;
 import de.mediathekview.mlib.tool.Log;
 import de.mediathekview.mlib.tool.MSStringBuilder;
-import de.mediathekview.mlib.tool.MVHttpClient;
+import mServer.crawler.sender.base.HostRateLimiter;
+import mServer.crawler.sender.base.HttpTransport;
 import mServer.tool.MserverDaten;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -84,13 +85,6 @@ public class GetUrl {
             ++aktVer;
             try {
 
-                if (delayVal > 0) {
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(delayVal);
-                    } catch (InterruptedException ignored) {
-                    }
-                }
-
                 if (aktVer > 1) {
                     // und noch eine Pause vor dem nächsten Versuch
                     TimeUnit.MILLISECONDS.sleep(PAUSE);
@@ -147,7 +141,12 @@ public class GetUrl {
 
     private long webCall(Request request, MSStringBuilder seite, final Charset encoding) throws IOException {
         long load = 0;
-        try (Response response = MVHttpClient.getInstance().getHttpClient().newCall(request).execute();
+        if (delayVal > 0) {
+            // die Pause zwischen den Requests ist nur noch die Start-Rate für den Host,
+            // die tatsächliche Rate regelt der HostRateLimiter
+            HostRateLimiter.getInstance().suggestRate(request.url().host(), 1000.0 / delayVal);
+        }
+        try (Response response = HttpTransport.getInstance().getHttpClient().newCall(request).execute();
                 ResponseBody body = response.body()) {
             if (response.isSuccessful()) {
                 load = transferData(body, encoding, seite);
@@ -0,0 +1,93 @@
+package mServer.crawler;
+
+import de.mediathekview.mlib.Config;
+import de.mediathekview.mlib.tool.Log;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import mServer.crawler.sender.base.CancellationToken;
+
+/**
+ * Loads the foreign film lists imported at the end of the run (live streams,
+ * import urls, akt and old list) while the crawlers run. The lists do not
+ * depend on the crawl, so download, decompression and parsing are done in
+ * parallel at the start, only the merge waits for the crawl.
+ *
+ * The films are kept in a {@link CompactFilmStore}, a list configured for
+ * several imports is only loaded once. FilmlisteLesen stops reading when the
+ * run is stopped, such a list is incomplete and is not used: the import reads
+ * the list again.
+ */
+public class ImportPrefetch {
+
+  private final Map<String, CompletableFuture<CompactFilmStore>> lists = new ConcurrentHashMap<>();
+
+  /**
+   * starts loading the lists.
+   *
+   * @param aSources the urls or files of the lists, empty ones are ignored
+   */
+  public void start(final Collection<String> aSources) {
+    final CancellationToken token = CancellationToken.getRunToken();
+    final AtomicInteger threadNumber = new AtomicInteger();
+    final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+      final Thread thread = new Thread(runnable, "import-prefetch-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (String source : aSources) {
+      if (source != null && !source.isEmpty()) {
+        lists.computeIfAbsent(source, s -> CompletableFuture.supplyAsync(() -> load(s, token), executor));
+      }
+    }
+    // die Threads enden, wenn alles geladen ist
+    executor.shutdown();
+  }
+
+  /**
+   * waits until the list is loaded.
+   *
+   * @param aSource the url or file of the list
+   * @return the films, null if the list was not loaded before or the loading
+   * failed or was stopped (then it has to be read now)
+   */
+  public CompactFilmStore get(final String aSource) {
+    final CompletableFuture<CompactFilmStore> future = lists.get(aSource);
+    if (future == null) {
+      return null;
+    }
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Log.errorLog(736201960, e, "Import laden: " + aSource);
+      return null;
+    }
+  }
+
+  /**
+   * releases the loaded lists.
+   */
+  public void clear() {
+    lists.clear();
+  }
+
+  private static CompactFilmStore load(final String aSource, final CancellationToken aToken) {
+    final long start = System.currentTimeMillis();
+    final CompactFilmStore filme = new CompactFilmStore();
+    FilmlistImport.read(aSource, filme::add);
+    // der Token bleibt abgebrochen, auch wenn Config.getStop() schon wieder zurückgesetzt ist
+    if (aToken.isCancelled() || Config.getStop() || filme.isEmpty()) {
+      Log.sysLog("Import vorab laden abgebrochen: " + aSource);
+      filme.clear();
+      return null;
+    }
+    Log.sysLog("Import vorab geladen: " + aSource + ", " + filme.size() + " Filme in "
+            + (System.currentTimeMillis() - start) / 1000 + " s");
+    return filme;
+  }
+}
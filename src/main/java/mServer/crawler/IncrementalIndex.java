@@ -0,0 +1,310 @@
+package mServer.crawler;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Index of the detail pages loaded in the previous runs: detail id -> urls and
+ * fingerprint of the films of the detail page. It is kept in the folder of the
+ * film lists.
+ *
+ * In the incremental mode a detail page whose id was loaded recently is not
+ * loaded again, the films of the previous film list are used instead. New ids,
+ * ids not loaded for {@link #MAX_REUSE_DAYS} days and a rotating sample of the
+ * other ids are loaded again.
+ *
+ * The ARD crawler uses the index only for detail pages with a single clip. A
+ * page with several clips is always loaded, the films of the other clips are
+ * found through it.
+ */
+public class IncrementalIndex {
+
+  private static final Logger LOG = LogManager.getLogger(IncrementalIndex.class);
+
+  private static final int FORMAT_VERSION = 1;
+  private static final String TEMP_SUFFIX = ".tmp";
+  /**
+   * each run loads one of REVALIDATION_SAMPLE ids again.
+   */
+  private static final int REVALIDATION_SAMPLE = 10;
+  private static final long MAX_REUSE_DAYS = 7;
+  private static final long MAX_KEEP_DAYS = 30;
+
+  private static IncrementalIndex instance;
+
+  private final Path file;
+  private final LongSupplier clock;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicInteger reused = new AtomicInteger();
+  private final AtomicInteger loaded = new AtomicInteger();
+  private final AtomicInteger changed = new AtomicInteger();
+  private int runNumber = 0;
+  private CompactFilmStore filmeAlt = new CompactFilmStore();
+
+  IncrementalIndex(final Path aFile) {
+    this(aFile, System::currentTimeMillis);
+  }
+
+  IncrementalIndex(final Path aFile, final LongSupplier aClock) {
+    file = aFile;
+    clock = aClock;
+  }
+
+  public static synchronized IncrementalIndex getInstance() {
+    if (instance == null) {
+      instance = new IncrementalIndex(Paths.get(CrawlerTool.getPathIncrementalIndex()));
+    }
+    return instance;
+  }
+
+  /**
+   * reads the index at the start of a run.
+   *
+   * @param aFilmeAlt the film list of the previous run
+   */
+  synchronized void start(final CompactFilmStore aFilmeAlt) {
+    filmeAlt = aFilmeAlt;
+    entries.clear();
+    reused.set(0);
+    loaded.set(0);
+    changed.set(0);
+    read();
+  }
+
+  /**
+   * writes the index at the end of a run.
+   */
+  synchronized void finish() {
+    runNumber++;
+    write();
+    if (CrawlerTool.loadIncremental()) {
+      Log.sysLog("Inkrementell: " + reused.get() + " Detailseiten übernommen, " + loaded.get() + " geladen, "
+              + changed.get() + " davon geändert");
+    }
+    filmeAlt = new CompactFilmStore();
+  }
+
+  /**
+   * passes the films of the previous run to the consumer, if the detail page
+   * need not be loaded.
+   *
+   * @param aSender the name of the crawler
+   * @param aDetailId the id (or url) of the detail page
+   * @param aConsumer gets the films
+   * @return true if the films are reused, false if the page must be loaded
+   */
+  public boolean reuseFilms(final String aSender, final String aDetailId, final Consumer<DatenFilm> aConsumer) {
+    return reuseFilms(aSender, aDetailId, film -> new DatenFilm(), aConsumer);
+  }
+
+  /**
+   * like {@link #reuseFilms(String, String, Consumer)}, for crawlers which
+   * need their own film class.
+   *
+   * @param aSender the name of the crawler
+   * @param aDetailId the id (or url) of the detail page
+   * @param aNewFilm creates the film the old film is copied into
+   * @param aConsumer gets the films
+   * @return true if the films are reused, false if the page must be loaded
+   */
+  public boolean reuseFilms(final String aSender, final String aDetailId,
+          final Function<DatenFilm, DatenFilm> aNewFilm, final Consumer<DatenFilm> aConsumer) {
+    if (!CrawlerTool.loadIncremental()) {
+      return false;
+    }
+
+    final String key = createKey(aSender, aDetailId);
+    final Entry entry = entries.get(key);
+    final long now = clock.getAsLong();
+    if (entry == null || entry.urls == null
+            || now - entry.lastLoaded >= TimeUnit.DAYS.toMillis(MAX_REUSE_DAYS)
+            || Math.floorMod(aDetailId.hashCode() + runNumber, REVALIDATION_SAMPLE) == 0) {
+      return false;
+    }
+
+    final List<DatenFilm> films = new ArrayList<>(entry.urls.length);
+    for (String url : entry.urls) {
+      final DatenFilm oldFilm = filmeAlt.findByUrl(url);
+      if (oldFilm == null) {
+        return false;
+      }
+      films.add(copy(oldFilm, aNewFilm.apply(oldFilm)));
+    }
+    // die alten Filme müssen noch die aufgezeichneten sein
+    if (films.isEmpty() || fingerprint(films) != entry.fingerprint) {
+      return false;
+    }
+
+    entries.put(key, new Entry(entry.fingerprint, entry.lastLoaded, entry.urls, films));
+    reused.incrementAndGet();
+    films.forEach(aConsumer);
+    return true;
+  }
+
+  /**
+   * records the films of a loaded detail page. The urls and the fingerprint
+   * are taken when the index is written, after the films are sorted in (the
+   * urls may be changed then, e.g. to the HD url).
+   *
+   * @param aSender the name of the crawler
+   * @param aDetailId the id (or url) of the detail page
+   * @param aFilms the films of the page
+   */
+  public void recordFilms(final String aSender, final String aDetailId, final Collection<DatenFilm> aFilms) {
+    if (aFilms.isEmpty()) {
+      return;
+    }
+    loaded.incrementAndGet();
+    final String key = createKey(aSender, aDetailId);
+    // den alten Fingerprint behalten, um Änderungen beim Schreiben zu erkennen
+    final Entry old = entries.get(key);
+    entries.put(key, new Entry(old == null ? 0 : old.fingerprint, clock.getAsLong(), null, new ArrayList<>(aFilms)));
+  }
+
+  private static DatenFilm copy(final DatenFilm aFilm, final DatenFilm aTarget) {
+    // in die Filmklasse des Crawlers übernehmen
+    System.arraycopy(aFilm.arr, 0, aTarget.arr, 0, aFilm.arr.length);
+    aTarget.init();
+    return aTarget;
+  }
+
+  private static String createKey(final String aSender, final String aDetailId) {
+    return aSender + "|" + aDetailId;
+  }
+
+  private static long fingerprint(final List<DatenFilm> aFilms) {
+    final Hasher hasher = Hashing.murmur3_128().newHasher();
+    for (DatenFilm film : aFilms) {
+      for (int field : new int[]{DatenFilm.FILM_SENDER, DatenFilm.FILM_THEMA, DatenFilm.FILM_TITEL,
+        DatenFilm.FILM_DATUM, DatenFilm.FILM_ZEIT, DatenFilm.FILM_DAUER, DatenFilm.FILM_GEO,
+        DatenFilm.FILM_URL, DatenFilm.FILM_URL_KLEIN, DatenFilm.FILM_URL_HD, DatenFilm.FILM_URL_SUBTITLE,
+        DatenFilm.FILM_WEBSEITE}) {
+        final String value = film.arr[field];
+        hasher.putString(value == null ? "" : value, StandardCharsets.UTF_8).putByte((byte) 0);
+      }
+    }
+    return hasher.hash().asLong();
+  }
+
+  private void read() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        return;
+      }
+      runNumber = in.readInt();
+      final int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        final String key = in.readUTF();
+        final long fingerprint = in.readLong();
+        final long lastLoaded = in.readLong();
+        final String[] urls = new String[in.readInt()];
+        for (int u = 0; u < urls.length; u++) {
+          urls[u] = in.readUTF();
+        }
+        entries.put(key, new Entry(fingerprint, lastLoaded, urls, null));
+      }
+      LOG.debug("incremental index: {} entries, run {}", entries.size(), runNumber);
+    } catch (IOException | RuntimeException e) {
+      Log.errorLog(736201945, e, "Inkrementeller Index: " + file);
+      entries.clear();
+    }
+  }
+
+  private void write() {
+    final long now = clock.getAsLong();
+    final List<Map.Entry<String, Entry>> toWrite = new ArrayList<>();
+    for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+      final Entry entry = mapEntry.getValue().resolve();
+      if (mapEntry.getValue().films != null && mapEntry.getValue().fingerprint != 0
+              && mapEntry.getValue().fingerprint != entry.fingerprint) {
+        changed.incrementAndGet();
+      }
+      // nicht mehr gefundene Detailseiten irgendwann vergessen
+      if (entry.urls != null && now - entry.lastLoaded <= TimeUnit.DAYS.toMillis(MAX_KEEP_DAYS)) {
+        toWrite.add(new HashMap.SimpleImmutableEntry<>(mapEntry.getKey(), entry));
+      }
+    }
+
+    final Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(runNumber);
+        out.writeInt(toWrite.size());
+        for (Map.Entry<String, Entry> mapEntry : toWrite) {
+          final Entry entry = mapEntry.getValue();
+          out.writeUTF(mapEntry.getKey());
+          out.writeLong(entry.fingerprint);
+          out.writeLong(entry.lastLoaded);
+          out.writeInt(entry.urls.length);
+          for (String url : entry.urls) {
+            out.writeUTF(url);
+          }
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Log.errorLog(736201946, e, "Inkrementeller Index: " + file);
+    }
+  }
+
+  private static class Entry {
+
+    private final long fingerprint;
+    private final long lastLoaded;
+    private final String[] urls;
+    /**
+     * the films of the current run, their urls are known after sorting in.
+     */
+    private final List<DatenFilm> films;
+
+    Entry(final long aFingerprint, final long aLastLoaded, final String[] aUrls, final List<DatenFilm> aFilms) {
+      fingerprint = aFingerprint;
+      lastLoaded = aLastLoaded;
+      urls = aUrls;
+      films = aFilms == null ? null : Collections.unmodifiableList(aFilms);
+    }
+
+    Entry resolve() {
+      if (films == null) {
+        return this;
+      }
+      final String[] filmUrls = new String[films.size()];
+      for (int i = 0; i < filmUrls.length; i++) {
+        filmUrls[i] = films.get(i).arr[DatenFilm.FILM_URL];
+      }
+      return new Entry(fingerprint(films), lastLoaded, filmUrls, null);
+    }
+  }
+}
@@ -49,6 +49,7 @@ import javafx.scene.layout.GridPane;
 import javafx.util.Duration;
 import mServer.crawler.CrawlerConfig;
 import mServer.crawler.GetUrl;
+import mServer.crawler.sender.base.CancellationToken;
 
 public class PanelSearchController implements Initializable {
 
@@ -106,7 +107,7 @@ public class PanelSearchController implements Initializable {
             tr.setCycleCount(2);
             tr.play();
 
-            Config.setStop(true);
+            CancellationToken.cancelRun();
         });
         mlibGuiLoad = new MSearchGuiLoad();
 
@@ -0,0 +1,139 @@
+package mServer.crawler.sender;
+
+import de.mediathekview.mlib.Config;
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.tool.Log;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import mServer.crawler.sender.base.SenderQuota;
+
+/**
+ * A bounded queue for the films found by a crawler. The crawler tasks publish
+ * each film as soon as it is created, consumer tasks take the films and pass
+ * them to the film consumer (e.g. to determine the file size and to add them to
+ * the film list). So the processing of the films overlaps with the crawling.
+ *
+ * The consumer tasks run in a shared executor. A consumer task is started when
+ * films are published and ends when the queue is empty, so the sinks of all
+ * senders can share a small pool. The consumers count for the
+ * {@link SenderQuota} of the sender, their requests (e.g. the file size) are
+ * limited like the ones of the crawler tasks.
+ */
+public class FilmSink {
+
+  private static final long POLL_TIMEOUT_SECONDS = 1;
+
+  private final String senderName;
+  private final BlockingQueue<DatenFilm> films;
+  private final int consumerCount;
+  private final Executor executor;
+  private final Consumer<DatenFilm> filmConsumer;
+  private final AtomicInteger activeConsumers = new AtomicInteger();
+  private final AtomicLong publishedCount = new AtomicLong();
+
+  /**
+   * @param aSenderName the name of the sender, used for the error messages.
+   * @param aCapacity the max. number of films waiting for the consumers. If the
+   * queue is full, the publishing tasks wait.
+   * @param aConsumerCount the max. number of concurrent consumer tasks.
+   * @param aExecutor the executor running the consumer tasks.
+   * @param aFilmConsumer the consumer processing each film.
+   */
+  public FilmSink(final String aSenderName, final int aCapacity, final int aConsumerCount,
+          final Executor aExecutor, final Consumer<DatenFilm> aFilmConsumer) {
+    senderName = aSenderName;
+    films = new ArrayBlockingQueue<>(aCapacity);
+    consumerCount = aConsumerCount;
+    executor = aExecutor;
+    filmConsumer = aFilmConsumer;
+  }
+
+  /**
+   * publishes a film. Waits if the queue is full until there is space or the
+   * search is stopped.
+   *
+   * @param aFilm the film
+   */
+  public void publish(final DatenFilm aFilm) {
+    try {
+      while (!Config.getStop()) {
+        if (films.offer(aFilm, POLL_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          publishedCount.incrementAndGet();
+          startConsumer();
+          return;
+        }
+        startConsumer();
+      }
+    } catch (InterruptedException ignored) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * no more films will be published. Waits until the consumers have processed
+   * all films in the queue.
+   */
+  public void close() {
+    try {
+      synchronized (this) {
+        while (!films.isEmpty() || activeConsumers.get() > 0) {
+          startConsumer();
+          wait(TimeUnit.SECONDS.toMillis(POLL_TIMEOUT_SECONDS));
+        }
+      }
+    } catch (InterruptedException ignored) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return the number of films published to this sink.
+   */
+  public long getPublishedCount() {
+    return publishedCount.get();
+  }
+
+  private void startConsumer() {
+    int active;
+    while ((active = activeConsumers.get()) < consumerCount && !films.isEmpty()) {
+      if (activeConsumers.compareAndSet(active, active + 1)) {
+        executor.execute(this::consume);
+        return;
+      }
+    }
+  }
+
+  private void consume() {
+    final String previousSender = SenderQuota.enter(senderName);
+    try {
+      DatenFilm film;
+      while ((film = films.poll()) != null) {
+        // bei Abbruch nur noch die Queue leeren
+        if (!Config.getStop()) {
+          processFilm(film);
+        }
+      }
+    } finally {
+      SenderQuota.exit(previousSender);
+      activeConsumers.decrementAndGet();
+      // ein Film kann nach dem letzten poll() gekommen sein
+      startConsumer();
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+
+  private void processFilm(final DatenFilm aFilm) {
+    try {
+      filmConsumer.accept(aFilm);
+    } catch (Exception e) {
+      Log.errorLog(516516522, e, senderName);
+    }
+  }
+}
@@ -102,7 +102,7 @@ public class MediathekBr extends MediathekReader {
 
   @Override
   protected void addToList() {
-    mlibFilmeSuchen.listeFilmeAlt.getThema(getSendername(), listeAlleThemenCount_);
+    mlibFilmeSuchen.getFilmeAlt().toListeFilme(getSendername()).getThema(getSendername(), listeAlleThemenCount_);
     meldungStart();
     getTheman(); // Themen suchen
     getTage(); // Programm der letzten Tage absuchen
@@ -208,9 +208,7 @@ public class MediathekBr extends MediathekReader {
       }
       for (String s : al) {
         String[] add = new String[]{s, ""};
-        if (!istInListe(listeTage, add[0], 0)) {
-          listeTage.add(add);
-        }
+        listeTage.addUrl(add);
       }
     } catch (Exception ex) {
       Log.errorLog(821213698, ex);
@@ -221,7 +219,8 @@ public class MediathekBr extends MediathekReader {
   protected synchronized void meldungThreadUndFertig() {
     if (getThreads() <= 1) {
       //wird erst ausgeführt wenn alle Threads beendet sind
-      mlibFilmeSuchen.listeFilmeNeu.checkThema(getSendername(), listeAlleThemenCount_, getSendername());
+      mlibFilmeSuchen.getFilmCollector().applyToSender(getSendername(),
+              listeFilme -> listeFilme.checkThema(getSendername(), listeAlleThemenCount_, getSendername()));
     }
     super.meldungThreadUndFertig();
   }
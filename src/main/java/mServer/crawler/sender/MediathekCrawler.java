@@ -1,18 +1,19 @@
 package mServer.crawler.sender;
 
-import de.mediathekview.mlib.Config;
 import de.mediathekview.mlib.daten.DatenFilm;
 import de.mediathekview.mlib.tool.Log;
 import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.RecursiveTask;
-import java.util.concurrent.TimeUnit;
 import mServer.crawler.FilmeSuchen;
+import mServer.crawler.sender.base.AbstractRecursivConverterTask;
+import mServer.crawler.sender.base.CrawlDeadline;
+import mServer.crawler.sender.base.CrawlerExecutors;
+import mServer.tool.MserverDaten;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-// Base class of crawlers using ForkJoinPool
+// Base class of crawlers using the shared ForkJoinPool
 public abstract class MediathekCrawler extends MediathekReader {
 
   private static final Logger LOG = LogManager.getLogger(MediathekCrawler.class);
@@ -22,17 +23,8 @@ public abstract class MediathekCrawler extends MediathekReader {
   public MediathekCrawler(FilmeSuchen aMSearchFilmeSuchen, String aSendername, int aSenderMaxThread, int aSenderWartenSeiteLaden, int aStartPrio) {
     super(aMSearchFilmeSuchen, aSendername, aSenderMaxThread, aSenderWartenSeiteLaden, aStartPrio);
 
-    forkJoinPool = createForkJoinPool(aSendername);
-  }
-
-  public static ForkJoinPool createForkJoinPool(String aSenderName) {
-    final ForkJoinPool.ForkJoinWorkerThreadFactory factory = (ForkJoinPool pool) -> {
-      final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
-      worker.setName(aSenderName + "-worker-" + worker.getPoolIndex());
-      return worker;
-    };
-
-    return new ForkJoinPool(Runtime.getRuntime().availableProcessors() * 4, factory, null, true);
+    // alle Crawler teilen sich einen Pool, der Anteil je Sender wird über die SenderQuota begrenzt
+    forkJoinPool = CrawlerExecutors.getIoPool();
   }
 
   @Override
@@ -45,9 +37,6 @@ public abstract class MediathekCrawler extends MediathekReader {
       Log.sysLog(getSendername() + ": Film einsortieren fertig");
     } catch (Exception e) {
       Log.errorLog(516516521, e);
-    } finally {
-      //explicitely shutdown the pool
-      shutdownAndAwaitTermination(60, TimeUnit.SECONDS);
     }
 
     Log.sysLog(getSendername() + ": fertig");
@@ -57,45 +46,43 @@ public abstract class MediathekCrawler extends MediathekReader {
 
   protected void runCrawler() {
     RecursiveTask<Set<DatenFilm>> filmTask = createCrawlerTask();
-    Set<DatenFilm> films = forkJoinPool.invoke(filmTask);
+    if (filmTask == null) {
+      LOG.fatal(getSendername() + ": no films found!");
+      return;
+    }
+
+    // die Filme werden schon während des Suchens einsortiert
+    final FilmSink filmSink = new FilmSink(getSendername(), MserverDaten.getFilmSinkCapacity(),
+            MserverDaten.getFilmSinkThreads(), CrawlerExecutors.getFilmSinkPool(), this::sortInFilm);
+    if (filmTask instanceof AbstractRecursivConverterTask) {
+      ((AbstractRecursivConverterTask<DatenFilm, ?>) filmTask).setResultConsumer(filmSink::publish);
+    }
+
+    Log.sysLog(getSendername() + ": Filme einsortieren...");
+    try {
+      // Tasks ohne Consumer liefern ihre Filme erst am Ende
+      Set<DatenFilm> films = forkJoinPool.invoke(filmTask);
+      films.forEach(filmSink::publish);
+    } finally {
+      filmSink.close();
+    }
 
-    Log.sysLog(getSendername() + ": Filme einsortieren..." + films.size());
-    if (films.isEmpty()) {
+    Log.sysLog(getSendername() + ": Filme einsortiert: " + filmSink.getPublishedCount());
+    if (CrawlDeadline.getSkipped(getSendername()) > 0) {
+      Log.sysLog(getSendername() + ": wegen der Laufzeit ausgelassen: " + CrawlDeadline.getSkipped(getSendername()) + " Seiten");
+    }
+    if (filmSink.getPublishedCount() == 0) {
       LOG.fatal(getSendername() + ": no films found!");
     }
+  }
 
-    films.forEach(film -> {
-      if (!Config.getStop()) {
-        prepareFilm(film);
-        addFilm(film);
-      }
-    });
+  private void sortInFilm(DatenFilm film) {
+    prepareFilm(film);
+    addFilm(film);
   }
 
   protected abstract RecursiveTask<Set<DatenFilm>> createCrawlerTask();
 
   protected void prepareFilm(DatenFilm film) {
   }
-
-  private void shutdownAndAwaitTermination(long delay, TimeUnit delayUnit) {
-    Log.sysLog(getSendername() + ": shutdown pool...");
-
-    try {
-      try {
-        forkJoinPool.shutdown();
-        if (!forkJoinPool.awaitTermination(delay, delayUnit)) {
-          forkJoinPool.shutdownNow();
-          if (!forkJoinPool.awaitTermination(delay, delayUnit)) {
-            Log.sysLog(getSendername() + ": Pool nicht beendet");
-          }
-        }
-      } catch (InterruptedException ie) {
-        Log.errorLog(974513454, ie);
-        forkJoinPool.shutdownNow();
-        Thread.currentThread().interrupt();
-      }
-    } catch (Exception e) {
-      Log.errorLog(974513455, e);
-    }
-  }
 }
@@ -193,7 +193,7 @@ public class MediathekDw extends MediathekReader implements Runnable {
         seiteVideo = getUrlVideo.getUri_Utf(SENDERNAME, URL_VIDEO_JSON + id, seiteVideo, "");
 
         if (seiteVideo.length() > 0) {
-          Gson gson = new GsonBuilder().registerTypeAdapter(DwVideoDTO.class, new DwVideoDeserializer()).create();
+          Gson gson = getGson(getClass(), () -> new GsonBuilder().registerTypeAdapter(DwVideoDTO.class, new DwVideoDeserializer()).create());
           DwVideoDTO dto = gson.fromJson(seiteVideo.substring(0), DwVideoDTO.class);
           url = dto.getUrl(Qualities.NORMAL);
           urlHd = dto.getUrl(Qualities.HD);
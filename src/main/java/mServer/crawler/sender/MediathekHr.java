@@ -22,7 +22,9 @@ package mServer.crawler.sender;
 import de.mediathekview.mlib.Const;
 import de.mediathekview.mlib.daten.ListeFilme;
 import de.mediathekview.mlib.tool.Log;
-import de.mediathekview.mlib.tool.MVHttpClient;
+import mServer.crawler.sender.base.CrawlerExecutors;
+import mServer.crawler.sender.base.HttpTransport;
+import mServer.crawler.sender.base.SenderQuota;
 import mServer.crawler.FilmeSuchen;
 import mServer.crawler.RunSender;
 import mServer.crawler.sender.hr.HrSendungOverviewCallable;
@@ -40,8 +42,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 public class MediathekHr extends MediathekReader {
@@ -63,7 +63,7 @@ public class MediathekHr extends MediathekReader {
     List<HrSendungenDto> dtos = new ArrayList<>();
 
     Request request = new Request.Builder().url(URL_SENDUNGEN).get().build();
-    try (Response resp = MVHttpClient.getInstance().getReducedTimeOutClient().newCall(request).execute();
+    try (Response resp = HttpTransport.getInstance().getReducedTimeOutClient().newCall(request).execute();
          ResponseBody body = resp.body()){
       if (resp.isSuccessful() && body != null) {
         Document document = Jsoup.parse(body.string());
@@ -85,8 +85,23 @@ public class MediathekHr extends MediathekReader {
 
     dtos.forEach(dto -> {
 
-      ExecutorService executor = Executors.newCachedThreadPool();
-      futureFilme.add(executor.submit(new HrSendungOverviewCallable(dto)));
+      final HrSendungOverviewCallable callable = new HrSendungOverviewCallable(dto);
+      try {
+        // nur so viele Tasks in den gemeinsamen Pool geben, wie die Quote des Senders erlaubt
+        SenderQuota.startTask(SENDERNAME);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      futureFilme.add(CrawlerExecutors.getIoPool().submit(() -> {
+        final String previousSender = SenderQuota.enter(SENDERNAME);
+        try {
+          return callable.call();
+        } finally {
+          SenderQuota.exit(previousSender);
+          SenderQuota.endTask(SENDERNAME);
+        }
+      }));
       meldungProgress(dto.getUrl());
     });
 
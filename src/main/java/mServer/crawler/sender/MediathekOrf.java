@@ -88,9 +88,7 @@ public class MediathekOrf extends MediathekReader {
     seite.extractList("", "", "<a href=\"http://tvthek.orf.at/profile/", "\"", "http://tvthek.orf.at/profile/", al);
     for (String s : al) {
       String[] add = new String[]{s, THEMA_TAG}; // werden extra behandelt
-      if (!istInListe(listeThemen, add[0], 0)) {
-        listeThemen.add(add);
-      }
+      listeThemen.addUrl(add);
     }
   }
 
@@ -103,9 +101,7 @@ public class MediathekOrf extends MediathekReader {
       seite.extractList("", "", "<a href=\"/profiles/letter/", "\"", "http://tvthek.orf.at/profiles/letter/", al);
       for (String s : al) {
         String[] add = new String[]{s, THEMA_SENDUNGEN};
-        if (!istInListe(listeThemen, add[0], 0)) {
-          listeThemen.add(add);
-        }
+        listeThemen.addUrl(add);
       }
     } catch (Exception ex) {
       Log.errorLog(826341789, ex);
@@ -19,19 +19,25 @@
  */
 package mServer.crawler.sender;
 
+import com.google.gson.Gson;
 import de.mediathekview.mlib.Const;
 import de.mediathekview.mlib.daten.DatenFilm;
 import de.mediathekview.mlib.tool.GermanStringSorter;
 import de.mediathekview.mlib.tool.Log;
-import de.mediathekview.mlib.tool.MVHttpClient;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import mServer.crawler.BannedFilmFilter;
 import mServer.crawler.CrawlerTool;
 import mServer.crawler.FilmeSuchen;
 import mServer.crawler.RunSender;
+import mServer.crawler.sender.base.UrlProbeCache;
+import mServer.crawler.sender.base.CrawlDeadline;
 import mServer.crawler.sender.base.UrlUtils;
 import mServer.crawler.sender.base.GeoLocations;
 import okhttp3.Request;
@@ -48,6 +54,7 @@ public abstract class MediathekReader extends Thread {
   private int threads; // aktuelle Anz. laufender Threads
   private int max; // Anz. zu suchender Themen
   private int progress; // Prograss eben
+  private final Map<Class<?>, Gson> gsonByTask = new ConcurrentHashMap<>(); // Gson je Task-Klasse, einmal pro Crawler erzeugt
 
   public MediathekReader(FilmeSuchen aMSearchFilmeSuchen, String aSendername, int aSenderMaxThread, int aSenderWartenSeiteLaden, int aStartPrio) {
     mlibFilmeSuchen = aMSearchFilmeSuchen;
@@ -73,6 +80,11 @@ public abstract class MediathekReader extends Thread {
     return UrlUtils.existsUrl(url);
   }
 
+  protected static void listeSort(LinkedListUrl liste, int stelle) {
+    //Stringliste alphabetisch sortieren
+    liste.sort(stelle);
+  }
+
   protected static void listeSort(LinkedList<String[]> liste, int stelle) {
     //Stringliste alphabetisch sortieren
     GermanStringSorter sorter = GermanStringSorter.getInstance();
@@ -134,6 +146,19 @@ public abstract class MediathekReader extends Thread {
     return sendername;
   }
 
+  /**
+   * Liefert das Gson für eine Task-Klasse. Alle Instanzen einer Task-Klasse
+   * registrieren dieselben Deserializer, das Gson wird deshalb nur einmal pro
+   * Crawler erzeugt.
+   *
+   * @param aTaskClass die Klasse des Tasks
+   * @param aGsonFactory erzeugt das Gson beim ersten Aufruf
+   * @return das Gson
+   */
+  public Gson getGson(final Class<?> aTaskClass, final Supplier<Gson> aGsonFactory) {
+    return gsonByTask.computeIfAbsent(aTaskClass, taskClass -> aGsonFactory.get());
+  }
+
   public int getMaxThreadLaufen() {
     return maxThreadLaufen;
   }
@@ -182,6 +207,7 @@ public abstract class MediathekReader extends Thread {
     //alles laden
     try {
       threads = 0;
+      CrawlDeadline.startSender(getSendername());
       addToList();
     } catch (Exception ex) {
       Log.errorLog(397543600, ex, getSendername());
@@ -193,7 +219,7 @@ public abstract class MediathekReader extends Thread {
   protected void addFilm(DatenFilm film, boolean urlPruefen) {
     // es werden die gefundenen Filme in die Liste einsortiert
     if (urlPruefen) {
-      if (mlibFilmeSuchen.listeFilmeNeu.getFilmByUrl(film.arr[DatenFilm.FILM_URL]) == null) {
+      if (mlibFilmeSuchen.getFilmCollector().getFilmByUrl(film.arr[DatenFilm.FILM_URL]) == null) {
         addFilm(film);
       }
     } else {
@@ -218,7 +244,7 @@ public abstract class MediathekReader extends Thread {
 
     film.setUrlHistory();
     setGeo(film);
-    if (mlibFilmeSuchen.listeFilmeNeu.addFilmVomSender(film)) {
+    if (mlibFilmeSuchen.getFilmCollector().addFilmVomSender(film)) {
       // dann ist er neu
       FilmeSuchen.listeSenderLaufen.inc(film.arr[DatenFilm.FILM_SENDER], RunSender.Count.FILME);
     }
@@ -227,8 +253,10 @@ public abstract class MediathekReader extends Thread {
   private void setFileSize(DatenFilm film) {
     // optimization for ORF and some others: don't try to determine filesize of m3u8-files
     Optional<String> fileType = UrlUtils.getFileType(film.arr[DatenFilm.FILM_URL]);
-    if (!fileType.isPresent() || !fileType.get().equalsIgnoreCase("m3u8")) {
-      film.setFileSize();
+    if ((!fileType.isPresent() || !fileType.get().equalsIgnoreCase("m3u8"))
+            && film.arr[DatenFilm.FILM_GROESSE].isEmpty()) {
+      // statt film.setFileSize(): die Größe über den gemeinsamen Cache der HEAD-Requests bestimmen
+      film.arr[DatenFilm.FILM_GROESSE] = UrlProbeCache.getInstance().getFileSize(film.arr[DatenFilm.FILM_URL]);
     }
   }
 
@@ -464,21 +492,65 @@ public abstract class MediathekReader extends Thread {
 
   }
 
-  //FIXME don´t do this, use a set or whatever to be unique
-  @SuppressWarnings("serial")
-  protected class LinkedListUrl extends LinkedList<String[]> {
+  protected class LinkedListUrl {
     // Hilfsklasse die das einfügen/entnehmen bei mehreren Threads unterstützt
+    // ohne Lock: die URLs (e[0]) werden in einem Set gemerkt, eine URL wird
+    // bis zum clear() nur einmal eingetragen, auch wenn sie schon abgearbeitet ist
 
-    synchronized boolean addUrl(String[] e) {
+    private final Queue<String[]> queue = new ConcurrentLinkedQueue<>();
+    private final Set<String> urls = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger size = new AtomicInteger();
+
+    boolean addUrl(String[] e) {
       // e[0] ist immer die URL
-      if (!istInListe(this, e[0], 0)) {
-        return add(e);
+      if (urls.add(e[0])) {
+        return offer(e);
       }
       return false;
     }
 
-    public synchronized String[] getListeThemen() {
-      return this.pollFirst();
+    public boolean add(String[] e) {
+      urls.add(e[0]);
+      return offer(e);
+    }
+
+    public String[] getListeThemen() {
+      final String[] e = queue.poll();
+      if (e != null) {
+        size.decrementAndGet();
+      }
+      return e;
+    }
+
+    public int size() {
+      return size.get();
+    }
+
+    public boolean isEmpty() {
+      return queue.isEmpty();
+    }
+
+    public void clear() {
+      queue.clear();
+      urls.clear();
+      size.set(0);
+    }
+
+    /**
+     * sortiert die Einträge, nur bevor die Threads gestartet werden
+     */
+    void sort(int stelle) {
+      final List<String[]> liste = new ArrayList<>(queue);
+      final GermanStringSorter sorter = GermanStringSorter.getInstance();
+      liste.sort((e1, e2) -> sorter.compare(e1[stelle], e2[stelle]));
+      queue.clear();
+      queue.addAll(liste);
+    }
+
+    private boolean offer(String[] e) {
+      queue.offer(e);
+      size.incrementAndGet();
+      return true;
     }
   }
 }
@@ -10,11 +10,13 @@ import mServer.crawler.sender.ard.tasks.ArdDayPageTask;
 import mServer.crawler.sender.ard.tasks.ArdFilmDetailTask;
 import mServer.crawler.sender.ard.tasks.ArdTopicPageTask;
 import mServer.crawler.sender.ard.tasks.ArdTopicsOverviewTask;
+import mServer.crawler.sender.base.CrawlPriority;
 import mServer.crawler.sender.base.CrawlerUrlDTO;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
@@ -90,22 +92,26 @@ public class ArdCrawler extends MediathekCrawler {
   @Override
   protected RecursiveTask<Set<DatenFilm>> createCrawlerTask() {
 
-    final ConcurrentLinkedQueue<ArdFilmInfoDto> shows = new ConcurrentLinkedQueue<>();
+    // die neuesten Sendungen zuerst, dann die Themen
+    final Set<ArdFilmInfoDto> showSet = new LinkedHashSet<>();
     try {
 
-      if (CrawlerTool.loadLongMax()) {
-        shows.addAll(getTopicsEntries());
-      }
-
       getDaysEntries().forEach(show -> {
-        if (!shows.contains(show)) {
-          shows.add(show);
-        }
+        show.setPriority(CrawlPriority.FRESH);
+        showSet.add(show);
       });
 
+      if (CrawlerTool.loadLongMax()) {
+        getTopicsEntries().forEach(show -> {
+          show.setPriority(CrawlPriority.TOPIC);
+          showSet.add(show);
+        });
+      }
+
     } catch (InterruptedException | ExecutionException exception) {
       Log.errorLog(56146546, exception);
     }
+    final ConcurrentLinkedQueue<ArdFilmInfoDto> shows = new ConcurrentLinkedQueue<>(showSet);
     Log.sysLog("ARD Anzahl: " + shows.size());
 
     meldungAddMax(shows.size());
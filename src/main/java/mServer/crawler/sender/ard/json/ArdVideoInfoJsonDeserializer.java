@@ -3,7 +3,7 @@ package mServer.crawler.sender.ard.json;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import de.mediathekview.mlib.tool.MVHttpClient;
+import mServer.crawler.sender.base.HttpTransport;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.MalformedURLException;
@@ -87,7 +87,7 @@ public class ArdVideoInfoJsonDeserializer implements JsonDeserializer<ArdVideoIn
    */
   private static Optional<String> readContent(final URL aUrl) {
     Request request = REQUEST_BUILDER.url(aUrl).build();
-    try (okhttp3.Response response = MVHttpClient.getInstance().getHttpClient().newCall(request).execute(); ResponseBody body = response.body()) {
+    try (okhttp3.Response response = HttpTransport.getInstance().getHttpClient().newCall(request).execute(); ResponseBody body = response.body()) {
       if (response.isSuccessful() && body != null) {
         return Optional.of(body.string());
       } else {
@@ -5,10 +5,12 @@ import de.mediathekview.mlib.Config;
 import de.mediathekview.mlib.daten.DatenFilm;
 import de.mediathekview.mlib.tool.Log;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import jakarta.ws.rs.client.WebTarget;
+import mServer.crawler.IncrementalIndex;
 import mServer.crawler.sender.MediathekReader;
 import mServer.crawler.sender.ard.ArdConstants;
 import mServer.crawler.sender.ard.ArdFilmDto;
@@ -37,20 +39,29 @@ public class ArdFilmDetailTask extends ArdTaskBase<DatenFilm, ArdFilmInfoDto> {
       return;
     }
 
+    // bei mehreren Clips werden die zugehörigen Filme erst über die Detailseite gefunden
+    if (aDTO.getNumberOfClips() <= 1
+            && IncrementalIndex.getInstance().reuseFilms(crawler.getSendername(), aDTO.getId(), this::addResult)) {
+      return;
+    }
+
     try {
       final List<ArdFilmDto> filmDtos = deserialize(aTarget, LIST_FILM_TYPE_TOKEN);
 
       if (filmDtos != null && filmDtos.size() > 0) {
+        final List<DatenFilm> films = new ArrayList<>();
         for (ArdFilmDto filmDto : filmDtos) {
 
           final DatenFilm result = filmDto.getFilm();
           result.arr[DatenFilm.FILM_WEBSEITE] = getWebsiteUrl(aDTO);
-          taskResults.add(result);
+          addResult(result);
+          films.add(result);
 
           if (aDTO.getNumberOfClips() > 1) {
             processRelatedFilms(filmDto.getRelatedFilms());
           }
         }
+        IncrementalIndex.getInstance().recordFilms(crawler.getSendername(), aDTO.getId(), films);
       } else {
         LOG.debug("no film: " + aDTO.getUrl());
       }
@@ -63,9 +74,7 @@ public class ArdFilmDetailTask extends ArdTaskBase<DatenFilm, ArdFilmInfoDto> {
   private void processRelatedFilms(final Set<ArdFilmInfoDto> relatedFilms) {
     if (relatedFilms != null && !relatedFilms.isEmpty()) {
       ConcurrentLinkedQueue<ArdFilmInfoDto> queue = new ConcurrentLinkedQueue<>(relatedFilms);
-      ArdFilmDetailTask task = (ArdFilmDetailTask) createNewOwnInstance(queue);
-      task.fork();
-      taskResults.addAll(task.join());
+      taskResults.addAll(runSubTask(createSubTask(queue)));
     }
   }
 
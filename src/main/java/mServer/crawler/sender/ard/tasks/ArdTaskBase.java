@@ -2,6 +2,7 @@ package mServer.crawler.sender.ard.tasks;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.reflect.TypeToken;
 import de.mediathekview.mlib.tool.Log;
 import org.apache.logging.log4j.LogManager;
@@ -10,6 +11,7 @@ import org.apache.logging.log4j.Logger;
 import jakarta.ws.rs.client.Invocation.Builder;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.Response;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -18,6 +20,7 @@ import mServer.crawler.sender.ard.json.ArdErrorDeserializer;
 import mServer.crawler.sender.ard.json.ArdErrorInfoDto;
 import mServer.crawler.sender.base.AbstractRestTask;
 import mServer.crawler.sender.base.CrawlerUrlDTO;
+import mServer.crawler.sender.base.JsonUtils;
 
 public abstract class ArdTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRestTask<T, D> {
 
@@ -46,24 +49,34 @@ public abstract class ArdTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRe
     return this.<Optional<A>>deserializeUnsafe(target, type).orElse(Optional.empty());
   }
 
+  private Gson getGson() {
+    return crawler.getGson(getClass(), gsonBuilder::create);
+  }
+
   private <A> Optional<A> deserializeUnsafe(final WebTarget target, final Type type) {
-    final Gson gson = gsonBuilder.create();
+    final Gson gson = getGson();
     final Response response = executeRequest(target);
-    traceRequest(response.getLength());
-    if (response.getStatus() == 200) {
-      final String jsonOutput = response.readEntity(String.class);
-      if (isSuccessResponse(jsonOutput, gson, target.getUri().toString())) {
-        return Optional.of(gson.fromJson(jsonOutput, type));
+    try {
+      traceRequest(response.getLength());
+      if (response.getStatus() == 200) {
+        // nur einmal parsen, Fehler und Inhalt werden aus demselben Baum gelesen
+        final JsonElement jsonOutput = JsonUtils.parse(response.readEntity(InputStream.class));
+        if (isSuccessResponse(jsonOutput, gson, target.getUri().toString())) {
+          return Optional.of(gson.fromJson(jsonOutput, type));
+        }
+      } else {
+        final String logText = "ArdTaskBase: request of url "
+                + target.getUri().toString()
+                + " failed: "
+                + response.getStatus();
+        Log.errorLog(23646387, logText);
+        LOG.warn(logText);
       }
-    } else {
-      final String logText = "ArdTaskBase: request of url "
-              + target.getUri().toString()
-              + " failed: "
-              + response.getStatus();
-      Log.errorLog(23646387, logText);
-      LOG.warn(logText);
+      return Optional.empty();
+    } finally {
+      // gibt die Verbindung wieder frei
+      response.close();
     }
-    return Optional.empty();
   }
 
   protected <A> A deserialize(final WebTarget target, final Type type) {
@@ -71,7 +84,7 @@ public abstract class ArdTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRe
   }
 
   private boolean isSuccessResponse(
-          final String jsonOutput, final Gson gson, final String targetUrl) {
+          final JsonElement jsonOutput, final Gson gson, final String targetUrl) {
     final Optional<ArdErrorInfoDto> error = gson.fromJson(jsonOutput, OPTIONAL_ERROR_DTO);
     error.ifPresent(
             ardErrorInfoDto
@@ -99,7 +112,7 @@ public abstract class ArdTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRe
     }
 
     return request
-            // .header(HEADER_ACCEPT_ENCODING, ENCODING_GZIP)
+            .header(HEADER_ACCEPT_ENCODING, ENCODING_GZIP)
             .header(AbstractRestTask.HEADER_ACCEPT, AbstractRestTask.APPLICATION_JSON)
             .header(AbstractRestTask.HEADER_CONTENT_TYPE, AbstractRestTask.APPLICATION_JSON)
             .get();
@@ -2,7 +2,9 @@ package mServer.crawler.sender.arte;
 
 import com.google.gson.Gson;
 import de.mediathekview.mlib.tool.Log;
-import de.mediathekview.mlib.tool.MVHttpClient;
+import mServer.crawler.sender.base.CancellationToken;
+import mServer.crawler.sender.base.HostRateLimiter;
+import mServer.crawler.sender.base.HttpTransport;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Request.Builder;
@@ -25,6 +27,12 @@ public class ArteHttpClient {
   public static final String AUTH_TOKEN = "Bearer Nzc1Yjc1ZjJkYjk1NWFhN2I2MWEwMmRlMzAzNjI5NmU3NWU3ODg4ODJjOWMxNTMxYzEzZGRjYjg2ZGE4MmIwOA";
   public static final String USER_AGENT = "User-Agent";
   public static final String USER_AGENT_VALUE = "Mozilla/5.0";
+  private static final String HEADER_RETRY_AFTER = "Retry-After";
+  /**
+   * min. wait before retrying a request answered with 429 without Retry-After,
+   * doubled with each attempt.
+   */
+  private static final long MIN_RETRY_DELAY_MILLIS = 100;
   private static final Builder BUILDER_OPA;
   private static final Builder BUILDER;
 
@@ -54,16 +62,14 @@ public class ArteHttpClient {
     x.setLevel(Level.FINE);
 
     try {
-      // Wartezeit nötig wegen zu vieler paralleler Requests
-      TimeUnit.MILLISECONDS.sleep(200);
-
       Request request = createRequest(aUrl);
 
       boolean stop = false;
 
       int count = 0;
       do {
-        try (Response response = MVHttpClient.getInstance().getHttpClient().newCall(request).execute();
+        long retryDelayMillis = 0;
+        try (Response response = HttpTransport.getInstance().getHttpClient().newCall(request).execute();
                 ResponseBody body = response.body()) {
           count++;
           FilmeSuchen.listeSenderLaufen.inc(sender, RunSender.Count.ANZAHL);
@@ -80,27 +86,34 @@ public class ArteHttpClient {
               FilmeSuchen.listeSenderLaufen.inc(sender, RunSender.Count.FEHLER);
               stop = true;
             } else {
-              // bei 429 (too many requests) warten und nochmal versuchen
-              // Wartezeit von 60s aus Header Retry-After
-              try {
-                TimeUnit.MILLISECONDS.sleep(60000);
-                FilmeSuchen.listeSenderLaufen.inc(sender, RunSender.Count.FEHLVERSUCHE);
-              } catch (InterruptedException ignored) {
-              }
+              // bei 429 (too many requests) nochmal versuchen
+              // die Wartezeit aus dem Header Retry-After hält der HostRateLimiter ein
+              FilmeSuchen.listeSenderLaufen.inc(sender, RunSender.Count.FEHLVERSUCHE);
               if (count > 3) {
                 stop = true;
                 FilmeSuchen.listeSenderLaufen.inc(sender, RunSender.Count.FEHLER);
                 Log.errorLog(894330765, "ArteHttpClient failed - " + aUrl);
+              } else if (response.header(HEADER_RETRY_AFTER) == null) {
+                // ohne Header nicht sofort wieder: mind. das Intervall des Hosts, je Versuch verdoppelt
+                retryDelayMillis = Math.max(MIN_RETRY_DELAY_MILLIS,
+                        HostRateLimiter.getInstance().getIntervalMillis(request.url().host())) << count;
               }
             }
           }
 
         }
+        // erst nach dem Schließen der Antwort warten
+        if (retryDelayMillis > 0 && CancellationToken.getRunToken().sleep(retryDelayMillis, TimeUnit.MILLISECONDS)) {
+          stop = true;
+        }
       } while (!stop);
 
-    } catch (IOException | InterruptedException ex) {
+    } catch (IOException ex) {
       logger.error("Beim laden der Filme für Arte kam es zu Verbindungsproblemen.", ex);
       Log.errorLog(3895449, ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      logger.error(String.format("ARTE Request '%s' interrupted", aUrl));
     }
 
     return result;
@@ -57,11 +57,10 @@ public abstract class AbstractDocumentTask<T, D extends CrawlerUrlDTO>
     }
 
     try {
-      // maxBodySize(0)=unlimited
-      // necessary for ORF documents which are larger than the default size
-      final Document document = jsoupConnection.getConnection(aUrlDTO.getUrl())
-              .timeout((int) TimeUnit.SECONDS.toMillis(60))
-              .maxBodySize(0).get();
+      // the body size is unlimited
+      // necessary for ORF documents which are larger than the jsoup default size
+      final Document document = jsoupConnection.getDocumentTimeoutAfter(aUrlDTO.getUrl(),
+              (int) TimeUnit.SECONDS.toMillis(60));
       traceRequest();
       processDocument(aUrlDTO, document);
     } catch (final HttpStatusException httpStatusError) {
@@ -1,9 +1,15 @@
 package mServer.crawler.sender.base;
 
+import de.mediathekview.mlib.Config;
+import de.mediathekview.mlib.daten.DatenFilm;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import mServer.crawler.CrawlCheckpoint;
 import mServer.crawler.sender.MediathekReader;
 
 /**
@@ -36,6 +42,23 @@ public abstract class AbstractRecursivConverterTask<T, D> extends RecursiveTask<
    */
   protected transient Set<T> taskResults;
 
+  /**
+   * If set the results are passed to this consumer as soon as they are created
+   * instead of being collected in {@link #taskResults}.
+   */
+  private transient Consumer<T> resultConsumer;
+
+  /**
+   * The films of the element in process, for the {@link CrawlCheckpoint}.
+   * Sub tasks created while processing the element add their films, too.
+   */
+  private transient Collection<DatenFilm> checkpointFilms;
+
+  /**
+   * true if the task was forked with a task permit of the {@link SenderQuota}.
+   */
+  private transient boolean holdsTaskPermit = false;
+
   public AbstractRecursivConverterTask(final MediathekReader aCrawler,
           final ConcurrentLinkedQueue<D> aUrlToCrawlDTOs) {
     crawler = aCrawler;
@@ -53,27 +76,150 @@ public abstract class AbstractRecursivConverterTask<T, D> extends RecursiveTask<
   }
 
   private void processElements(final ConcurrentLinkedQueue<D> aElementsToProcess) {
+    final CancellationToken token = CancellationToken.getRunToken();
     D elementToProcess;
     while ((elementToProcess = aElementsToProcess.poll()) != null) {
-      processElement(elementToProcess);
+      if (token.isCancelled()) {
+        // abgebrochen: die restlichen Elemente verwerfen
+        aElementsToProcess.clear();
+      } else if (!isWithinBudget(elementToProcess)) {
+        CrawlDeadline.skipped(crawler.getSendername());
+      } else if (resultConsumer != null && checkpointFilms == null && elementToProcess instanceof CrawlerUrlDTO) {
+        processElementWithCheckpoint(elementToProcess, ((CrawlerUrlDTO) elementToProcess).getUrl());
+      } else {
+        processElement(elementToProcess);
+      }
+    }
+  }
+
+  /**
+   * Processes an element of a task creating films. The films are stored in the
+   * checkpoint, if the element was processed in a stopped run, the films are
+   * taken from the checkpoint.
+   */
+  @SuppressWarnings("unchecked")
+  private void processElementWithCheckpoint(final D aElement, final String aUrl) {
+    final CrawlCheckpoint checkpoint = CrawlCheckpoint.getInstance();
+    final List<DatenFilm> restoredFilms = checkpoint.getFilms(crawler.getSendername(), aUrl);
+    if (restoredFilms != null) {
+      restoredFilms.forEach(film -> resultConsumer.accept((T) film));
+      return;
+    }
+
+    checkpointFilms = new ConcurrentLinkedQueue<>();
+    try {
+      processElement(aElement);
+      // bei Abbruch ist das Element evtl. nicht vollständig
+      if (!Config.getStop()) {
+        checkpoint.record(crawler.getSendername(), aUrl, checkpointFilms);
+      }
+    } finally {
+      checkpointFilms = null;
     }
   }
 
   @Override
   protected Set<T> compute() {
-    if (elementsToProcess.size() <= getMaxElementsToProcess()) {
-      processElements(elementsToProcess);
+    try {
+      return computeElements();
+    } finally {
+      if (holdsTaskPermit) {
+        holdsTaskPermit = false;
+        SenderQuota.endTask(crawler.getSendername());
+      }
+    }
+  }
+
+  private Set<T> computeElements() {
+    if (CancellationToken.getRunToken().isCancelled()) {
+      elementsToProcess.clear();
+    } else if (elementsToProcess.size() <= getMaxElementsToProcess()) {
+      final String previousSender = SenderQuota.enter(crawler.getSendername());
+      try {
+        processElements(elementsToProcess);
+      } finally {
+        SenderQuota.exit(previousSender);
+      }
     } else {
       final AbstractRecursivConverterTask<T, D> rightTask
-              = createNewOwnInstance(createSubSet(elementsToProcess));
-      final AbstractRecursivConverterTask<T, D> leftTask = createNewOwnInstance(elementsToProcess);
-      leftTask.fork();
-      taskResults.addAll(rightTask.compute());
-      taskResults.addAll(leftTask.join());
+              = createSubTask(createSubSet(elementsToProcess));
+      final AbstractRecursivConverterTask<T, D> leftTask = createSubTask(elementsToProcess);
+      if (forkWithinQuota(leftTask)) {
+        taskResults.addAll(rightTask.compute());
+        taskResults.addAll(leftTask.join());
+      } else {
+        taskResults.addAll(rightTask.compute());
+        taskResults.addAll(leftTask.compute());
+      }
     }
     return taskResults;
   }
 
+  /**
+   * Runs a sub task: it is forked if the sender has a free task permit,
+   * otherwise it is processed in the current thread.
+   *
+   * @param aSubTask the sub task
+   * @return the results of the sub task
+   */
+  protected Set<T> runSubTask(final AbstractRecursivConverterTask<T, D> aSubTask) {
+    return forkWithinQuota(aSubTask) ? aSubTask.join() : aSubTask.compute();
+  }
+
+  private boolean forkWithinQuota(final AbstractRecursivConverterTask<T, D> aSubTask) {
+    if (!SenderQuota.tryStartTask(crawler.getSendername())) {
+      // der Sender hat genug Tasks im Pool, selbst abarbeiten statt andere Sender zu verdrängen
+      return false;
+    }
+    aSubTask.holdsTaskPermit = true;
+    aSubTask.fork();
+    return true;
+  }
+
+  /**
+   * Sets a consumer which gets every result immediately. The consumer is
+   * passed on to all sub tasks, the returned result set stays empty then.
+   *
+   * @param aResultConsumer the consumer of the results.
+   */
+  public void setResultConsumer(final Consumer<T> aResultConsumer) {
+    resultConsumer = aResultConsumer;
+  }
+
+  /**
+   * Adds a result of this task. If a result consumer is set the result is
+   * published to it, else it is added to {@link #taskResults}.
+   *
+   * @param aResult the result to add.
+   */
+  protected void addResult(final T aResult) {
+    if (resultConsumer != null) {
+      if (checkpointFilms != null && aResult instanceof DatenFilm) {
+        checkpointFilms.add((DatenFilm) aResult);
+      }
+      resultConsumer.accept(aResult);
+    } else {
+      taskResults.add(aResult);
+    }
+  }
+
+  /**
+   * Creates a new instance of this task using
+   * {@link #createNewOwnInstance(ConcurrentLinkedQueue)} which publishes its
+   * results to the same consumer as this task.
+   *
+   * @param aElementsToProcess The {@link ConcurrentLinkedQueue} of {@link D}
+   * the new instance should process.
+   * @return The new instance.
+   */
+  protected AbstractRecursivConverterTask<T, D> createSubTask(
+          final ConcurrentLinkedQueue<D> aElementsToProcess) {
+    final AbstractRecursivConverterTask<T, D> subTask = createNewOwnInstance(aElementsToProcess);
+    subTask.resultConsumer = resultConsumer;
+    subTask.checkpointFilms = checkpointFilms;
+    return subTask;
+  }
+
   /**
    * In this method you just have to create a new instance of yourself.
    *
@@ -86,9 +232,18 @@ public abstract class AbstractRecursivConverterTask<T, D> extends RecursiveTask<
 
   protected abstract Integer getMaxElementsToProcess();
 
+  /**
+   * @param aElement A element to be processed.
+   * @return false if the element is left out because the time budget of the
+   * sender is used up.
+   */
+  protected boolean isWithinBudget(final D aElement) {
+    return true;
+  }
+
   /**
    * In this method you have to use the element {@link D} to create a object of
-   * the return type {@link T}. Add the results to {@link #taskResults}.
+   * the return type {@link T}. Add the results with {@link #addResult(Object)}.
    *
    * @param aElement A element to be processed.
    */
@@ -4,14 +4,8 @@ import de.mediathekview.mlib.Config;
 import de.mediathekview.mlib.tool.Log;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.TimeUnit;
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.WebTarget;
 import mServer.crawler.sender.MediathekReader;
-import org.glassfish.jersey.client.filter.EncodingFilter;
-import org.glassfish.jersey.message.DeflateEncoder;
-import org.glassfish.jersey.message.GZipEncoder;
 
 /**
  * This task is based on {@link AbstractUrlTask} which takes a
@@ -34,18 +28,11 @@ public abstract class AbstractRestTask<T, D extends CrawlerUrlDTO> extends Abstr
   protected static final String AUTHORIZATION_BEARER = "Bearer ";
 
   protected final transient Optional<String> authKey;
-  private final Client client;
 
   public AbstractRestTask(final MediathekReader aCrawler,
           final ConcurrentLinkedQueue<D> aUrlToCrawlDTOs, final Optional<String> aAuthKey) {
     super(aCrawler, aUrlToCrawlDTOs);
     authKey = aAuthKey;
-
-    client = ClientBuilder.newBuilder()
-            .readTimeout(60, TimeUnit.SECONDS).build();
-    client.register(EncodingFilter.class);
-    client.register(GZipEncoder.class);
-    client.register(DeflateEncoder.class);
   }
 
   /**
@@ -73,12 +60,12 @@ public abstract class AbstractRestTask<T, D extends CrawlerUrlDTO> extends Abstr
   }
 
   /**
-   * Creates a {@link WebTarget}.
+   * Creates a {@link WebTarget} of the shared rest client.
    *
    * @param aUrl the url.
    * @return the {@link WebTarget} to access the url.
    */
   protected WebTarget createWebTarget(final String aUrl) {
-    return client.target(aUrl);
+    return HttpTransport.getInstance().getRestClient().target(aUrl);
   }
 }
@@ -1,6 +1,10 @@
 package mServer.crawler.sender.base;
 
 import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.RecursiveTask;
 import mServer.crawler.FilmeSuchen;
@@ -29,7 +33,30 @@ public abstract class AbstractUrlTask<T, D extends CrawlerUrlDTO>
 
   public AbstractUrlTask(final MediathekReader aCrawler,
           final ConcurrentLinkedQueue<D> aUrlToCrawlDTOs) {
-    super(aCrawler, aUrlToCrawlDTOs);
+    super(aCrawler, sortByPriority(aUrlToCrawlDTOs));
+  }
+
+  /**
+   * orders the urls by their priority, so the freshest are processed first.
+   * The order of urls with the same priority is kept.
+   */
+  private static <D extends CrawlerUrlDTO> ConcurrentLinkedQueue<D> sortByPriority(
+          final ConcurrentLinkedQueue<D> aUrlToCrawlDTOs) {
+    // Teilmengen einer sortierten Queue sind schon sortiert
+    CrawlPriority previous = null;
+    boolean sorted = true;
+    for (Iterator<D> iterator = aUrlToCrawlDTOs.iterator(); sorted && iterator.hasNext();) {
+      final CrawlPriority priority = iterator.next().getPriority();
+      sorted = previous == null || previous.compareTo(priority) <= 0;
+      previous = priority;
+    }
+    if (!sorted) {
+      final List<D> dtos = new ArrayList<>(aUrlToCrawlDTOs);
+      dtos.sort(Comparator.comparing(CrawlerUrlDTO::getPriority));
+      aUrlToCrawlDTOs.clear();
+      aUrlToCrawlDTOs.addAll(dtos);
+    }
+    return aUrlToCrawlDTOs;
   }
 
   @Override
@@ -37,6 +64,11 @@ public abstract class AbstractUrlTask<T, D extends CrawlerUrlDTO>
     return 100;
   }
 
+  @Override
+  protected boolean isWithinBudget(final D aDTO) {
+    return CrawlDeadline.isWithinBudget(crawler.getSendername(), aDTO.getPriority());
+  }
+
   @Deprecated
   protected void processElement(final D aDTO) {
     processElement(aDTO);
@@ -0,0 +1,86 @@
+package mServer.crawler.sender.base;
+
+import de.mediathekview.mlib.Config;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+
+/**
+ * Cancellation of a crawl run. The {@link HttpTransport} registers every call
+ * of the run, cancelling the token aborts the running calls at once, calls
+ * started later fail immediately. Waiting limiters and tasks wake up.
+ *
+ * Config.getStop() is set, too, so the code polling it stops as before.
+ */
+public final class CancellationToken {
+
+  private static volatile CancellationToken runToken = new CancellationToken();
+
+  private final CountDownLatch cancelled = new CountDownLatch(1);
+  private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @return the token of the current run
+   */
+  public static CancellationToken getRunToken() {
+    return runToken;
+  }
+
+  /**
+   * creates the token of a new run.
+   */
+  public static synchronized void startRun() {
+    runToken = new CancellationToken();
+  }
+
+  /**
+   * stops the current run.
+   */
+  public static void cancelRun() {
+    Config.setStop(true);
+    runToken.cancel();
+  }
+
+  public void cancel() {
+    cancelled.countDown();
+    calls.forEach(Call::cancel);
+  }
+
+  public boolean isCancelled() {
+    return cancelled.getCount() == 0;
+  }
+
+  /**
+   * waits, but returns as soon as the token is cancelled.
+   *
+   * @param aTime the max. time to wait
+   * @param aUnit the unit of the time
+   * @return true if the token is cancelled
+   * @throws InterruptedException if the thread is interrupted
+   */
+  public boolean sleep(final long aTime, final TimeUnit aUnit) throws InterruptedException {
+    return cancelled.await(aTime, aUnit);
+  }
+
+  /**
+   * @throws InterruptedIOException if the token is cancelled
+   */
+  public void throwIfCancelled() throws InterruptedIOException {
+    if (isCancelled()) {
+      throw new InterruptedIOException("crawl run cancelled");
+    }
+  }
+
+  void register(final Call aCall) {
+    // nicht hier abbrechen: der Call ist noch nicht fertig erzeugt, Calls eines
+    // abgebrochenen Laufs scheitern im ersten Interceptor
+    calls.add(aCall);
+  }
+
+  void unregister(final Call aCall) {
+    calls.remove(aCall);
+  }
+}
@@ -0,0 +1,124 @@
+package mServer.crawler.sender.base;
+
+import de.mediathekview.mlib.tool.Log;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import mServer.tool.MserverDaten;
+
+/**
+ * The deadline of the crawl run. Each sender gets a share of the time left at
+ * its start as budget. The urls of a {@link CrawlPriority} are only processed
+ * in the part of the budget given by the priority, so at the end of the budget
+ * only the freshest films are loaded.
+ *
+ * Without deadline (e.g. when started without server) all urls are processed.
+ */
+public final class CrawlDeadline {
+
+  private static final double DEFAULT_SHARE = 1.0;
+  private static final double FULL_SHARE = 1.0;
+
+  private static volatile long deadline = 0;
+  private static final Map<String, Long> SENDER_BUDGET_START = new ConcurrentHashMap<>();
+  private static final Map<String, AtomicInteger> SKIPPED = new ConcurrentHashMap<>();
+  private static Map<String, Double> shares;
+
+  private CrawlDeadline() {
+  }
+
+  /**
+   * sets the deadline of the run.
+   *
+   * @param aDeadlineMillis the time the crawlers are stopped, 0 for none
+   */
+  public static synchronized void start(final long aDeadlineMillis) {
+    deadline = aDeadlineMillis;
+    SENDER_BUDGET_START.clear();
+    SKIPPED.clear();
+    shares = readShares();
+  }
+
+  /**
+   * starts the budget of the sender.
+   *
+   * @param aSender the sender
+   */
+  public static void startSender(final String aSender) {
+    SENDER_BUDGET_START.putIfAbsent(aSender, System.currentTimeMillis());
+  }
+
+  /**
+   * @return the time left until the deadline in ms, Long.MAX_VALUE without
+   * deadline.
+   */
+  public static long getRemainingMillis() {
+    final long currentDeadline = deadline;
+    return currentDeadline == 0 ? Long.MAX_VALUE : currentDeadline - System.currentTimeMillis();
+  }
+
+  /**
+   * @param aSender the sender
+   * @param aPriority the priority of the url
+   * @return true if the url is to be processed
+   */
+  public static boolean isWithinBudget(final String aSender, final CrawlPriority aPriority) {
+    final long currentDeadline = deadline;
+    // FRESH und UNPRIORITISED laufen bis zum harten Stopp
+    if (currentDeadline == 0 || aPriority.getBudgetShare() >= FULL_SHARE) {
+      return true;
+    }
+    final long now = System.currentTimeMillis();
+    final long start = SENDER_BUDGET_START.getOrDefault(aSender, now);
+    final double budget = Math.max(0, currentDeadline - start) * getShare(aSender);
+    return now - start < budget * aPriority.getBudgetShare();
+  }
+
+  /**
+   * counts an url left out because of the budget.
+   *
+   * @param aSender the sender
+   */
+  public static void skipped(final String aSender) {
+    SKIPPED.computeIfAbsent(aSender, s -> new AtomicInteger()).incrementAndGet();
+  }
+
+  /**
+   * @param aSender the sender
+   * @return the number of urls left out because of the budget
+   */
+  public static int getSkipped(final String aSender) {
+    final AtomicInteger count = SKIPPED.get(aSender);
+    return count == null ? 0 : count.get();
+  }
+
+  private static synchronized double getShare(final String aSender) {
+    if (shares == null) {
+      shares = readShares();
+    }
+    return shares.getOrDefault(aSender, DEFAULT_SHARE);
+  }
+
+  private static Map<String, Double> readShares() {
+    final Map<String, Double> result = new HashMap<>();
+    for (String entry : MserverDaten.getCrawlerBudgetShares().split(",")) {
+      final int index = entry.indexOf('=');
+      try {
+        if (index <= 0) {
+          throw new NumberFormatException(entry);
+        }
+        final double share = Double.parseDouble(entry.substring(index + 1).trim());
+        if (share <= 0 || share > 1) {
+          throw new NumberFormatException(entry);
+        }
+        result.put(entry.substring(0, index).trim(), share);
+      } catch (NumberFormatException e) {
+        if (!entry.trim().isEmpty()) {
+          Log.errorLog(736201949, "Budget-Anteil falsch: " + entry);
+        }
+      }
+    }
+    return result;
+  }
+}
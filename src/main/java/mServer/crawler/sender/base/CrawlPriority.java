@@ -0,0 +1,45 @@
+package mServer.crawler.sender.base;
+
+/**
+ * The expected value of an url to crawl. The urls are processed in this order,
+ * under time pressure the urls of the lower priorities are left out first.
+ * Urls with the budget share 1.0 are never left out, they run until the hard
+ * stop.
+ */
+public enum CrawlPriority {
+  /**
+   * the newest broadcasts, e.g. the day pages of today and yesterday.
+   */
+  FRESH(1.0),
+  /**
+   * the default: urls of crawlers which do not mark their urls, they are
+   * processed like before the budget existed.
+   */
+  UNPRIORITISED(1.0),
+  /**
+   * the other day pages.
+   */
+  DAY(0.9),
+  /**
+   * topic pages.
+   */
+  TOPIC(0.75),
+  /**
+   * archive pages.
+   */
+  ARCHIVE(0.5);
+
+  private final double budgetShare;
+
+  CrawlPriority(final double aBudgetShare) {
+    budgetShare = aBudgetShare;
+  }
+
+  /**
+   * @return the share of the budget of the sender in which urls of this
+   * priority are processed.
+   */
+  public double getBudgetShare() {
+    return budgetShare;
+  }
+}
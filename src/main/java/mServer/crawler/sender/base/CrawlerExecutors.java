@@ -0,0 +1,74 @@
+package mServer.crawler.sender.base;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import mServer.tool.MserverDaten;
+
+/**
+ * The thread pools shared by all crawlers. The crawler tasks (loading and
+ * parsing the pages) run in the I/O pool, the films found are sorted in by
+ * tasks in the film sink pool (they check the urls, so they wait for the
+ * network, too). The number of threads does not depend on the number of
+ * senders, the share of a sender is limited by the {@link SenderQuota}.
+ */
+public final class CrawlerExecutors {
+
+  private static ForkJoinPool ioPool;
+  private static ForkJoinPool cpuPool;
+  private static ExecutorService filmSinkPool;
+
+  private CrawlerExecutors() {
+  }
+
+  /**
+   * @return the pool for the crawler tasks, its size is configured in
+   * mserver.xml.
+   */
+  public static synchronized ForkJoinPool getIoPool() {
+    if (ioPool == null) {
+      ioPool = createPool("crawler-io-", MserverDaten.getCrawlerIoThreads());
+    }
+    return ioPool;
+  }
+
+  /**
+   * @return the pool for short cpu bound tasks, one thread per cpu.
+   */
+  public static synchronized ForkJoinPool getCpuPool() {
+    if (cpuPool == null) {
+      cpuPool = createPool("crawler-cpu-", Runtime.getRuntime().availableProcessors());
+    }
+    return cpuPool;
+  }
+
+  /**
+   * @return the pool for the consumers of the {@link mServer.crawler.sender.FilmSink}.
+   * Its threads are created as needed, each sink limits its consumers, so the
+   * number of threads is limited by the number of senders.
+   */
+  public static synchronized ExecutorService getFilmSinkPool() {
+    if (filmSinkPool == null) {
+      final AtomicInteger threadNumber = new AtomicInteger();
+      filmSinkPool = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "film-sink-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return filmSinkPool;
+  }
+
+  private static ForkJoinPool createPool(final String aThreadPrefix, final int aParallelism) {
+    final ForkJoinPool.ForkJoinWorkerThreadFactory factory = (ForkJoinPool pool) -> {
+      final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      worker.setName(aThreadPrefix + worker.getPoolIndex());
+      worker.setDaemon(true);
+      return worker;
+    };
+
+    return new ForkJoinPool(aParallelism, factory, null, true);
+  }
+}
@@ -6,6 +6,7 @@ public class CrawlerUrlDTO {
 
   protected static final String HTTPS = "https:";
   private String url;
+  private CrawlPriority priority = CrawlPriority.UNPRIORITISED;
 
   public CrawlerUrlDTO(final String aUrl) {
     setUrl(aUrl);
@@ -41,6 +42,13 @@ public class CrawlerUrlDTO {
     return url;
   }
 
+  /**
+   * @return the priority of the url, it is not part of equals.
+   */
+  public CrawlPriority getPriority() {
+    return priority;
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -49,6 +57,10 @@ public class CrawlerUrlDTO {
     return result;
   }
 
+  public void setPriority(final CrawlPriority aPriority) {
+    priority = aPriority;
+  }
+
   public void setUrl(final String aUrl) {
     url = aUrl;
     if (url.startsWith("//")) {
@@ -0,0 +1,242 @@
+package mServer.crawler.sender.base;
+
+import com.google.common.util.concurrent.RateLimiter;
+import de.mediathekview.mlib.Config;
+import de.mediathekview.mlib.tool.Log;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import mServer.tool.MserverDaten;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Limits the requests per host. The rate of each host adapts to the responses
+ * (AIMD): every successful response increases the rate a little, a 429 (too
+ * many requests) or 503 (service unavailable) halves it. If the response
+ * contains a Retry-After header, no requests are sent to the host until then.
+ *
+ * The start rate and the bounds of a host are configured in mserver.xml, e.g.
+ * {@code api.zdf.de=10, www.sr-mediathek.de=1:0.5:2} (rate[:min:max] in
+ * requests per second). Hosts without configuration are not limited until
+ * they answer with 429 or 503.
+ */
+public class HostRateLimiter {
+
+  private static final Logger LOG = LogManager.getLogger(HostRateLimiter.class);
+
+  private static final double DEFAULT_RATE = 10.0;
+  private static final double DEFAULT_MAX_FACTOR = 2.0;
+  private static final double DEFAULT_MIN_FACTOR = 0.1;
+  /**
+   * the rate increases by this value per second of successful requests.
+   */
+  private static final double ADDITIVE_INCREASE = 0.5;
+  private static final double MULTIPLICATIVE_DECREASE = 0.5;
+  private static final long MAX_RETRY_AFTER_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+  private static final long STOP_CHECK_MILLIS = 1000;
+
+  private static HostRateLimiter instance;
+
+  private final Map<String, HostLimit> limits = new ConcurrentHashMap<>();
+
+  HostRateLimiter(final Map<String, String> aConfiguration) {
+    aConfiguration.forEach(this::configureHost);
+  }
+
+  public static synchronized HostRateLimiter getInstance() {
+    if (instance == null) {
+      instance = new HostRateLimiter(readConfiguration());
+    }
+    return instance;
+  }
+
+  /**
+   * sets the start rate of a host, if the host is not configured yet.
+   *
+   * @param aHost the host
+   * @param aRate the rate in requests per second
+   */
+  public void suggestRate(final String aHost, final double aRate) {
+    if (aRate > 0) {
+      limits.computeIfAbsent(aHost, host -> new HostLimit(host, aRate, aRate * DEFAULT_MIN_FACTOR, aRate * DEFAULT_MAX_FACTOR));
+    }
+  }
+
+  /**
+   * waits until a request to the host is allowed.
+   *
+   * @param aHost the host
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public void acquire(final String aHost) throws InterruptedException {
+    final HostLimit limit = limits.get(aHost);
+    if (limit != null) {
+      limit.acquire();
+    }
+  }
+
+  /**
+   * @param aHost the host
+   * @return the time between two requests to the host in milliseconds, 0 if
+   * the host is not limited
+   */
+  public long getIntervalMillis(final String aHost) {
+    final HostLimit limit = limits.get(aHost);
+    return limit == null ? 0 : limit.getIntervalMillis();
+  }
+
+  /**
+   * adapts the rate of the host to the response.
+   *
+   * @param aHost the host
+   * @param aStatusCode the http status of the response
+   * @param aRetryAfter the value of the Retry-After header or null
+   */
+  public void onResponse(final String aHost, final int aStatusCode, final String aRetryAfter) {
+    if (aStatusCode == 429 || aStatusCode == 503) {
+      final HostLimit limit = limits.computeIfAbsent(aHost,
+              host -> new HostLimit(host, DEFAULT_RATE, DEFAULT_RATE * DEFAULT_MIN_FACTOR, DEFAULT_RATE * DEFAULT_MAX_FACTOR));
+      limit.decrease(parseRetryAfter(aRetryAfter));
+    } else if (aStatusCode < 400) {
+      final HostLimit limit = limits.get(aHost);
+      if (limit != null) {
+        limit.increase();
+      }
+    }
+  }
+
+  private void configureHost(final String aHost, final String aValue) {
+    try {
+      final String[] values = aValue.split(":");
+      final double rate = Double.parseDouble(values[0].trim());
+      final double min = values.length > 1 ? Double.parseDouble(values[1].trim()) : rate * DEFAULT_MIN_FACTOR;
+      final double max = values.length > 2 ? Double.parseDouble(values[2].trim()) : rate * DEFAULT_MAX_FACTOR;
+      if (rate <= 0 || min <= 0 || max < min) {
+        throw new NumberFormatException(aValue);
+      }
+      limits.put(aHost, new HostLimit(aHost, Math.max(min, Math.min(max, rate)), min, max));
+    } catch (NumberFormatException e) {
+      Log.errorLog(912304871, "Rate-Limit falsch: " + aHost + "=" + aValue);
+    }
+  }
+
+  private static Map<String, String> readConfiguration() {
+    final Map<String, String> configuration = new HashMap<>();
+    // Vorgaben, bisher fest im Code
+    configuration.put("api.zdf.de", "10");
+    configuration.put("api.3sat.de", "10");
+    configuration.put("api.arte.tv", "5");
+    final double srRateLimit = MserverDaten.getSrRateLimit();
+    configuration.put("www.sr-mediathek.de", srRateLimit + ":" + srRateLimit * DEFAULT_MIN_FACTOR + ":" + srRateLimit);
+
+    for (String entry : MserverDaten.getHttpRateLimits().split(",")) {
+      final int index = entry.indexOf('=');
+      if (index > 0) {
+        configuration.put(entry.substring(0, index).trim(), entry.substring(index + 1).trim());
+      } else if (!entry.trim().isEmpty()) {
+        Log.errorLog(912304872, "Rate-Limit falsch: " + entry);
+      }
+    }
+    return configuration;
+  }
+
+  /**
+   * @param aRetryAfter delay in seconds or http date
+   * @return the delay in seconds, 0 if unknown
+   */
+  static long parseRetryAfter(final String aRetryAfter) {
+    if (aRetryAfter == null || aRetryAfter.trim().isEmpty()) {
+      return 0;
+    }
+
+    long seconds;
+    try {
+      seconds = Long.parseLong(aRetryAfter.trim());
+    } catch (NumberFormatException e) {
+      try {
+        final ZonedDateTime retryAt = ZonedDateTime.parse(aRetryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        seconds = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt).getSeconds();
+      } catch (DateTimeParseException ignored) {
+        return 0;
+      }
+    }
+    return Math.max(0, Math.min(seconds, MAX_RETRY_AFTER_SECONDS));
+  }
+
+  private static class HostLimit {
+
+    private final String host;
+    private final double minRate;
+    private final double maxRate;
+    private final RateLimiter limiter;
+    private double rate;
+    private double appliedRate;
+    private long lastDecreaseNanos;
+    private volatile long blockedUntilNanos;
+
+    HostLimit(final String aHost, final double aRate, final double aMinRate, final double aMaxRate) {
+      host = aHost;
+      minRate = aMinRate;
+      maxRate = aMaxRate;
+      rate = aRate;
+      appliedRate = aRate;
+      limiter = RateLimiter.create(aRate);
+      blockedUntilNanos = System.nanoTime();
+      lastDecreaseNanos = blockedUntilNanos - TimeUnit.DAYS.toNanos(1);
+      LOG.debug("rate limit {}: {}/s ({} - {})", aHost, aRate, aMinRate, aMaxRate);
+    }
+
+    void acquire() throws InterruptedException {
+      final CancellationToken token = CancellationToken.getRunToken();
+      long waitNanos;
+      while ((waitNanos = blockedUntilNanos - System.nanoTime()) > 0 && !Config.getStop()) {
+        // wird bei Abbruch sofort geweckt
+        if (token.sleep(Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(STOP_CHECK_MILLIS)), TimeUnit.NANOSECONDS)) {
+          return;
+        }
+      }
+      if (!token.isCancelled()) {
+        limiter.acquire();
+      }
+    }
+
+    synchronized void increase() {
+      // pro Sekunde erfolgreicher Requests steigt die Rate um ADDITIVE_INCREASE
+      rate = Math.min(maxRate, rate + ADDITIVE_INCREASE / rate);
+      // den RateLimiter nur bei merklicher Änderung anpassen
+      if (Math.abs(rate - appliedRate) >= appliedRate * 0.05 || rate == maxRate && appliedRate != maxRate) {
+        applyRate();
+      }
+    }
+
+    synchronized void decrease(final long aRetryAfterSeconds) {
+      final long now = System.nanoTime();
+      if (aRetryAfterSeconds > 0) {
+        blockedUntilNanos = Math.max(blockedUntilNanos, now + TimeUnit.SECONDS.toNanos(aRetryAfterSeconds));
+      }
+      // gleichzeitig laufende Requests bekommen oft auch 429
+      // => höchstens einmal je Intervall reduzieren
+      if (now - lastDecreaseNanos >= TimeUnit.SECONDS.toNanos(1) / rate) {
+        lastDecreaseNanos = now;
+        rate = Math.max(minRate, rate * MULTIPLICATIVE_DECREASE);
+        applyRate();
+        LOG.info("rate limit {} reduced to {}/s, retry after {}s", host, rate, aRetryAfterSeconds);
+      }
+    }
+
+    synchronized long getIntervalMillis() {
+      return (long) Math.ceil(TimeUnit.SECONDS.toMillis(1) / rate);
+    }
+
+    private void applyRate() {
+      appliedRate = rate;
+      limiter.setRate(rate);
+    }
+  }
+}
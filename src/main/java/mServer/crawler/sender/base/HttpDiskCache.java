@@ -0,0 +1,352 @@
+package mServer.crawler.sender.base;
+
+import com.google.common.hash.Hashing;
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A http cache on disk which is kept between the crawl runs. For the
+ * configured hosts the responses with ETag or Last-Modified are stored
+ * (compressed) and the next request of the url is sent as conditional request.
+ * If the server answers with 304 (not modified) the stored response is used,
+ * updated with the headers of the 304 (RFC 7234, 4.3.4). The entry is only
+ * replaced or deleted by a definitive answer (2xx, 404, 410), a temporary
+ * error like 429 or 503 keeps it for the next run.
+ *
+ * The cache is evicted by age and by size, the least recently used entries
+ * are deleted first.
+ */
+class HttpDiskCache implements Interceptor {
+
+  private static final Logger LOG = LogManager.getLogger(HttpDiskCache.class);
+
+  private static final int FORMAT_VERSION = 1;
+  private static final String FILE_SUFFIX = ".cache";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final int WRITES_PER_EVICTION = 500;
+  private static final long MAX_ENTRY_BYTES = 8L * 1024 * 1024;
+
+  private static final String HEADER_ETAG = "ETag";
+  private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+  private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+  private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+  private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+  private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+  private static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+  private final Path directory;
+  private final Set<String> hosts;
+  private final long maxBytes;
+  private final long maxAgeMillis;
+  private final AtomicInteger writesSinceEviction = new AtomicInteger();
+  private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+  HttpDiskCache(final Path aDirectory, final Set<String> aHosts, final long aMaxBytes, final long aMaxAgeMillis) {
+    directory = aDirectory;
+    hosts = aHosts;
+    maxBytes = aMaxBytes;
+    maxAgeMillis = aMaxAgeMillis;
+    evict();
+  }
+
+  static HttpDiskCache create(final String aDirectory, final Set<String> aHosts, final int aMaxMb, final int aMaxAgeDays) {
+    return new HttpDiskCache(Paths.get(aDirectory), aHosts, aMaxMb * 1024L * 1024L, TimeUnit.DAYS.toMillis(aMaxAgeDays));
+  }
+
+  @Override
+  public Response intercept(final Chain aChain) throws IOException {
+    final Request request = aChain.request();
+    if (!"GET".equals(request.method()) || !hosts.contains(request.url().host())
+            || request.header(HEADER_IF_NONE_MATCH) != null || request.header(HEADER_IF_MODIFIED_SINCE) != null) {
+      return aChain.proceed(request);
+    }
+
+    final Path file = directory.resolve(Hashing.sha256()
+            .hashString(SingleFlightInterceptor.createKey(request), StandardCharsets.UTF_8) + FILE_SUFFIX);
+    final CachedResponse cached = read(file);
+
+    final Request.Builder conditional = request.newBuilder();
+    if (cached != null) {
+      final String etag = cached.headers.get(HEADER_ETAG);
+      final String lastModified = cached.headers.get(HEADER_LAST_MODIFIED);
+      if (etag != null) {
+        conditional.header(HEADER_IF_NONE_MATCH, etag);
+      }
+      if (lastModified != null) {
+        conditional.header(HEADER_IF_MODIFIED_SINCE, lastModified);
+      }
+    }
+
+    final Response response = aChain.proceed(conditional.build());
+    if (cached != null && response.code() == 304) {
+      response.close();
+      return revalidated(file, cached, response).toResponse(request, response);
+    }
+
+    if (response.code() == 200 && (response.header(HEADER_ETAG) != null || response.header(HEADER_LAST_MODIFIED) != null)) {
+      return store(file, request, response);
+    }
+    // nur eine endgültige Antwort ersetzt den Eintrag, z.B. nicht 429 oder 503
+    if (cached != null && (response.isSuccessful() || response.code() == 404 || response.code() == 410)) {
+      Files.deleteIfExists(file);
+    }
+    return response;
+  }
+
+  /**
+   * updates the stored headers with the headers of the 304 response, the
+   * headers describing the stored body are kept.
+   */
+  private static CachedResponse revalidated(final Path aFile, final CachedResponse aCached,
+          final Response aNotModified) {
+    final Headers.Builder headers = aCached.headers.newBuilder();
+    boolean changed = false;
+    for (String name : aNotModified.headers().names()) {
+      if (isBodyHeader(name)) {
+        continue;
+      }
+      final List<String> values = aNotModified.headers(name);
+      if (!values.equals(aCached.headers.values(name))) {
+        headers.removeAll(name);
+        values.forEach(value -> headers.addUnsafeNonAscii(name, value));
+        changed = true;
+      }
+    }
+    if (!changed) {
+      touch(aFile);
+      return aCached;
+    }
+
+    final CachedResponse updated = new CachedResponse(aCached.url, aCached.protocol, aCached.message, headers.build(),
+            aCached.body);
+    try {
+      write(aFile, updated);
+    } catch (IOException e) {
+      Log.errorLog(912304877, e, "HTTP-Cache: " + aFile);
+    }
+    return updated;
+  }
+
+  private static boolean isBodyHeader(final String aName) {
+    return HEADER_CONTENT_LENGTH.equalsIgnoreCase(aName) || HEADER_CONTENT_ENCODING.equalsIgnoreCase(aName)
+            || HEADER_CONTENT_TYPE.equalsIgnoreCase(aName);
+  }
+
+  private Response store(final Path aFile, final Request aRequest, final Response aResponse) throws IOException {
+    final ResponseBody body = aResponse.body();
+    if (body == null || body.contentLength() > MAX_ENTRY_BYTES) {
+      return aResponse;
+    }
+    final ResponseBody peeked = aResponse.peekBody(MAX_ENTRY_BYTES + 1);
+    if (peeked.contentLength() > MAX_ENTRY_BYTES) {
+      return aResponse;
+    }
+    final byte[] bytes = peeked.bytes();
+    aResponse.close();
+
+    final CachedResponse cached = new CachedResponse(aResponse.request().url().toString(), aResponse.protocol(),
+            aResponse.message(), aResponse.headers(), bytes);
+    try {
+      write(aFile, cached);
+    } catch (IOException e) {
+      Log.errorLog(912304873, e, "HTTP-Cache: " + aFile);
+    }
+    if (writesSinceEviction.incrementAndGet() >= WRITES_PER_EVICTION) {
+      writesSinceEviction.set(0);
+      evict();
+    }
+    return cached.toResponse(aRequest, aResponse);
+  }
+
+  private static CachedResponse read(final Path aFile) {
+    if (!Files.exists(aFile)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(aFile)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+      final String url = in.readUTF();
+      final Protocol protocol = Protocol.get(in.readUTF());
+      final String message = in.readUTF();
+      final Headers.Builder headers = new Headers.Builder();
+      final int headerCount = in.readInt();
+      for (int i = 0; i < headerCount; i++) {
+        headers.addUnsafeNonAscii(in.readUTF(), in.readUTF());
+      }
+      final boolean compressed = in.readBoolean();
+      final byte[] stored = new byte[in.readInt()];
+      in.readFully(stored);
+      return new CachedResponse(url, protocol, message, headers.build(), compressed ? gunzip(stored) : stored);
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("HTTP-Cache: invalid entry {}", aFile, e);
+      return null;
+    }
+  }
+
+  private static void write(final Path aFile, final CachedResponse aResponse) throws IOException {
+    // bereits komprimierte Antworten nicht nochmal komprimieren
+    final boolean compress = aResponse.headers.get(HEADER_CONTENT_ENCODING) == null;
+    final byte[] stored = compress ? gzip(aResponse.body) : aResponse.body;
+
+    final Path temp = aFile.resolveSibling(aFile.getFileName() + TEMP_SUFFIX);
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(aResponse.url);
+      out.writeUTF(aResponse.protocol.toString());
+      out.writeUTF(aResponse.message);
+      out.writeInt(aResponse.headers.size());
+      for (int i = 0; i < aResponse.headers.size(); i++) {
+        out.writeUTF(aResponse.headers.name(i));
+        out.writeUTF(aResponse.headers.value(i));
+      }
+      out.writeBoolean(compress);
+      out.writeInt(stored.length);
+      out.write(stored);
+    }
+    Files.move(temp, aFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void touch(final Path aFile) {
+    try {
+      Files.setLastModifiedTime(aFile, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException ignored) {
+    }
+  }
+
+  /**
+   * deletes entries older than the max. age, then the least recently used
+   * entries until the cache is smaller than the max. size.
+   */
+  final void evict() {
+    if (!evicting.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      final long now = System.currentTimeMillis();
+      final List<Path> files = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+        stream.forEach(files::add);
+      }
+
+      long size = 0;
+      final List<Path> remaining = new ArrayList<>();
+      for (Path file : files) {
+        if (now - Files.getLastModifiedTime(file).toMillis() > maxAgeMillis) {
+          Files.deleteIfExists(file);
+        } else {
+          size += Files.size(file);
+          remaining.add(file);
+        }
+      }
+
+      if (size > maxBytes) {
+        remaining.sort(Comparator.comparingLong(HttpDiskCache::lastModified));
+        for (Path file : remaining) {
+          if (size <= maxBytes) {
+            break;
+          }
+          size -= Files.size(file);
+          Files.deleteIfExists(file);
+        }
+      }
+      LOG.debug("HTTP-Cache: {} entries, {} bytes", remaining.size(), size);
+    } catch (IOException e) {
+      Log.errorLog(912304874, e, "HTTP-Cache aufräumen: " + directory);
+    } finally {
+      evicting.set(false);
+    }
+  }
+
+  private static long lastModified(final Path aFile) {
+    try {
+      return Files.getLastModifiedTime(aFile).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static byte[] gzip(final byte[] aBytes) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(aBytes.length / 4 + 64);
+    try (OutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(aBytes);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] gunzip(final byte[] aBytes) throws IOException {
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(aBytes))) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream(aBytes.length * 4);
+      final byte[] buffer = new byte[16 * 1024];
+      int n;
+      while ((n = gzip.read(buffer)) != -1) {
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private static class CachedResponse {
+
+    private final String url;
+    private final Protocol protocol;
+    private final String message;
+    private final Headers headers;
+    private final byte[] body;
+
+    CachedResponse(final String aUrl, final Protocol aProtocol, final String aMessage, final Headers aHeaders, final byte[] aBody) {
+      url = aUrl;
+      protocol = aProtocol;
+      message = aMessage;
+      headers = aHeaders;
+      body = aBody;
+    }
+
+    Response toResponse(final Request aRequest, final Response aNetworkResponse) {
+      final String contentType = headers.get(HEADER_CONTENT_TYPE);
+      return new Response.Builder()
+              .request(aRequest.newBuilder().url(url).build())
+              .protocol(protocol)
+              .code(200)
+              .message(message)
+              .headers(headers)
+              .body(ResponseBody.create(body, contentType == null ? null : MediaType.parse(contentType)))
+              .sentRequestAtMillis(aNetworkResponse.sentRequestAtMillis())
+              .receivedResponseAtMillis(aNetworkResponse.receivedResponseAtMillis())
+              .build();
+    }
+  }
+}
@@ -0,0 +1,401 @@
+package mServer.crawler.sender.base;
+
+import de.mediathekview.mlib.Config;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import mServer.tool.MserverDaten;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.filter.EncodingFilter;
+import org.glassfish.jersey.message.DeflateEncoder;
+import org.glassfish.jersey.message.GZipEncoder;
+
+/**
+ * The http transport shared by all crawlers. All requests (OkHttp, Jersey and
+ * Jsoup) use one connection pool, so connections (and HTTP/2 sessions) to the
+ * same host are reused across tasks and crawlers. The number of concurrent
+ * requests per host and per sender ({@link SenderQuota}) is limited, the
+ * request rate per host is limited by the {@link HostRateLimiter}.
+ */
+public class HttpTransport {
+
+  private static final int TIMEOUT_CONNECT_SECONDS = 30;
+  private static final int TIMEOUT_READ_SECONDS = 60;
+  private static final int TIMEOUT_READ_REDUCED_SECONDS = 5;
+  private static final int MAX_IDLE_CONNECTIONS = 100;
+  private static final int KEEP_ALIVE_MINUTES = 5;
+  private static final long SINGLE_FLIGHT_MAX_BYTES = 32L * 1024 * 1024;
+  private static final long SINGLE_FLIGHT_MAX_ENTRY_BYTES = 2L * 1024 * 1024;
+  private static final String HEADER_USER_AGENT = "User-Agent";
+  private static final String HEADER_RETRY_AFTER = "Retry-After";
+
+  private static HttpTransport instance;
+
+  private final OkHttpClient httpClient;
+  private final OkHttpClient reducedTimeOutClient;
+  private final Map<Integer, OkHttpClient> clientsByTimeout = new ConcurrentHashMap<>();
+  private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+  private final int maxRequestsPerHost;
+  private final Client restClient;
+  private final Interceptor httpCache;
+  private final SingleFlightInterceptor singleFlight
+          = new SingleFlightInterceptor(SINGLE_FLIGHT_MAX_BYTES, SINGLE_FLIGHT_MAX_ENTRY_BYTES);
+
+  private HttpTransport() {
+    maxRequestsPerHost = MserverDaten.getHttpMaxRequestsPerHost();
+    httpCache = createHttpCache();
+
+    final Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequestsPerHost * 8);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+    httpClient = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .dispatcher(dispatcher)
+            .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(TIMEOUT_CONNECT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(TIMEOUT_READ_SECONDS, TimeUnit.SECONDS)
+            .writeTimeout(TIMEOUT_READ_SECONDS, TimeUnit.SECONDS)
+            .eventListenerFactory(HttpTransport::registerCall)
+            .addInterceptor(HttpTransport::interceptCancellation)
+            // zuerst: geteilte Antworten brauchen weder Rate-Limit noch Verbindung
+            .addInterceptor(singleFlight)
+            .addInterceptor(httpCache)
+            .addInterceptor(this::interceptUserAgent)
+            .addInterceptor(HttpTransport::interceptSenderQuota)
+            .addInterceptor(HttpTransport::interceptRateLimit)
+            .addInterceptor(this::interceptHostLimit)
+            .build();
+    reducedTimeOutClient = httpClient.newBuilder()
+            .readTimeout(TIMEOUT_READ_REDUCED_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    final ClientConfig clientConfig = new ClientConfig()
+            .connectorProvider((client, configuration) -> new OkHttpConnector(httpClient));
+    restClient = ClientBuilder.newClient(clientConfig);
+    restClient.register(EncodingFilter.class);
+    restClient.register(GZipEncoder.class);
+    restClient.register(DeflateEncoder.class);
+  }
+
+  private static Interceptor createHttpCache() {
+    final Set<String> hosts = new HashSet<>();
+    for (String host : MserverDaten.getHttpCacheHosts().split(",")) {
+      if (!host.trim().isEmpty()) {
+        hosts.add(host.trim());
+      }
+    }
+    if (hosts.isEmpty()) {
+      return aChain -> aChain.proceed(aChain.request());
+    }
+    return HttpDiskCache.create(MserverDaten.getVerzeichnisHttpCache(), hosts,
+            MserverDaten.getHttpCacheMaxMb(), MserverDaten.getHttpCacheMaxAgeDays());
+  }
+
+  public static synchronized HttpTransport getInstance() {
+    if (instance == null) {
+      instance = new HttpTransport();
+    }
+    return instance;
+  }
+
+  /**
+   * @return the client with the default timeouts.
+   */
+  public OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /**
+   * @return a client with a short read timeout, e.g. to check whether a url
+   * exists.
+   */
+  public OkHttpClient getReducedTimeOutClient() {
+    return reducedTimeOutClient;
+  }
+
+  /**
+   * @param aReadTimeoutInMilliseconds the read timeout
+   * @return a client with the given read timeout sharing the connection pool.
+   */
+  public OkHttpClient getHttpClient(final int aReadTimeoutInMilliseconds) {
+    if (aReadTimeoutInMilliseconds <= 0 || aReadTimeoutInMilliseconds == httpClient.readTimeoutMillis()) {
+      return httpClient;
+    }
+    return clientsByTimeout.computeIfAbsent(aReadTimeoutInMilliseconds,
+            timeout -> httpClient.newBuilder().readTimeout(timeout, TimeUnit.MILLISECONDS).build());
+  }
+
+  /**
+   * clears the responses shared in the current crawl run.
+   */
+  public void clearRunCache() {
+    singleFlight.clear();
+  }
+
+  /**
+   * @return the number of running calls of the shared client.
+   */
+  public int getRunningCalls() {
+    return httpClient.dispatcher().runningCallsCount();
+  }
+
+  /**
+   * @return the max. number of running calls of the shared client.
+   */
+  public int getMaxRequests() {
+    return httpClient.dispatcher().getMaxRequests();
+  }
+
+  /**
+   * @param aHost the host
+   * @return true if all connections to the host are in use
+   */
+  public boolean isHostSaturated(final String aHost) {
+    final Semaphore permits = hostPermits.get(aHost);
+    return permits != null && (permits.availablePermits() == 0 || permits.hasQueuedThreads());
+  }
+
+  /**
+   * @return the Jersey client for the rest tasks. It sends its requests with
+   * the shared http client.
+   */
+  public Client getRestClient() {
+    return restClient;
+  }
+
+  /**
+   * registers the call at the token of the run, so it is aborted when the run
+   * is cancelled.
+   */
+  private static EventListener registerCall(final Call aCall) {
+    final CancellationToken token = CancellationToken.getRunToken();
+    token.register(aCall);
+    return new EventListener() {
+      @Override
+      public void callEnd(final Call aEndedCall) {
+        token.unregister(aEndedCall);
+      }
+
+      @Override
+      public void callFailed(final Call aFailedCall, final IOException aException) {
+        token.unregister(aFailedCall);
+      }
+    };
+  }
+
+  /**
+   * Requests of a cancelled run fail at once.
+   */
+  private static Response interceptCancellation(final Interceptor.Chain aChain) throws IOException {
+    CancellationToken.getRunToken().throwIfCancelled();
+    return aChain.proceed(aChain.request());
+  }
+
+  private Response interceptUserAgent(final Interceptor.Chain aChain) throws IOException {
+    final Request request = aChain.request();
+    final String userAgent = Config.getUserAgent();
+    if (request.header(HEADER_USER_AGENT) != null || userAgent == null || userAgent.isEmpty()) {
+      return aChain.proceed(request);
+    }
+    return aChain.proceed(request.newBuilder().header(HEADER_USER_AGENT, userAgent).build());
+  }
+
+  /**
+   * Waits for the rate limit of the host and adapts the rate to the response.
+   */
+  private static Response interceptRateLimit(final Interceptor.Chain aChain) throws IOException {
+    final String host = aChain.request().url().host();
+    final HostRateLimiter rateLimiter = HostRateLimiter.getInstance();
+    try {
+      rateLimiter.acquire(host);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted waiting for the rate limit of " + host);
+    }
+
+    final Response response = aChain.proceed(aChain.request());
+    rateLimiter.onResponse(host, response.code(), response.header(HEADER_RETRY_AFTER));
+    return response;
+  }
+
+  /**
+   * Limits the concurrent requests of the sender crawling in the current
+   * thread. The permit is returned when the headers are received, so a request
+   * of the sender while reading a body does not wait for the permit of the
+   * body.
+   */
+  private static Response interceptSenderQuota(final Interceptor.Chain aChain) throws IOException {
+    final Semaphore permits = SenderQuota.getPermitsOfCurrentSender();
+    if (permits == null) {
+      return aChain.proceed(aChain.request());
+    }
+    SenderQuota.recordHost(aChain.request().url().host());
+    return proceedWithPermit(aChain, permits, "interrupted waiting for the quota of the sender", false);
+  }
+
+  /**
+   * Limits the requests per host.
+   */
+  private Response interceptHostLimit(final Interceptor.Chain aChain) throws IOException {
+    final Semaphore permits = hostPermits.computeIfAbsent(aChain.request().url().host(),
+            host -> new Semaphore(maxRequestsPerHost));
+    return proceedWithPermit(aChain, permits, "interrupted waiting for a connection to " + aChain.request().url().host(),
+            true);
+  }
+
+  /**
+   * @param aUntilBodyClosed true if the permit is held until the body of the
+   * response is closed, false if it is returned when the headers are received
+   */
+  private static Response proceedWithPermit(final Interceptor.Chain aChain, final Semaphore aPermits,
+          final String aInterruptedMessage, final boolean aUntilBodyClosed) throws IOException {
+    try {
+      acquire(aPermits);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(aInterruptedMessage);
+    }
+
+    final PermitRelease release = new PermitRelease(aPermits);
+    try {
+      // während des Wartens abgebrochen
+      CancellationToken.getRunToken().throwIfCancelled();
+      final Response response = aChain.proceed(aChain.request());
+      final ResponseBody body = response.body();
+      if (body == null || !aUntilBodyClosed) {
+        release.run();
+        return response;
+      }
+      return response.newBuilder().body(new PermitReleasingBody(body, release)).build();
+    } catch (IOException | RuntimeException e) {
+      release.run();
+      throw e;
+    }
+  }
+
+  /**
+   * Waits for a permit. In a worker of a fork/join pool the pool is told about
+   * the waiting, it can start another worker meanwhile, so the tasks of other
+   * senders are not held up.
+   */
+  private static void acquire(final Semaphore aPermits) throws InterruptedException {
+    if (aPermits.tryAcquire()) {
+      return;
+    }
+    if (!ForkJoinTask.inForkJoinPool()) {
+      aPermits.acquire();
+      return;
+    }
+    ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+      private boolean acquired = false;
+
+      @Override
+      public boolean block() throws InterruptedException {
+        if (!acquired) {
+          aPermits.acquire();
+          acquired = true;
+        }
+        return true;
+      }
+
+      @Override
+      public boolean isReleasable() {
+        if (!acquired) {
+          acquired = aPermits.tryAcquire();
+        }
+        return acquired;
+      }
+    });
+  }
+
+  private static class PermitRelease implements Runnable {
+
+    private final Semaphore permits;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    PermitRelease(final Semaphore aPermits) {
+      permits = aPermits;
+    }
+
+    @Override
+    public void run() {
+      if (released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    }
+  }
+
+  private static class PermitReleasingBody extends ResponseBody {
+
+    private final ResponseBody delegate;
+    private final PermitRelease release;
+    private BufferedSource source;
+
+    PermitReleasingBody(final ResponseBody aDelegate, final PermitRelease aRelease) {
+      delegate = aDelegate;
+      release = aRelease;
+    }
+
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public synchronized BufferedSource source() {
+      if (source == null) {
+        source = Okio.buffer(new ForwardingSource(delegate.source()) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              release.run();
+            }
+          }
+        });
+      }
+      return source;
+    }
+
+    @Override
+    public void close() {
+      try {
+        delegate.close();
+      } finally {
+        release.run();
+      }
+    }
+  }
+}
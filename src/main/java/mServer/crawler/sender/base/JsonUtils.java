@@ -2,7 +2,11 @@ package mServer.crawler.sender.base;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -20,6 +24,17 @@ public final class JsonUtils {
     super();
   }
 
+  /**
+   * Parses the JSON of a stream without reading it into a String first. The
+   * stream is not closed.
+   *
+   * @param aInputStream the stream of a UTF-8 encoded JSON document.
+   * @return the JSON tree.
+   */
+  public static JsonElement parse(final InputStream aInputStream) {
+    return JsonParser.parseReader(new InputStreamReader(aInputStream, StandardCharsets.UTF_8));
+  }
+
   /**
    * Checks if a JSON tree path outgoing from the first JsonElement is correct
    * and all given element IDs exist in the given order.<br>
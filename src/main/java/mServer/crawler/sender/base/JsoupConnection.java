@@ -1,31 +1,56 @@
 package mServer.crawler.sender.base;
 
-import org.jsoup.Connection;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
+import org.jsoup.helper.HttpConnection;
 import org.jsoup.nodes.Document;
 import org.jsoup.parser.Parser;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Helper Class to get rid of static method call for better testability
+ *
+ * The documents are loaded with the shared {@link HttpTransport} and parsed
+ * with Jsoup.
  */
 public class JsoupConnection {
 
-  public Connection getConnection(String url) {
-    return Jsoup.connect(url);
-  }
+  private static final int DEFAULT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(30);
+  private static final String HEADER_USER_AGENT = "User-Agent";
 
   public Document getDocument(String url) throws IOException {
-    return getConnection(url).get();
+    return getDocumentTimeoutAfter(url, DEFAULT_TIMEOUT);
   }
 
   public Document getDocumentTimeoutAfter(String url, int timeoutInMilliseconds) throws IOException {
-    return getConnection(url).timeout(timeoutInMilliseconds).get();
+    return getDocumentTimeoutAfterAlternativeDocumentType(url, timeoutInMilliseconds, Parser.htmlParser());
   }
 
   public Document getDocumentTimeoutAfterAlternativeDocumentType(String url, int timeoutInMilliseconds, Parser parser) throws IOException {
-    return getConnection(url).timeout(timeoutInMilliseconds).parser(parser).get();
+    final Request request = new Request.Builder()
+            .url(url)
+            .header(HEADER_USER_AGENT, HttpConnection.DEFAULT_UA)
+            .build();
+
+    try (Response response = HttpTransport.getInstance().getHttpClient(timeoutInMilliseconds).newCall(request).execute()) {
+      final ResponseBody body = response.body();
+      if (!response.isSuccessful() || body == null) {
+        throw new HttpStatusException("HTTP error fetching URL", response.code(), url);
+      }
+
+      final MediaType contentType = body.contentType();
+      final Charset charset = contentType == null ? null : contentType.charset();
+      // die Basis-URI ist nach Redirects die tatsächlich geladene URL
+      return Jsoup.parse(body.byteStream(), charset == null ? null : charset.name(),
+              response.request().url().toString(), parser);
+    }
   }
 
 }
@@ -0,0 +1,117 @@
+package mServer.crawler.sender.base;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+
+/**
+ * Jersey connector sending the requests with the shared {@link OkHttpClient}
+ * of {@link HttpTransport}.
+ */
+class OkHttpConnector implements Connector {
+
+  private final OkHttpClient httpClient;
+
+  OkHttpConnector(final OkHttpClient aHttpClient) {
+    httpClient = aHttpClient;
+  }
+
+  @Override
+  public ClientResponse apply(final ClientRequest aRequest) {
+    try {
+      final Request request = createRequest(aRequest);
+      return createResponse(aRequest, getClient(aRequest).newCall(request).execute());
+    } catch (IOException e) {
+      throw new ProcessingException(e);
+    }
+  }
+
+  @Override
+  public Future<?> apply(final ClientRequest aRequest, final AsyncConnectorCallback aCallback) {
+    return CompletableFuture.runAsync(() -> {
+      try {
+        aCallback.response(apply(aRequest));
+      } catch (Throwable t) {
+        aCallback.failure(t);
+      }
+    });
+  }
+
+  @Override
+  public String getName() {
+    return "OkHttp";
+  }
+
+  @Override
+  public void close() {
+    // der Client wird von allen Tasks geteilt und nicht geschlossen
+  }
+
+  private OkHttpClient getClient(final ClientRequest aRequest) {
+    final Integer readTimeout = aRequest.resolveProperty(ClientProperties.READ_TIMEOUT, Integer.class);
+    if (readTimeout == null) {
+      return httpClient;
+    }
+    return HttpTransport.getInstance().getHttpClient(readTimeout);
+  }
+
+  private static Request createRequest(final ClientRequest aRequest) throws IOException {
+    // zuerst die Entity schreiben, dabei werden ggf. noch Header ergänzt
+    final RequestBody body = createRequestBody(aRequest);
+
+    final Request.Builder builder = new Request.Builder().url(aRequest.getUri().toString());
+    aRequest.getStringHeaders().forEach((name, values) -> values.forEach(value -> builder.addHeader(name, value)));
+    return builder.method(aRequest.getMethod(), body).build();
+  }
+
+  private static RequestBody createRequestBody(final ClientRequest aRequest) throws IOException {
+    final String method = aRequest.getMethod();
+    if (!aRequest.hasEntity()) {
+      if ("POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method)) {
+        return RequestBody.create(new byte[0], null);
+      }
+      return null;
+    }
+
+    final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+    aRequest.setStreamProvider(contentLength -> entity);
+    aRequest.writeEntity();
+
+    final String contentType = aRequest.getHeaderString(HttpHeaders.CONTENT_TYPE);
+    return RequestBody.create(entity.toByteArray(), contentType == null ? null : MediaType.parse(contentType));
+  }
+
+  private static ClientResponse createResponse(final ClientRequest aRequest, final Response aResponse) {
+    final ClientResponse clientResponse
+            = new ClientResponse(Statuses.from(aResponse.code(), aResponse.message()), aRequest);
+    for (String name : aResponse.headers().names()) {
+      clientResponse.getHeaders().addAll(name, aResponse.headers(name));
+    }
+
+    final ResponseBody body = aResponse.body();
+    if (body == null) {
+      aResponse.close();
+      clientResponse.setEntityStream(new ByteArrayInputStream(new byte[0]));
+    } else {
+      clientResponse.setEntityStream(body.byteStream());
+    }
+    return clientResponse;
+  }
+}
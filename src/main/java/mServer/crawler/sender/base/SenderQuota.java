@@ -0,0 +1,138 @@
+package mServer.crawler.sender.base;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import mServer.tool.MserverDaten;
+
+/**
+ * Limits the concurrent requests of a sender, so one sender can not use all
+ * threads of the shared pool. The crawler tasks mark the thread with their
+ * sender while processing, the {@link HttpTransport} takes a permit of the
+ * sender for each request.
+ *
+ * The permit is held until the headers of the response are received, not
+ * while the body is read and not while waiting for subtasks. So the tasks of a
+ * sender can not block each other, even if a request is sent while the body of
+ * another one is read (e.g. the m3u8 file of a film while parsing its json).
+ *
+ * The tasks of a sender in the shared pool are limited when they are forked
+ * ({@link #tryStartTask(String)}): without a free task permit a task does its
+ * sub tasks itself. So a sender with many pages can not fill the pool with
+ * tasks waiting for its request permits.
+ */
+public final class SenderQuota {
+
+  private static final ThreadLocal<String> CURRENT_SENDER = new ThreadLocal<>();
+  private static final Map<String, Semaphore> PERMITS = new ConcurrentHashMap<>();
+  private static final Map<String, Semaphore> TASKS = new ConcurrentHashMap<>();
+  private static final Map<String, Set<String>> HOSTS = new ConcurrentHashMap<>();
+
+  private SenderQuota() {
+  }
+
+  /**
+   * marks the current thread with the sender.
+   *
+   * @param aSender the sender
+   * @return the previous sender of the thread, to be passed to
+   * {@link #exit(String)}
+   */
+  public static String enter(final String aSender) {
+    final String previous = CURRENT_SENDER.get();
+    CURRENT_SENDER.set(aSender);
+    return previous;
+  }
+
+  /**
+   * restores the previous sender of the thread.
+   *
+   * @param aPrevious the value returned by {@link #enter(String)}
+   */
+  public static void exit(final String aPrevious) {
+    if (aPrevious == null) {
+      CURRENT_SENDER.remove();
+    } else {
+      CURRENT_SENDER.set(aPrevious);
+    }
+  }
+
+  /**
+   * @return the permits of the sender of the current thread, null if the
+   * thread does not crawl for a sender.
+   */
+  static Semaphore getPermitsOfCurrentSender() {
+    final String sender = CURRENT_SENDER.get();
+    if (sender == null) {
+      return null;
+    }
+    return PERMITS.computeIfAbsent(sender, s -> new Semaphore(MserverDaten.getCrawlerSenderMaxRequests()));
+  }
+
+  /**
+   * takes a task permit of the sender if one is free, without waiting. For
+   * tasks forked in the shared pool.
+   *
+   * @param aSender the sender
+   * @return true if the task may be forked, it has to call
+   * {@link #endTask(String)} when it is finished
+   */
+  public static boolean tryStartTask(final String aSender) {
+    return getTaskPermits(aSender).tryAcquire();
+  }
+
+  /**
+   * waits for a task permit of the sender. For threads outside of the shared
+   * pool submitting tasks to it.
+   *
+   * @param aSender the sender
+   * @throws InterruptedException if the thread is interrupted
+   */
+  public static void startTask(final String aSender) throws InterruptedException {
+    getTaskPermits(aSender).acquire();
+  }
+
+  /**
+   * returns the task permit of the sender.
+   *
+   * @param aSender the sender
+   */
+  public static void endTask(final String aSender) {
+    getTaskPermits(aSender).release();
+  }
+
+  private static Semaphore getTaskPermits(final String aSender) {
+    return TASKS.computeIfAbsent(aSender, s -> new Semaphore(MserverDaten.getCrawlerSenderMaxRequests()));
+  }
+
+  /**
+   * remembers that the sender of the current thread requests the host.
+   *
+   * @param aHost the host
+   */
+  static void recordHost(final String aHost) {
+    final String sender = CURRENT_SENDER.get();
+    if (sender != null) {
+      HOSTS.computeIfAbsent(sender, s -> ConcurrentHashMap.newKeySet()).add(aHost);
+    }
+  }
+
+  /**
+   * @param aSender the sender
+   * @return the hosts requested by the sender
+   */
+  public static Set<String> getHosts(final String aSender) {
+    return Collections.unmodifiableSet(HOSTS.getOrDefault(aSender, Collections.emptySet()));
+  }
+
+  /**
+   * @param aSender the sender
+   * @return the number of running requests of the sender
+   */
+  public static int getActiveRequests(final String aSender) {
+    final Semaphore permits = PERMITS.get(aSender);
+    return permits == null ? 0 : MserverDaten.getCrawlerSenderMaxRequests() - permits.availablePermits();
+  }
+}
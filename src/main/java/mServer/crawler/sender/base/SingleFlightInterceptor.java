@@ -0,0 +1,200 @@
+package mServer.crawler.sender.base;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Coalesces identical GET requests of a crawl run. Concurrent requests for the
+ * same normalized url share the response of the first request, recent
+ * successful responses are kept in a LRU bounded by bytes. Responses larger
+ * than the entry limit are not shared, neither are requests with
+ * "Cache-Control: no-store" (e.g. the url probes which only need the headers).
+ */
+class SingleFlightInterceptor implements Interceptor {
+
+  private static final Logger LOG = LogManager.getLogger(SingleFlightInterceptor.class);
+
+  private final long maxBytes;
+  private final long maxEntryBytes;
+  private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+  private final LinkedHashMap<String, SharedResponse> recent = new LinkedHashMap<>(256, 0.75f, true);
+  private long recentBytes = 0;
+  private final AtomicLong hits = new AtomicLong();
+
+  SingleFlightInterceptor(final long aMaxBytes, final long aMaxEntryBytes) {
+    maxBytes = aMaxBytes;
+    maxEntryBytes = aMaxEntryBytes;
+  }
+
+  @Override
+  public Response intercept(final Chain aChain) throws IOException {
+    final Request request = aChain.request();
+    if (!"GET".equals(request.method()) || request.cacheControl().noStore()) {
+      return aChain.proceed(request);
+    }
+
+    final String key = createKey(request);
+    final SharedResponse cached = getRecent(key);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached.toResponse(request);
+    }
+
+    final CompletableFuture<SharedResponse> flight = new CompletableFuture<>();
+    final CompletableFuture<SharedResponse> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      final SharedResponse shared = await(running);
+      if (shared != null) {
+        hits.incrementAndGet();
+        return shared.toResponse(request);
+      }
+      // nicht teilbar, selbst laden
+      return aChain.proceed(request);
+    }
+
+    SharedResponse shared = null;
+    try {
+      final Response response = aChain.proceed(request);
+      shared = toShared(response);
+      if (shared == null) {
+        return response;
+      }
+      if (response.isSuccessful()) {
+        putRecent(key, shared);
+      }
+      return shared.toResponse(request);
+    } finally {
+      inFlight.remove(key, flight);
+      flight.complete(shared);
+    }
+  }
+
+  /**
+   * clears the recent responses, e.g. at the end of a crawl run.
+   */
+  synchronized void clear() {
+    if (!recent.isEmpty()) {
+      LOG.info("single flight: {} shared responses, {} cached bytes cleared", hits.get(), recentBytes);
+    }
+    recent.clear();
+    recentBytes = 0;
+    hits.set(0);
+  }
+
+  private SharedResponse toShared(final Response aResponse) throws IOException {
+    final ResponseBody body = aResponse.body();
+    if (body == null || body.contentLength() > maxEntryBytes) {
+      return null;
+    }
+
+    final ResponseBody peeked = aResponse.peekBody(maxEntryBytes + 1);
+    if (peeked.contentLength() > maxEntryBytes) {
+      return null;
+    }
+    final byte[] bytes = peeked.bytes();
+    aResponse.close();
+    return new SharedResponse(aResponse, bytes);
+  }
+
+  private static SharedResponse await(final CompletableFuture<SharedResponse> aFlight) throws IOException {
+    try {
+      return aFlight.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted waiting for a shared response");
+    } catch (ExecutionException e) {
+      return null;
+    }
+  }
+
+  private synchronized SharedResponse getRecent(final String aKey) {
+    return recent.get(aKey);
+  }
+
+  private synchronized void putRecent(final String aKey, final SharedResponse aResponse) {
+    final SharedResponse old = recent.put(aKey, aResponse);
+    if (old != null) {
+      recentBytes -= old.body.length;
+    }
+    recentBytes += aResponse.body.length;
+
+    final Iterator<SharedResponse> iterator = recent.values().iterator();
+    while (recentBytes > maxBytes && iterator.hasNext()) {
+      recentBytes -= iterator.next().body.length;
+      iterator.remove();
+    }
+  }
+
+  /**
+   * the key contains the url with sorted query parameters and the headers,
+   * because e.g. the accepted encoding or the authorization change the
+   * response.
+   */
+  static String createKey(final Request aRequest) {
+    final HttpUrl url = aRequest.url();
+    final HttpUrl.Builder builder = url.newBuilder().fragment(null);
+    final String query = url.encodedQuery();
+    if (query != null) {
+      final String[] parameters = query.split("&");
+      Arrays.sort(parameters);
+      builder.encodedQuery(String.join("&", parameters));
+    }
+
+    return builder.build() + "\n" + aRequest.headers();
+  }
+
+  private static class SharedResponse {
+
+    private final HttpUrl url;
+    private final Protocol protocol;
+    private final int code;
+    private final String message;
+    private final Headers headers;
+    private final MediaType contentType;
+    private final byte[] body;
+
+    SharedResponse(final Response aResponse, final byte[] aBody) {
+      // nach Redirects die tatsächlich geladene URL
+      url = aResponse.request().url();
+      protocol = aResponse.protocol();
+      code = aResponse.code();
+      message = aResponse.message();
+      headers = aResponse.headers();
+      final ResponseBody responseBody = aResponse.body();
+      contentType = responseBody == null ? null : responseBody.contentType();
+      body = aBody;
+    }
+
+    Response toResponse(final Request aRequest) {
+      final long now = System.currentTimeMillis();
+      return new Response.Builder()
+              .request(aRequest.newBuilder().url(url).build())
+              .protocol(protocol)
+              .code(code)
+              .message(message)
+              .headers(headers)
+              .body(ResponseBody.create(body, contentType))
+              .sentRequestAtMillis(now)
+              .receivedResponseAtMillis(now)
+              .build();
+    }
+  }
+}
@@ -0,0 +1,407 @@
+package mServer.crawler.sender.base;
+
+import de.mediathekview.mlib.tool.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import mServer.tool.MserverDaten;
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Cache of the HEAD requests used to check whether a (video) url exists and to
+ * determine its size. The status, content length, content type and the url
+ * after redirects are stored between the runs. Concurrent probes of the same
+ * url send only one request.
+ *
+ * For each url the time of the last success and failure and the number of
+ * consecutive successes and failures are kept, they determine how long a
+ * result is valid: a successful result is valid for the configured time,
+ * doubled with each further success up to a maximum, so urls online for a long
+ * time are rarely checked again. A url failing for the first time after being
+ * online is checked again at the next probe, repeated failures are kept
+ * shorter than successes. Only definitive answers (e.g. 404, 410) count as
+ * failures, transient ones (429, 5xx, timeouts) are not stored, the url is
+ * checked again at the next probe.
+ */
+public class UrlProbeCache {
+
+  private static final Logger LOG = LogManager.getLogger(UrlProbeCache.class);
+
+  private static final int FORMAT_VERSION = 2;
+  private static final int FORMAT_VERSION_1 = 1;
+  private static final String FILE_NAME = "url-probes.idx";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final String KEY_PREFIX_GET = "GET ";
+  private static final int MAX_URL_LENGTH = 8 * 1024;
+  private static final CacheControl NO_STORE = new CacheControl.Builder().noStore().build();
+  /**
+   * failed probes (e.g. 404) are kept shorter, the url could be published
+   * later.
+   */
+  private static final int NEGATIVE_TTL_DIVISOR = 8;
+  private static final int MAX_TTL_DOUBLINGS = 16;
+  /**
+   * the history of a url is kept this many times the max. validity.
+   */
+  private static final int RETENTION_FACTOR = 2;
+
+  private static UrlProbeCache instance;
+
+  private final Path file;
+  private final long ttlMillis;
+  private final long maxTtlMillis;
+  private final LongSupplier clock;
+  private final Map<String, Probe> probes = new ConcurrentHashMap<>();
+  private final Map<String, CompletableFuture<Optional<Probe>>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong requests = new AtomicLong();
+
+  UrlProbeCache(final Path aFile, final long aTtlMillis, final long aMaxTtlMillis) {
+    this(aFile, aTtlMillis, aMaxTtlMillis, System::currentTimeMillis);
+  }
+
+  UrlProbeCache(final Path aFile, final long aTtlMillis, final long aMaxTtlMillis, final LongSupplier aClock) {
+    file = aFile;
+    ttlMillis = aTtlMillis;
+    maxTtlMillis = Math.max(aTtlMillis, aMaxTtlMillis);
+    clock = aClock;
+    read();
+  }
+
+  public static synchronized UrlProbeCache getInstance() {
+    if (instance == null) {
+      instance = new UrlProbeCache(Paths.get(MserverDaten.getVerzeichnisHttpCache(), FILE_NAME),
+              TimeUnit.HOURS.toMillis(MserverDaten.getHttpProbeTtlHours()),
+              TimeUnit.HOURS.toMillis(MserverDaten.getHttpProbeMaxTtlHours()));
+    }
+    return instance;
+  }
+
+  /**
+   * checks the url with a HEAD request.
+   *
+   * @param aUrl the url
+   * @return the result, empty if the server is not reachable
+   */
+  public Optional<Probe> probe(final String aUrl) {
+    return probe(aUrl, false);
+  }
+
+  /**
+   * checks the url.
+   *
+   * @param aUrl the url
+   * @param aUseGet use a GET request instead of HEAD, e.g. for m3u8 files
+   * @return the result, empty if the server is not reachable
+   */
+  public Optional<Probe> probe(final String aUrl, final boolean aUseGet) {
+    final String key = aUseGet ? KEY_PREFIX_GET + aUrl : aUrl;
+    // abgelaufene Ergebnisse bleiben als Verlauf für die nächste Prüfung erhalten
+    final Probe cached = probes.get(key);
+    if (cached != null && !isExpired(cached, clock.getAsLong())) {
+      hits.incrementAndGet();
+      return Optional.of(cached);
+    }
+
+    final CompletableFuture<Optional<Probe>> flight = new CompletableFuture<>();
+    final CompletableFuture<Optional<Probe>> running = inFlight.putIfAbsent(key, flight);
+    if (running != null) {
+      hits.incrementAndGet();
+      return running.join();
+    }
+
+    Optional<Probe> result = Optional.empty();
+    try {
+      result = load(aUrl, aUseGet, cached);
+      // vorübergehende Fehler nicht merken, der Verlauf bleibt wie er ist
+      result.filter(probe -> !probe.isTransient()).ifPresent(probe -> probes.put(key, probe));
+      return result;
+    } finally {
+      inFlight.remove(key, flight);
+      flight.complete(result);
+    }
+  }
+
+  /**
+   * @param aUrl the url
+   * @return true if the HEAD request is successful
+   */
+  public boolean exists(final String aUrl) {
+    return probe(aUrl).map(Probe::isSuccessful).orElse(false);
+  }
+
+  /**
+   * @param aUrl the url
+   * @return the size in MB as used in the film list, empty if smaller than 1 MB
+   * or unknown
+   */
+  public String getFileSize(final String aUrl) {
+    if (!aUrl.toLowerCase().startsWith("http")) {
+      return "";
+    }
+    final long size = probe(aUrl).filter(Probe::isSuccessful).map(Probe::getContentLengthMb).orElse(-1L);
+    return size > 1 ? String.valueOf(size) : "";
+  }
+
+  /**
+   * stores the probes, e.g. at the end of a run. Probes not checked for a long
+   * time are removed.
+   */
+  public synchronized void save() {
+    final long now = clock.getAsLong();
+    probes.values().removeIf(probe -> isOutdated(probe, now));
+    LOG.info("url probes: {} requests, {} from cache, {} stored", requests.get(), hits.get(), probes.size());
+
+    final Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(probes.size());
+        for (Map.Entry<String, Probe> entry : probes.entrySet()) {
+          final Probe probe = entry.getValue();
+          out.writeUTF(entry.getKey());
+          out.writeShort(probe.statusCode);
+          out.writeLong(probe.contentLength);
+          out.writeUTF(probe.contentType);
+          // meist ohne Redirect, dann nicht nochmal speichern
+          out.writeUTF(probe.finalUrl.equals(stripPrefix(entry.getKey())) ? "" : probe.finalUrl);
+          out.writeLong(probe.checkedAt);
+          out.writeLong(probe.lastSuccess);
+          out.writeLong(probe.lastFailure);
+          out.writeShort(probe.successes);
+          out.writeShort(probe.failures);
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      Log.errorLog(912304875, e, "URL-Cache: " + file);
+    }
+    requests.set(0);
+    hits.set(0);
+  }
+
+  private Optional<Probe> load(final String aUrl, final boolean aUseGet, final Probe aPrevious) {
+    if (aUrl.length() > MAX_URL_LENGTH) {
+      return Optional.empty();
+    }
+
+    requests.incrementAndGet();
+    try {
+      // nur die Header werden gebraucht, den Body nicht puffern
+      final Request.Builder builder = new Request.Builder().url(aUrl).cacheControl(NO_STORE);
+      final Request request = aUseGet ? builder.get().build() : builder.head().build();
+      try (Response response = HttpTransport.getInstance().getReducedTimeOutClient().newCall(request).execute()) {
+        long contentLength;
+        try {
+          contentLength = Long.parseLong(response.header("Content-Length", "-1"));
+        } catch (NumberFormatException e) {
+          contentLength = -1;
+        }
+        return Optional.of(Probe.next(aPrevious, response.code(), contentLength, response.header("Content-Type", ""),
+                response.request().url().toString(), clock.getAsLong()));
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      LOG.debug("url probe failed: {}", aUrl, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @param aProbe the probe
+   * @return how long the result of the probe is valid
+   */
+  private long getTtl(final Probe aProbe) {
+    if (aProbe.isSuccessful()) {
+      final int doublings = Math.min(aProbe.successes - 1, MAX_TTL_DOUBLINGS);
+      return Math.min(maxTtlMillis, ttlMillis << Math.max(doublings, 0));
+    }
+    if (aProbe.failures == 1 && aProbe.lastSuccess > 0) {
+      // bisher online: evtl. nur ein kurzer Ausfall, gleich wieder prüfen
+      return 0;
+    }
+    return ttlMillis / NEGATIVE_TTL_DIVISOR;
+  }
+
+  private boolean isExpired(final Probe aProbe, final long aNow) {
+    return aNow - aProbe.checkedAt >= getTtl(aProbe);
+  }
+
+  private boolean isOutdated(final Probe aProbe, final long aNow) {
+    return aNow - aProbe.checkedAt > maxTtlMillis * RETENTION_FACTOR;
+  }
+
+  private static String stripPrefix(final String aKey) {
+    return aKey.startsWith(KEY_PREFIX_GET) ? aKey.substring(KEY_PREFIX_GET.length()) : aKey;
+  }
+
+  private void read() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    final long now = clock.getAsLong();
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      final int version = in.readInt();
+      if (version != FORMAT_VERSION && version != FORMAT_VERSION_1) {
+        return;
+      }
+      final int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        final String key = in.readUTF();
+        final int statusCode = in.readShort();
+        final long contentLength = in.readLong();
+        final String contentType = in.readUTF();
+        final String finalUrl = in.readUTF();
+        final long checkedAt = in.readLong();
+        final Probe probe;
+        if (version == FORMAT_VERSION_1) {
+          // ohne Verlauf: wie eine erste Prüfung
+          probe = Probe.next(null, statusCode, contentLength, contentType,
+                  finalUrl.isEmpty() ? stripPrefix(key) : finalUrl, checkedAt);
+        } else {
+          probe = new Probe(statusCode, contentLength, contentType, finalUrl.isEmpty() ? stripPrefix(key) : finalUrl,
+                  checkedAt, in.readLong(), in.readLong(), in.readShort(), in.readShort());
+        }
+        if (!isOutdated(probe, now) && !probe.isTransient()) {
+          probes.put(key, probe);
+        }
+      }
+      LOG.debug("url probes: {} read", probes.size());
+    } catch (IOException | RuntimeException e) {
+      Log.errorLog(912304876, e, "URL-Cache: " + file);
+      probes.clear();
+    }
+  }
+
+  /**
+   * the result of a probe.
+   */
+  public static class Probe {
+
+    private final int statusCode;
+    private final long contentLength;
+    private final String contentType;
+    private final String finalUrl;
+    private final long checkedAt;
+    private final long lastSuccess;
+    private final long lastFailure;
+    private final short successes;
+    private final short failures;
+
+    Probe(final int aStatusCode, final long aContentLength, final String aContentType, final String aFinalUrl,
+            final long aCheckedAt, final long aLastSuccess, final long aLastFailure, final short aSuccesses,
+            final short aFailures) {
+      statusCode = aStatusCode;
+      contentLength = aContentLength;
+      contentType = aContentType;
+      finalUrl = aFinalUrl;
+      checkedAt = aCheckedAt;
+      lastSuccess = aLastSuccess;
+      lastFailure = aLastFailure;
+      successes = aSuccesses;
+      failures = aFailures;
+    }
+
+    /**
+     * creates the result of a check continuing the history of the previous
+     * result.
+     *
+     * @param aPrevious the previous result of the url, null if there is none
+     * @return the new result
+     */
+    static Probe next(final Probe aPrevious, final int aStatusCode, final long aContentLength,
+            final String aContentType, final String aFinalUrl, final long aCheckedAt) {
+      final boolean successful = aStatusCode >= 200 && aStatusCode < 300;
+      final long lastSuccess = aPrevious == null ? 0 : aPrevious.lastSuccess;
+      final long lastFailure = aPrevious == null ? 0 : aPrevious.lastFailure;
+      final int successes = aPrevious == null ? 0 : aPrevious.successes;
+      final int failures = aPrevious == null ? 0 : aPrevious.failures;
+      if (successful) {
+        return new Probe(aStatusCode, aContentLength, aContentType, aFinalUrl, aCheckedAt,
+                aCheckedAt, lastFailure, (short) Math.min(successes + 1, Short.MAX_VALUE), (short) 0);
+      }
+      return new Probe(aStatusCode, aContentLength, aContentType, aFinalUrl, aCheckedAt,
+              lastSuccess, aCheckedAt, (short) 0, (short) Math.min(failures + 1, Short.MAX_VALUE));
+    }
+
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    public boolean isSuccessful() {
+      return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * @return true if the server could not answer now (timeout, throttled,
+     * server error), the url may be online
+     */
+    public boolean isTransient() {
+      return statusCode == 408 || statusCode == 425 || statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * @return the content length in bytes, -1 if unknown
+     */
+    public long getContentLength() {
+      return contentLength;
+    }
+
+    /**
+     * @return the content length in MB, -1 if smaller than 1 MB or unknown
+     */
+    public long getContentLengthMb() {
+      return contentLength < 1_000_000 ? -1 : contentLength / 1_000_000;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    /**
+     * @return the url after redirects
+     */
+    public String getFinalUrl() {
+      return finalUrl;
+    }
+
+    /**
+     * @return the time of the last successful check, 0 if there is none
+     */
+    public long getLastSuccess() {
+      return lastSuccess;
+    }
+
+    /**
+     * @return the time of the last failed check, 0 if there is none
+     */
+    public long getLastFailure() {
+      return lastFailure;
+    }
+
+    /**
+     * @return the number of consecutive failed checks
+     */
+    public int getFailures() {
+      return failures;
+    }
+  }
+}
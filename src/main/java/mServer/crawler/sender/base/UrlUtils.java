@@ -1,12 +1,8 @@
 package mServer.crawler.sender.base;
 
-import de.mediathekview.mlib.tool.MVHttpClient;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -94,23 +90,14 @@ public final class UrlUtils {
   }
 
   /**
-   * checks whether an url exists. uses head request to check.
+   * checks whether an url exists. uses head request to check, the result is
+   * cached by the {@link UrlProbeCache}.
    *
    * @param aUrl the url to check
    * @return true if url exists else false.
    */
   public static boolean existsUrl(@NotNull final String aUrl) {
-    boolean result = false;
-
-    Request request = new Request.Builder().head().url(aUrl).build();
-    try (Response response = MVHttpClient.getInstance().getReducedTimeOutClient().newCall(request).execute()) {
-      if (response.isSuccessful()) {
-        result = true;
-      }
-    } catch (IOException ignored) {
-    }
-
-    return result;
+    return UrlProbeCache.getInstance().exists(aUrl);
   }
 
   /**
@@ -13,9 +13,8 @@ package mServer.crawler.sender.br;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.WebTarget;
+import mServer.crawler.sender.base.HttpTransport;
 
 public class WebTargetDS {
     
@@ -26,14 +25,8 @@ public class WebTargetDS {
     }
     
     public static WebTarget getInstance(String url) {
-        if (connectionPool.containsKey(url)) {
-            return connectionPool.get(url);
-        } else {
-            Client client = ClientBuilder.newClient();
-            connectionPool.put(url, client.target(url));
-
-            return connectionPool.get(url);
-        }
+        // alle Targets nutzen den gemeinsamen Client und damit dessen Verbindungen
+        return connectionPool.computeIfAbsent(url, u -> HttpTransport.getInstance().getRestClient().target(u));
     }
 
 }
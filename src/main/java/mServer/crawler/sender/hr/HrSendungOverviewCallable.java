@@ -5,7 +5,7 @@ import de.mediathekview.mlib.Const;
 import de.mediathekview.mlib.daten.DatenFilm;
 import de.mediathekview.mlib.daten.ListeFilme;
 import de.mediathekview.mlib.tool.Log;
-import de.mediathekview.mlib.tool.MVHttpClient;
+import mServer.crawler.sender.base.HttpTransport;
 import mServer.crawler.CrawlerTool;
 import mServer.crawler.FilmeSuchen;
 import mServer.crawler.RunSender;
@@ -43,7 +43,7 @@ public class HrSendungOverviewCallable implements Callable<ListeFilme> {
         FilmeSuchen.listeSenderLaufen.inc(Const.HR, RunSender.Count.ANZAHL);
 
         Request request = new Request.Builder().url(dto.getUrl()).get().build();
-        try (Response resp = MVHttpClient.getInstance().getReducedTimeOutClient().newCall(request).execute();
+        try (Response resp = HttpTransport.getInstance().getReducedTimeOutClient().newCall(request).execute();
              ResponseBody body = resp.body()) {
           if (resp.isSuccessful() && body != null) {
             Document overviewDocument = Jsoup.parse(body.string());
@@ -81,7 +81,7 @@ public class HrSendungOverviewCallable implements Callable<ListeFilme> {
   private DatenFilm handleFilmDetails(String url) {
     FilmeSuchen.listeSenderLaufen.inc(Const.HR, RunSender.Count.ANZAHL);
     Request request = new Request.Builder().url(url).get().build();
-    try (Response resp = MVHttpClient.getInstance().getReducedTimeOutClient().newCall(request).execute();
+    try (Response resp = HttpTransport.getInstance().getReducedTimeOutClient().newCall(request).execute();
          ResponseBody body = resp.body()) {
       if (resp.isSuccessful() && body != null) {
         Document detailDocument = Jsoup.parse(body.string());
@@ -6,6 +6,7 @@ import de.mediathekview.mlib.tool.Log;
 import mServer.crawler.CrawlerTool;
 import mServer.crawler.FilmeSuchen;
 import mServer.crawler.sender.MediathekCrawler;
+import mServer.crawler.sender.base.CrawlPriority;
 import mServer.crawler.sender.base.CrawlerUrlDTO;
 import mServer.crawler.sender.base.JsoupConnection;
 import mServer.crawler.sender.kika.KikaCrawlerUrlDto.FilmType;
@@ -48,6 +49,7 @@ public class KikaCrawler extends MediathekCrawler {
 
         topicOverviewUrls.forEach(
                 show -> {
+                  show.setPriority(CrawlPriority.TOPIC);
                   if (!sendungsfolgenUrls.contains(show)) {
                     sendungsfolgenUrls.add(show);
                   }
@@ -131,6 +133,7 @@ public class KikaCrawler extends MediathekCrawler {
         new KikaSendungVerpasstTask(
             this, new ConcurrentLinkedQueue<>(daysUrls), KikaConstants.BASE_URL, jsoupConnection);
     filmUrls.addAll(forkJoinPool.invoke(dayTask));
+    filmUrls.forEach(filmUrl -> filmUrl.setPriority(CrawlPriority.DAY));
 
     return filmUrls;
   }
@@ -278,7 +278,7 @@ public class KikaSendungsfolgeVideoDetailsTask extends AbstractUrlTask<DatenFilm
           CrawlerTool.addUrlHd(film, videoUrls.get(Qualities.HD));
         }
 
-        taskResults.add(film);
+        addResult(film);
       } else {
         LOG.error("The video with the URL \"{}\" has not all needed Elements", urlDto.getUrl());
         Log.errorLog(3859753, "The video with the URL " + urlDto.getUrl() + " has not all needed Elements");
@@ -56,7 +56,9 @@ public class KikaSendungsfolgeVideoUrlTask
         final Matcher videoUrlMatcher =
             Pattern.compile(VIDEO_URL_REGEX_PATTERN).matcher(rawVideoData);
         if (videoUrlMatcher.find()) {
-          taskResults.add(new KikaCrawlerUrlDto(toKikaUrl(videoUrlMatcher.group()), aUrlDto.getFilmType()));
+          final KikaCrawlerUrlDto videoUrl = new KikaCrawlerUrlDto(toKikaUrl(videoUrlMatcher.group()), aUrlDto.getFilmType());
+          videoUrl.setPriority(aUrlDto.getPriority());
+          taskResults.add(videoUrl);
         } else {
           Log.sysLog("missing element data url");
         }
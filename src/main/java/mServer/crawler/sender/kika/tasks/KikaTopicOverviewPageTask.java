@@ -15,7 +15,6 @@ import org.jsoup.select.Elements;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class KikaTopicOverviewPageTask extends AbstractDocumentTask<KikaCrawlerUrlDto, KikaCrawlerUrlDto> {
@@ -118,9 +117,7 @@ public class KikaTopicOverviewPageTask extends AbstractDocumentTask<KikaCrawlerU
     final ConcurrentLinkedQueue<KikaCrawlerUrlDto> nextPageLinks = new ConcurrentLinkedQueue<>(nextPageUrls);
     final AbstractRecursivConverterTask<KikaCrawlerUrlDto, KikaCrawlerUrlDto> subPageCrawler =
         createNewOwnInstance(nextPageLinks, pageNumber + 1);
-    subPageCrawler.fork();
-    final Set<KikaCrawlerUrlDto> join = subPageCrawler.join();
-    taskResults.addAll(join);
+    taskResults.addAll(runSubTask(subPageCrawler));
   }
 
   private void parseFilmUrls(final Document aDocument, FilmType filmType) {
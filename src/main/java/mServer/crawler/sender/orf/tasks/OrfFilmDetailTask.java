@@ -75,7 +75,7 @@ public class OrfFilmDetailTask extends OrfTaskBase<DatenFilm, TopicUrlDTO> {
       }
     }
 
-    ORF_LOGGER.trace(String.format("%s - %s: Anzahl Filme: %d", aUrlDTO.getTopic(), aUrlDTO.getUrl(), taskResults.size()));
+    ORF_LOGGER.trace(String.format("%s - %s: Anzahl Filme: %d", aUrlDTO.getTopic(), aUrlDTO.getUrl(), episodes.size()));
   }
 
   @Override
@@ -115,7 +115,7 @@ public class OrfFilmDetailTask extends OrfTaskBase<DatenFilm, TopicUrlDTO> {
 
         addUrls(film, aVideoInfo.getVideoUrls());
 
-        taskResults.add(film);
+        addResult(film);
       } else {
         Log.sysLog("OrfFilmDetailTask: no title or video found for url " + aUrlDTO.getUrl());
       }
@@ -140,8 +140,8 @@ public class OrfFilmDetailTask extends OrfTaskBase<DatenFilm, TopicUrlDTO> {
 
     if (json.isPresent()) {
 
-      final Gson gson = new GsonBuilder().registerTypeAdapter(LIST_EPISODEINFO_TYPE_TOKEN,
-              new OrfPlaylistDeserializer()).create();
+      final Gson gson = crawler.getGson(getClass(), () -> new GsonBuilder().registerTypeAdapter(LIST_EPISODEINFO_TYPE_TOKEN,
+              new OrfPlaylistDeserializer()).create());
 
       return gson.fromJson(json.get(), LIST_EPISODEINFO_TYPE_TOKEN);
     }
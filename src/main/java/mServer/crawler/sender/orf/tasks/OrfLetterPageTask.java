@@ -4,11 +4,11 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import mServer.crawler.sender.base.JsoupConnection;
 import mServer.crawler.sender.orf.OrfConstants;
 import mServer.crawler.sender.orf.TopicUrlDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 
@@ -23,13 +23,14 @@ public class OrfLetterPageTask implements Callable<ConcurrentLinkedQueue<TopicUr
     final ConcurrentLinkedQueue<TopicUrlDTO> results = new ConcurrentLinkedQueue<>();
 
     // URLs für Seiten parsen
-    final Document document = Jsoup.connect(OrfConstants.URL_SHOW_LETTER_PAGE_A).get();
+    final JsoupConnection jsoupConnection = new JsoupConnection();
+    final Document document = jsoupConnection.getDocument(OrfConstants.URL_SHOW_LETTER_PAGE_A);
     List<String> overviewLinks = OrfHelper.parseLetterLinks(document);
 
     // Sendungen für die einzelnen Seiten pro Buchstabe ermitteln
     overviewLinks.forEach(url -> {
       try {
-        Document subpageDocument = Jsoup.connect(url).get();
+        Document subpageDocument = jsoupConnection.getDocument(url);
         results.addAll(parseOverviewPage(subpageDocument));
       } catch (IOException ex) {
         LOG.fatal("OrfLetterPageTask: error parsing url " + url, ex);
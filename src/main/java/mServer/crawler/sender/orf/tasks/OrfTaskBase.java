@@ -11,12 +11,12 @@ import mServer.crawler.FilmeSuchen;
 import mServer.crawler.RunSender;
 import mServer.crawler.sender.MediathekReader;
 import mServer.crawler.sender.base.AbstractUrlTask;
+import mServer.crawler.sender.base.CancellationToken;
 import mServer.crawler.sender.base.CrawlerUrlDTO;
+import mServer.crawler.sender.base.JsoupConnection;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jsoup.HttpStatusException;
-import org.jsoup.Jsoup;
-import org.jsoup.Connection.Response;
 import org.jsoup.nodes.Document;
 
 public abstract class OrfTaskBase<T, D extends CrawlerUrlDTO>
@@ -74,7 +74,8 @@ public abstract class OrfTaskBase<T, D extends CrawlerUrlDTO>
         retry = true;
         timeout *= 2;
         try {
-          Thread.sleep(5000);
+          // bei Abbruch nicht nochmal versuchen
+          retry = !CancellationToken.getRunToken().sleep(5, TimeUnit.SECONDS);
         } catch (InterruptedException ignored) {
           // just try again
         }
@@ -89,21 +90,13 @@ public abstract class OrfTaskBase<T, D extends CrawlerUrlDTO>
 
   private Document loadDocument(final D aUrlDTO, int timeout) throws IOException {
     long start = System.currentTimeMillis();
-    // maxBodySize(0)=unlimited
-    // necessary for ORF documents which are larger than the default size
-    Response response = Jsoup.connect(aUrlDTO.getUrl())
-            .timeout(timeout)
-            .maxBodySize(0).execute();
-
-    long end = System.currentTimeMillis();
-
-    ORF_LOGGER.trace(String.format("%s: %d - loaded in %d ms", aUrlDTO.getUrl(), response.statusCode(), end - start));
+    // the body size is unlimited
+    // necessary for ORF documents which are larger than the jsoup default size
+    final Document document = new JsoupConnection().getDocumentTimeoutAfter(aUrlDTO.getUrl(), timeout);
     traceRequest();
 
-    final Document document = response.parse();
-
-    end = System.currentTimeMillis();
-    ORF_LOGGER.trace(String.format("%s: %d - parsed in %d ms", aUrlDTO.getUrl(), response.statusCode(), end - start));
+    long end = System.currentTimeMillis();
+    ORF_LOGGER.trace(String.format("%s - loaded and parsed in %d ms", aUrlDTO.getUrl(), end - start));
 
     return document;
   }
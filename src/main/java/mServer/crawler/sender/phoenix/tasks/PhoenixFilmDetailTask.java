@@ -64,7 +64,7 @@ public class PhoenixFilmDetailTask extends ZdfTaskBase<DatenFilm, CrawlerUrlDTO>
               if (filmDetailDto.getWebsite().isPresent()) {
                 film.arr[DatenFilm.FILM_WEBSEITE] = filmDetailDto.getWebsite().get();
               }
-              this.taskResults.add(film);
+              addResult(film);
             });
   }
 }
@@ -26,12 +26,13 @@ import mServer.crawler.CrawlerTool;
 import mServer.crawler.sender.MediathekReader;
 import mServer.crawler.sender.ard.json.ArdVideoInfoDto;
 import mServer.crawler.sender.ard.json.ArdVideoInfoJsonDeserializer;
+import mServer.crawler.sender.base.AbstractDocumentTask;
 import mServer.crawler.sender.base.AbstractUrlTask;
 import mServer.crawler.sender.base.DateUtils;
 import mServer.crawler.sender.base.Qualities;
 import mServer.crawler.sender.base.HtmlDocumentUtils;
 
-public class SrFilmDetailTask extends SrRateLimitedDocumentTask<DatenFilm, SrTopicUrlDTO> {
+public class SrFilmDetailTask extends AbstractDocumentTask<DatenFilm, SrTopicUrlDTO> {
 
   private static final org.apache.logging.log4j.Logger LOG
           = LogManager.getLogger(SrFilmDetailTask.class);
@@ -162,7 +163,7 @@ public class SrFilmDetailTask extends SrRateLimitedDocumentTask<DatenFilm, SrTop
           CrawlerTool.addUrlSubtitle(film, videoInfo.getSubtitleUrl());
         }
 
-        taskResults.add(film);
+        addResult(film);
       }
     } else {
       LOG.error("SrFilmDetailTask: no title or video found for url " + aUrlDTO.getUrl());
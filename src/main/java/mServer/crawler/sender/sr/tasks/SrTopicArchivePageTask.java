@@ -10,10 +10,11 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import mServer.crawler.CrawlerTool;
 import mServer.crawler.sender.MediathekReader;
+import mServer.crawler.sender.base.AbstractDocumentTask;
 import mServer.crawler.sender.base.AbstractUrlTask;
 import org.jsoup.nodes.Element;
 
-public class SrTopicArchivePageTask extends SrRateLimitedDocumentTask<SrTopicUrlDTO, SrTopicUrlDTO> {
+public class SrTopicArchivePageTask extends AbstractDocumentTask<SrTopicUrlDTO, SrTopicUrlDTO> {
 
   private static final String ATTRIBUTE_HREF = "href";
 
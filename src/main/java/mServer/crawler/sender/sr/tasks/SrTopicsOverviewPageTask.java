@@ -4,7 +4,6 @@ import mServer.crawler.sender.sr.SrConstants;
 import mServer.crawler.sender.sr.SrTopicUrlDTO;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
 
@@ -15,6 +14,7 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import mServer.crawler.sender.base.JsoupConnection;
 import mServer.crawler.sender.base.UrlUtils;
 import mServer.crawler.sender.base.UrlParseException;
 
@@ -42,12 +42,11 @@ public class SrTopicsOverviewPageTask implements Callable<ConcurrentLinkedQueue<
     final ConcurrentLinkedQueue<SrTopicUrlDTO> results = new ConcurrentLinkedQueue<>();
 
     // URLs für Seiten parsen
+    final JsoupConnection jsoupConnection = new JsoupConnection();
     final Document document
-            = Jsoup.connect(SrConstants.URL_OVERVIEW_PAGE)
-                    .timeout(
-                            (int) TimeUnit.SECONDS.toMillis(
-                                    TIMEOUT_IN_SECONDS))
-                    .get();
+            = jsoupConnection.getDocumentTimeoutAfter(SrConstants.URL_OVERVIEW_PAGE,
+                    (int) TimeUnit.SECONDS.toMillis(
+                            TIMEOUT_IN_SECONDS));
     final List<String> overviewLinks = parseOverviewLinks(document);
 
     // Sendungen für erste Seite ermitteln
@@ -58,11 +57,9 @@ public class SrTopicsOverviewPageTask implements Callable<ConcurrentLinkedQueue<
             url -> {
               try {
                 final Document subpageDocument
-                = Jsoup.connect(url)
-                        .timeout(
-                                (int) TimeUnit.SECONDS.toMillis(
-                                        TIMEOUT_IN_SECONDS))
-                        .get();
+                = jsoupConnection.getDocumentTimeoutAfter(url,
+                        (int) TimeUnit.SECONDS.toMillis(
+                                TIMEOUT_IN_SECONDS));
                 results.addAll(parseOverviewPage(subpageDocument));
               } catch (final IOException ex) {
                 LOG.fatal("SrTopicsOverviewPageTask: error parsing url " + url, ex);
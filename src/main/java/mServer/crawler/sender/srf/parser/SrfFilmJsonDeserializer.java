@@ -7,7 +7,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import de.mediathekview.mlib.Const;
 import de.mediathekview.mlib.daten.DatenFilm;
-import de.mediathekview.mlib.tool.MVHttpClient;
+import mServer.crawler.sender.base.HttpTransport;
 import mServer.crawler.sender.srf.SrfConstants;
 import java.lang.reflect.Type;
 import java.time.Duration;
@@ -304,7 +304,7 @@ public class SrfFilmJsonDeserializer implements JsonDeserializer<Optional<DatenF
     Request request = new Request.Builder()
             .url(aM3U8Url).build();
 
-    try (Response response = MVHttpClient.getInstance().getHttpClient().newCall(request).execute();
+    try (Response response = HttpTransport.getInstance().getHttpClient().newCall(request).execute();
             ResponseBody body = response.body()) {
       if (response.isSuccessful() && body != null) {
         return Optional.of(body.string());
@@ -5,9 +5,12 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 import de.mediathekview.mlib.daten.DatenFilm;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import mServer.crawler.sender.srf.parser.SrfFilmJsonDeserializer;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import jakarta.ws.rs.client.Invocation;
@@ -23,6 +26,8 @@ import org.apache.logging.log4j.Logger;
 public class SrfFilmDetailTask extends AbstractRestTask<DatenFilm, CrawlerUrlDTO> {
 
   private static final Logger LOG = LogManager.getLogger(SrfFilmDetailTask.class);
+  private static final Type OPTIONAL_FILM_TYPE = new TypeToken<Optional<DatenFilm>>() {
+  }.getType();
 
   public SrfFilmDetailTask(MediathekReader aCrawler, ConcurrentLinkedQueue<CrawlerUrlDTO> aURLsToCrawl) {
     super(aCrawler, aURLsToCrawl, Optional.empty());
@@ -33,17 +38,21 @@ public class SrfFilmDetailTask extends AbstractRestTask<DatenFilm, CrawlerUrlDTO
     Invocation.Builder request = aTarget.request();
     final Response response = request.header(HEADER_ACCEPT_ENCODING, ENCODING_GZIP).get();
 
-    switch (response.getStatus()) {
-      case 200:
-      case 203:
-        parseFilm(response, aTarget.getUri());
-        break;
-      case 403:
-        // Geo-Blocking für Crawler-Standort
-        LOG.error("SrfFilmDetailTask: Not authorized to access url " + aTarget.getUri().toString());
-        break;
-      default:
-        LOG.error("SrfFilmDetailTask: Error reading url " + aTarget.getUri().toString() + ": " + response.getStatus());
+    try {
+      switch (response.getStatus()) {
+        case 200:
+        case 203:
+          parseFilm(response, aTarget.getUri());
+          break;
+        case 403:
+          // Geo-Blocking für Crawler-Standort
+          LOG.error("SrfFilmDetailTask: Not authorized to access url " + aTarget.getUri().toString());
+          break;
+        default:
+          LOG.error("SrfFilmDetailTask: Error reading url " + aTarget.getUri().toString() + ": " + response.getStatus());
+      }
+    } finally {
+      response.close();
     }
   }
 
@@ -53,16 +62,14 @@ public class SrfFilmDetailTask extends AbstractRestTask<DatenFilm, CrawlerUrlDTO
   }
 
   private void parseFilm(Response response, URI uri) {
-    final String jsonOutput = response.readEntity(String.class);
-
     try {
-      Type type = new TypeToken<Optional<DatenFilm>>() {
-      }.getType();
-      final Gson gson = new GsonBuilder().registerTypeAdapter(type, new SrfFilmJsonDeserializer()).create();
+      final Gson gson = crawler.getGson(getClass(),
+              () -> new GsonBuilder().registerTypeAdapter(OPTIONAL_FILM_TYPE, new SrfFilmJsonDeserializer()).create());
 
-      Optional<DatenFilm> film = gson.fromJson(jsonOutput, type);
+      Optional<DatenFilm> film = gson.fromJson(
+              new InputStreamReader(response.readEntity(InputStream.class), StandardCharsets.UTF_8), OPTIONAL_FILM_TYPE);
       if (film.isPresent()) {
-        taskResults.add(film.get());
+        addResult(film.get());
       }
     } catch (JsonSyntaxException e) {
       LOG.error("SrfFilmDetailTask: Error reading url " + uri.toString(), e);
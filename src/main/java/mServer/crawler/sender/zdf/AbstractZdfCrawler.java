@@ -5,6 +5,7 @@ import de.mediathekview.mlib.tool.Log;
 import mServer.crawler.CrawlerTool;
 import mServer.crawler.FilmeSuchen;
 import mServer.crawler.sender.MediathekCrawler;
+import mServer.crawler.sender.base.CrawlPriority;
 import mServer.crawler.sender.base.CrawlerUrlDTO;
 import mServer.crawler.sender.base.JsoupConnection;
 import mServer.crawler.sender.zdf.tasks.ZdfDayPageTask;
@@ -27,6 +28,9 @@ public abstract class AbstractZdfCrawler extends MediathekCrawler {
 
   private static final Logger LOG = LogManager.getLogger(AbstractZdfCrawler.class);
 
+  private static final int FRESH_DAYS_PAST = 1;
+  private static final int DAY_DAYS_PAST = 7;
+
   JsoupConnection jsoupConnection = new JsoupConnection();
 
   public AbstractZdfCrawler(String sender, FilmeSuchen ssearch, int startPrio) {
@@ -101,11 +105,20 @@ public abstract class AbstractZdfCrawler extends MediathekCrawler {
         .minus(i, ChronoUnit.DAYS);
       final String date = local.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
       final String url = String.format(getUrlDay(), date, date);
-      urls.add(new CrawlerUrlDTO(url));
+      final CrawlerUrlDTO dayUrl = new CrawlerUrlDTO(url);
+      dayUrl.setPriority(getDayPriority(i - daysFuture));
+      urls.add(dayUrl);
     }
 
     return urls;
   }
 
+  private static CrawlPriority getDayPriority(final int aDaysPast) {
+    if (aDaysPast >= 0 && aDaysPast <= FRESH_DAYS_PAST) {
+      return CrawlPriority.FRESH;
+    }
+    return aDaysPast <= DAY_DAYS_PAST ? CrawlPriority.DAY : CrawlPriority.ARCHIVE;
+  }
+
   protected abstract String getUrlDay();
 }
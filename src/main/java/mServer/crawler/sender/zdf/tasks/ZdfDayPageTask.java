@@ -5,6 +5,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import jakarta.ws.rs.client.WebTarget;
 import mServer.crawler.sender.MediathekReader;
 import mServer.crawler.sender.base.AbstractRecursivConverterTask;
+import mServer.crawler.sender.base.CrawlPriority;
 import mServer.crawler.sender.base.CrawlerUrlDTO;
 import mServer.crawler.sender.zdf.json.ZdfDayPageDeserializer;
 import mServer.crawler.sender.zdf.json.ZdfDayPageDto;
@@ -27,8 +28,10 @@ public class ZdfDayPageTask extends ZdfTaskBase<CrawlerUrlDTO, CrawlerUrlDTO> {
   protected void processRestTarget(final CrawlerUrlDTO aDto, final WebTarget aTarget) {
     final ZdfDayPageDto dto = deserialize(aTarget, ZdfDayPageDto.class);
     if (dto != null) {
+      // die Sendungen haben die Priorität des Tages
+      dto.getEntries().forEach(entry -> entry.setPriority(aDto.getPriority()));
       taskResults.addAll(dto.getEntries());
-      processNextPage(dto);
+      processNextPage(dto, aDto.getPriority());
     }
   }
 
@@ -38,10 +41,12 @@ public class ZdfDayPageTask extends ZdfTaskBase<CrawlerUrlDTO, CrawlerUrlDTO> {
     return new ZdfDayPageTask(crawler, apiUrlBase, aElementsToProcess, authKey);
   }
 
-  private void processNextPage(final ZdfDayPageDto entries) {
+  private void processNextPage(final ZdfDayPageDto entries, final CrawlPriority aPriority) {
     if (entries.getNextPageUrl().isPresent() && !entries.getEntries().isEmpty()) {
       final ConcurrentLinkedQueue<CrawlerUrlDTO> urls = new ConcurrentLinkedQueue<>();
-      urls.add(new CrawlerUrlDTO(entries.getNextPageUrl().get()));
+      final CrawlerUrlDTO nextPage = new CrawlerUrlDTO(entries.getNextPageUrl().get());
+      nextPage.setPriority(aPriority);
+      urls.add(nextPage);
       taskResults.addAll(createNewOwnInstance(urls).invoke());
     }
   }
@@ -5,6 +5,7 @@ import de.mediathekview.mlib.Config;
 import de.mediathekview.mlib.daten.DatenFilm;
 import de.mediathekview.mlib.tool.Log;
 import mServer.crawler.CrawlerTool;
+import mServer.crawler.IncrementalIndex;
 import mServer.crawler.sender.MediathekReader;
 import mServer.crawler.sender.base.AbstractRecursivConverterTask;
 import mServer.crawler.sender.base.CrawlerUrlDTO;
@@ -26,6 +27,8 @@ import java.lang.reflect.Type;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -67,6 +70,11 @@ public class ZdfFilmDetailTask extends ZdfTaskBase<DatenFilm, CrawlerUrlDTO> {
       return;
     }
 
+    if (IncrementalIndex.getInstance().reuseFilms(crawler.getSendername(), aDto.getUrl(),
+      ZdfFilmDetailTask::newFilmForCopy, this::addResult)) {
+      return;
+    }
+
     try {
       final Optional<ZdfFilmDto> film = deserializeOptional(aTarget, OPTIONAL_FILM_TYPE_TOKEN);
       if (film.isPresent()) {
@@ -76,7 +84,8 @@ public class ZdfFilmDetailTask extends ZdfTaskBase<DatenFilm, CrawlerUrlDTO> {
 
         if (downloadDto.isPresent()) {
           final ZdfFilmDto result = film.get();
-          addFilm(downloadDto.get(), result);
+          IncrementalIndex.getInstance().recordFilms(crawler.getSendername(), aDto.getUrl(),
+            addFilm(downloadDto.get(), result));
         }
       }
     } catch (Exception e) {
@@ -91,7 +100,8 @@ public class ZdfFilmDetailTask extends ZdfTaskBase<DatenFilm, CrawlerUrlDTO> {
     return new ZdfFilmDetailTask(crawler, apiUrlBase, aElementsToProcess, authKey);
   }
 
-  private void addFilm(final DownloadDto downloadDto, final ZdfFilmDto result) {
+  private List<DatenFilm> addFilm(final DownloadDto downloadDto, final ZdfFilmDto result) {
+    final List<DatenFilm> films = new ArrayList<>();
     for (final String language : downloadDto.getLanguages()) {
 
       if (downloadDto.getUrl(language, Qualities.NORMAL).isPresent()) {
@@ -99,11 +109,21 @@ public class ZdfFilmDetailTask extends ZdfTaskBase<DatenFilm, CrawlerUrlDTO> {
           downloadDto.getDownloadUrls(language), Optional.of(optimizer));
 
         final DatenFilm filmWithLanguage = createFilm(result, downloadDto, language);
-        taskResults.add(filmWithLanguage);
+        addResult(filmWithLanguage);
+        films.add(filmWithLanguage);
       } else {
         Log.sysLog("no video present for film " + result.getTitle());
       }
     }
+    return films;
+  }
+
+  private static DatenFilm newFilmForCopy(final DatenFilm aOldFilm) {
+    // ZdfDatenFilm wegen des Index ohne Load-Balancing-Host
+    return new ZdfDatenFilm(aOldFilm.arr[DatenFilm.FILM_SENDER], aOldFilm.arr[DatenFilm.FILM_THEMA],
+      aOldFilm.arr[DatenFilm.FILM_WEBSEITE], aOldFilm.arr[DatenFilm.FILM_TITEL], aOldFilm.arr[DatenFilm.FILM_URL],
+      aOldFilm.arr[DatenFilm.FILM_URL_RTMP], aOldFilm.arr[DatenFilm.FILM_DATUM], aOldFilm.arr[DatenFilm.FILM_ZEIT],
+      0, aOldFilm.arr[DatenFilm.FILM_BESCHREIBUNG]);
   }
 
   private static String updateTitle(final String aLanguage, final String aTitle) {
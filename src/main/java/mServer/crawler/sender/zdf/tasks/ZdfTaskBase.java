@@ -1,6 +1,5 @@
 package mServer.crawler.sender.zdf.tasks;
 
-import com.google.common.util.concurrent.RateLimiter;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import de.mediathekview.mlib.tool.Log;
@@ -16,7 +15,10 @@ import mServer.crawler.sender.zdf.ZdfConstants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -24,8 +26,6 @@ public abstract class ZdfTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRe
 
   private static final Logger LOG = LogManager.getLogger(ZdfTaskBase.class);
 
-  private static final RateLimiter LIMITER = RateLimiter.create(10);
-
   private final transient GsonBuilder gsonBuilder;
 
   public ZdfTaskBase(
@@ -40,22 +40,29 @@ public abstract class ZdfTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRe
     gsonBuilder.registerTypeAdapter(aType, aDeserializer);
   }
 
+  private Gson getGson() {
+    return crawler.getGson(getClass(), gsonBuilder::create);
+  }
+
   protected <T> Optional<T> deserializeOptional(final WebTarget aTarget, final Type aType) {
 
-    final Gson gson = gsonBuilder.create();
+    final Gson gson = getGson();
     final Response response = executeRequest(aTarget);
-    traceRequest(response.getLength());
-    if (response.getStatus() == 200) {
-      final String jsonOutput = response.readEntity(String.class);
-      return gson.fromJson(jsonOutput, aType);
-    } else {
-      FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLER);
-      FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLVERSUCHE);
-      LOG.error(
-              "ZdfTaskBase: request of url {} failed: {}",
-              aTarget.getUri(),
-              response.getStatus());
-      Log.sysLog(response.getStatus() + " - " + aTarget.getUri().toString());
+    try {
+      traceRequest(response.getLength());
+      if (response.getStatus() == 200) {
+        return gson.fromJson(new InputStreamReader(response.readEntity(InputStream.class), StandardCharsets.UTF_8), aType);
+      } else {
+        FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLER);
+        FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLVERSUCHE);
+        LOG.error(
+                "ZdfTaskBase: request of url {} failed: {}",
+                aTarget.getUri(),
+                response.getStatus());
+        Log.sysLog(response.getStatus() + " - " + aTarget.getUri().toString());
+      }
+    } finally {
+      response.close();
     }
 
     return Optional.empty();
@@ -63,20 +70,23 @@ public abstract class ZdfTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRe
 
   protected <T> T deserialize(final WebTarget aTarget, final Type aType) {
 
-    final Gson gson = gsonBuilder.create();
+    final Gson gson = getGson();
     final Response response = executeRequest(aTarget);
-    traceRequest(response.getLength());
-    if (response.getStatus() == 200) {
-      final String jsonOutput = response.readEntity(String.class);
-      return gson.fromJson(jsonOutput, aType);
-    } else {
-      FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLER);
-      FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLVERSUCHE);
-      LOG.error(
-              "ZdfTaskBase: request of url {} failed: {}",
-              aTarget.getUri(),
-              response.getStatus());
-      Log.sysLog(response.getStatus() + " - " + aTarget.getUri().toString());
+    try {
+      traceRequest(response.getLength());
+      if (response.getStatus() == 200) {
+        return gson.fromJson(new InputStreamReader(response.readEntity(InputStream.class), StandardCharsets.UTF_8), aType);
+      } else {
+        FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLER);
+        FilmeSuchen.listeSenderLaufen.inc(crawler.getSendername(), RunSender.Count.FEHLVERSUCHE);
+        LOG.error(
+                "ZdfTaskBase: request of url {} failed: {}",
+                aTarget.getUri(),
+                response.getStatus());
+        Log.sysLog(response.getStatus() + " - " + aTarget.getUri().toString());
+      }
+    } finally {
+      response.close();
     }
 
     return null;
@@ -90,7 +100,6 @@ public abstract class ZdfTaskBase<T, D extends CrawlerUrlDTO> extends AbstractRe
                       ZdfConstants.HEADER_AUTHENTIFICATION, AUTHORIZATION_BEARER + authKey.get());
     }
 
-    LIMITER.acquire();
     return request.header(HEADER_ACCEPT_ENCODING, ENCODING_GZIP).get();
   }
 }
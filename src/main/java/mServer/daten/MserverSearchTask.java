@@ -33,11 +33,12 @@ public class MserverSearchTask {
     public static final String SUCHEN_UPDATE = "kurz";
     public static final String SUCHEN_LONG = "lang";
     public static final String SUCHEN_MAX = "max";
+    public static final String SUCHEN_INCREMENTAL = "inkrementell";
 
     public static final String SUCHEN_NEU = "neu";
     public static final String SUCHEN_WANN_SOFORT = "sofort";
     //
-    public static final String SUCHEN_SENDER_WIE = "suchen-sender-wie"; // "short", "long", "max" - wenn leer dann nur "short"
+    public static final String SUCHEN_SENDER_WIE = "suchen-sender-wie"; // "short", "long", "max", "inkrementell" - wenn leer dann nur "short"
     public static final int SUCHEN_SENDER_WIE_NR = 0;
     public static final String SUCHEN_LISTE_WIE = "suchen-liste-wie"; // "neu" - dann neue Liste erstellen, sonst update
     public static final int SUCHEN_LISTE_WIE_NR = 1;
@@ -137,6 +138,9 @@ public class MserverSearchTask {
             case SUCHEN_MAX:
                 ret = CrawlerConfig.LOAD_MAX;
                 break;
+            case SUCHEN_INCREMENTAL:
+                ret = CrawlerConfig.LOAD_INCREMENTAL;
+                break;
             default:
                 ret = CrawlerConfig.LOAD_SHORT;
         }
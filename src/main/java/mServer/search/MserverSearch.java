@@ -31,6 +31,7 @@ import de.mediathekview.mlib.Config;
 import de.mediathekview.mlib.tool.Log;
 import mServer.crawler.Crawler;
 import mServer.crawler.CrawlerConfig;
+import mServer.crawler.sender.base.CrawlDeadline;
 import mServer.daten.MserverSearchTask;
 import mServer.tool.MserverDaten;
 import mServer.tool.MserverDatumZeit;
@@ -83,14 +84,17 @@ public class MserverSearch {
 
             Log.setLogfile(MserverDaten.getLogDatei(MserverKonstanten.LOG_FILE_NAME_MSEARCH));
 
+            //int warten = aktSearchTask.allesLaden() == true ? MvSKonstanten.WARTEZEIT_ALLES_LADEN : MvSKonstanten.WARTEZEIT_UPDATE_LADEN;
+            int warten = aktSearchTask.getWaitTime()/*Minuten*/;
+            // die Crawler kennen das Ende der Laufzeit und lassen vorher unwichtige Seiten aus
+            CrawlDeadline.start(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(warten));
+
             Thread t = new Thread(crawler);
             t.setName("Crawler");
             t.start();
             MserverLog.systemMeldung("Filme suchen gestartet");
             // ===========================================
             // warten auf das Ende
-            //int warten = aktSearchTask.allesLaden() == true ? MvSKonstanten.WARTEZEIT_ALLES_LADEN : MvSKonstanten.WARTEZEIT_UPDATE_LADEN;
-            int warten = aktSearchTask.getWaitTime()/*Minuten*/;
             MserverLog.systemMeldung("Max Laufzeit[Min]: " + warten);
             MserverLog.systemMeldung("-----------------------------------");
 
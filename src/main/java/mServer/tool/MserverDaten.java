@@ -77,6 +77,88 @@ public class MserverDaten {
     }
   }
 
+  public static int getFilmSinkThreads() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_FILM_SINK_THREADS_NR, 4, "Film-Sink Threads falsch: ", 963487220);
+  }
+
+  public static int getFilmSinkCapacity() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_FILM_SINK_CAPACITY_NR, 1000, "Film-Sink Kapazität falsch: ", 963487221);
+  }
+
+  public static int getHttpMaxRequestsPerHost() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_HTTP_MAX_REQUESTS_PER_HOST_NR, 32, "Max. Requests je Host falsch: ", 963487222);
+  }
+
+  public static String getHttpRateLimits() {
+    String value = system[MserverKonstanten.SYSTEM_HTTP_RATE_LIMITS_NR];
+    return value == null ? "" : value.trim();
+  }
+
+  public static String getHttpCacheHosts() {
+    String value = system[MserverKonstanten.SYSTEM_HTTP_CACHE_HOSTS_NR];
+    return value == null ? "" : value.trim();
+  }
+
+  public static int getHttpCacheMaxMb() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_HTTP_CACHE_MAX_MB_NR, 512, "HTTP-Cache Größe falsch: ", 963487223);
+  }
+
+  public static int getHttpCacheMaxAgeDays() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_HTTP_CACHE_MAX_AGE_DAYS_NR, 14, "HTTP-Cache Alter falsch: ", 963487224);
+  }
+
+  public static int getHttpProbeTtlHours() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_HTTP_PROBE_TTL_HOURS_NR, 48, "HEAD-Cache Dauer falsch: ", 963487225);
+  }
+
+  public static int getHttpProbeMaxTtlHours() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_HTTP_PROBE_MAX_TTL_HOURS_NR, 14 * 24, "HEAD-Cache max. Dauer falsch: ", 963487231);
+  }
+
+  public static int getCrawlerIoThreads() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_CRAWLER_IO_THREADS_NR, Runtime.getRuntime().availableProcessors() * 4,
+            "Crawler Threads falsch: ", 963487226);
+  }
+
+  public static int getCrawlerSenderMaxRequests() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_CRAWLER_SENDER_MAX_REQUESTS_NR, 16, "Max. Requests je Sender falsch: ", 963487227);
+  }
+
+  public static String getCrawlerBudgetShares() {
+    String value = system[MserverKonstanten.SYSTEM_CRAWLER_BUDGET_SHARES_NR];
+    return value == null ? "" : value.trim();
+  }
+
+  public static int getCrawlerMaxSenders() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_CRAWLER_MAX_SENDERS_NR, 8, "Max. Anzahl laufender Sender falsch: ", 963487228);
+  }
+
+  public static int getXzBlockSizeMb() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_XZ_BLOCK_SIZE_MB_NR, 16, "xz Blockgröße falsch: ", 963487229);
+  }
+
+  public static int getXzThreads() {
+    return getPositiveIntValue(MserverKonstanten.SYSTEM_XZ_THREADS_NR, Math.min(4, Runtime.getRuntime().availableProcessors()),
+            "xz Threads falsch: ", 963487230);
+  }
+
+  private static int getPositiveIntValue(int nr, int defaultValue, String errorText, int errorNr) {
+    String value = system[nr];
+    if (value == null || value.trim().isEmpty()) {
+      return defaultValue;
+    }
+
+    try {
+      int intValue = Integer.parseInt(value.trim());
+      if (intValue > 0) {
+        return intValue;
+      }
+    } catch (NumberFormatException ignored) {
+    }
+    MserverLog.fehlerMeldung(errorNr, MserverDaten.class.getName(), new String[]{errorText, value});
+    return defaultValue;
+  }
+
   public static void setBasisVerzeichnis(String b) {
     if (b.isEmpty()) {
       basisverzeichnis = getBasisVerzeichnis(b, true);
@@ -144,6 +226,17 @@ public class MserverDaten {
 
   }
 
+  public static String getVerzeichnisHttpCache() {
+    String ret = Functions.addsPfad(getBasisVerzeichnis(basisverzeichnis, false), MserverKonstanten.VERZEICHNISS_HTTP_CACHE);
+    File basisF = new File(ret);
+    if (!basisF.exists()) {
+      if (!basisF.mkdirs()) {
+        MserverLog.fehlerMeldung(739851050, MserverDaten.class.getName(), new String[]{"Kann den Ordner für den HTTP-Cache nicht anlegen!", ret});
+      }
+    }
+    return ret;
+  }
+
   public static String getLogDatei(String name) {
     String logPfad = "", logFileName;
 
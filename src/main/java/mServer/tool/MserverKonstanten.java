@@ -29,6 +29,7 @@ public class MserverKonstanten {
 
   public static final String VERZEICHNISS_EINSTELLUNGEN = ".mserver";
   public static final String VERZEICHNISS_FILMLISTEN = "filmlisten";
+  public static final String VERZEICHNISS_HTTP_CACHE = "http-cache";
   public static final String XML_DATEI = "mserver.xml";
   public static final String XML_DATEI_UPLOAD = "upload.xml";
   public static final String LOG_FILE_NAME = "MvServer";
@@ -87,12 +88,47 @@ public class MserverKonstanten {
   public static final int SYSTEM_RESTART_AFTER_RUN_NR = 14;
   public static final String SYSTEM_SR_RATELIMIT_RUN = "sr-rate-limit";
   public static final int SYSTEM_SR_RATELIMIT_NR = 15;
+  public static final String SYSTEM_FILM_SINK_THREADS = "film-sink-threads"; // Anzahl Tasks je Sender, die die gefundenen Filme einsortieren
+  public static final int SYSTEM_FILM_SINK_THREADS_NR = 16;
+  public static final String SYSTEM_FILM_SINK_CAPACITY = "film-sink-capacity"; // max. Anzahl Filme, die auf das Einsortieren warten
+  public static final int SYSTEM_FILM_SINK_CAPACITY_NR = 17;
+  public static final String SYSTEM_HTTP_MAX_REQUESTS_PER_HOST = "http-max-requests-per-host"; // max. Anzahl gleichzeitiger Requests je Host
+  public static final int SYSTEM_HTTP_MAX_REQUESTS_PER_HOST_NR = 18;
+  public static final String SYSTEM_HTTP_RATE_LIMITS = "http-rate-limits"; // Requests pro Sekunde je Host: host=rate[:min:max], ...
+  public static final int SYSTEM_HTTP_RATE_LIMITS_NR = 19;
+  public static final String SYSTEM_HTTP_CACHE_HOSTS = "http-cache-hosts"; // Hosts, deren Seiten mit ETag/Last-Modified gecacht werden
+  public static final int SYSTEM_HTTP_CACHE_HOSTS_NR = 20;
+  public static final String SYSTEM_HTTP_CACHE_MAX_MB = "http-cache-max-mb"; // max. Größe des HTTP-Caches
+  public static final int SYSTEM_HTTP_CACHE_MAX_MB_NR = 21;
+  public static final String SYSTEM_HTTP_CACHE_MAX_AGE_DAYS = "http-cache-max-age-days"; // max. Alter der Einträge im HTTP-Cache
+  public static final int SYSTEM_HTTP_CACHE_MAX_AGE_DAYS_NR = 22;
+  public static final String SYSTEM_HTTP_PROBE_TTL_HOURS = "http-probe-ttl-hours"; // so lange gelten die Ergebnisse der HEAD-Requests (Existenz, Größe)
+  public static final int SYSTEM_HTTP_PROBE_TTL_HOURS_NR = 23;
+  public static final String SYSTEM_CRAWLER_IO_THREADS = "crawler-io-threads"; // Anzahl Threads, die alle Crawler gemeinsam zum Laden nutzen
+  public static final int SYSTEM_CRAWLER_IO_THREADS_NR = 24;
+  public static final String SYSTEM_CRAWLER_SENDER_MAX_REQUESTS = "crawler-sender-max-requests"; // max. Anzahl gleichzeitiger Requests je Sender
+  public static final int SYSTEM_CRAWLER_SENDER_MAX_REQUESTS_NR = 25;
+  public static final String SYSTEM_CRAWLER_MAX_SENDERS = "crawler-max-senders"; // max. Anzahl gleichzeitig laufender Sender
+  public static final int SYSTEM_CRAWLER_MAX_SENDERS_NR = 26;
+  public static final String SYSTEM_CRAWLER_BUDGET_SHARES = "crawler-budget-shares"; // Anteil der Laufzeit je Sender: sender=anteil, ...
+  public static final int SYSTEM_CRAWLER_BUDGET_SHARES_NR = 27;
+  public static final String SYSTEM_XZ_BLOCK_SIZE_MB = "xz-block-size-mb"; // Größe der Blöcke, die parallel mit xz komprimiert werden
+  public static final int SYSTEM_XZ_BLOCK_SIZE_MB_NR = 28;
+  public static final String SYSTEM_XZ_THREADS = "xz-threads"; // Anzahl Threads für die xz-Komprimierung
+  public static final int SYSTEM_XZ_THREADS_NR = 29;
+  public static final String SYSTEM_HTTP_PROBE_MAX_TTL_HOURS = "http-probe-max-ttl-hours"; // so lange gelten die Ergebnisse höchstens bei URLs, die schon lange online sind
+  public static final int SYSTEM_HTTP_PROBE_MAX_TTL_HOURS_NR = 30;
 
   public static final String[] SYSTEM_COLUMN_NAMES = {
     SYSTEM_USER_AGENT, SYSTEM_IMPORT_URL_1, SYSTEM_IMPORT_URL_2, SYSTEM_IMPORT_OLD,
     SYSTEM_IMPORT_AKT, SYSTEM_EXPORT_AKT, SYSTEM_IMPORT_LIVE,
     SYSTEM_EXPORT_FILMLISTE_AKT, SYSTEM_EXPORT_FILMLISTE_ORG, SYSTEM_EXPORT_FILMLISTE_DIFF, SYSTEM_FILMLISTE_ORG,
-    SYSTEM_PROXY_URL, SYSTEM_PROXY_PORT, SYSTEM_DEBUG, SYSTEM_RESTART_AFTER_RUN, SYSTEM_SR_RATELIMIT_RUN
+    SYSTEM_PROXY_URL, SYSTEM_PROXY_PORT, SYSTEM_DEBUG, SYSTEM_RESTART_AFTER_RUN, SYSTEM_SR_RATELIMIT_RUN,
+    SYSTEM_FILM_SINK_THREADS, SYSTEM_FILM_SINK_CAPACITY, SYSTEM_HTTP_MAX_REQUESTS_PER_HOST,
+    SYSTEM_HTTP_RATE_LIMITS, SYSTEM_HTTP_CACHE_HOSTS, SYSTEM_HTTP_CACHE_MAX_MB, SYSTEM_HTTP_CACHE_MAX_AGE_DAYS,
+    SYSTEM_HTTP_PROBE_TTL_HOURS, SYSTEM_CRAWLER_IO_THREADS, SYSTEM_CRAWLER_SENDER_MAX_REQUESTS,
+    SYSTEM_CRAWLER_MAX_SENDERS, SYSTEM_CRAWLER_BUDGET_SHARES, SYSTEM_XZ_BLOCK_SIZE_MB, SYSTEM_XZ_THREADS,
+    SYSTEM_HTTP_PROBE_MAX_TTL_HOURS
   };
 
   public static final int SYSTEM_MAX_ELEM = SYSTEM_COLUMN_NAMES.length;
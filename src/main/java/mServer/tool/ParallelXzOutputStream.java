@@ -0,0 +1,283 @@
+package mServer.tool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import org.tukaani.xz.FinishableOutputStream;
+import org.tukaani.xz.FinishableWrapperOutputStream;
+import org.tukaani.xz.LZMA2Options;
+
+/**
+ * Writes a standard .xz stream whose blocks are compressed in parallel. The
+ * data is split in blocks of the given size, each block is compressed
+ * independently with LZMA2 on a worker thread and the blocks are written in
+ * order, followed by the index of the stream. Every xz decoder (e.g.
+ * XZInputStream, xz -d) reads the stream.
+ *
+ * The dictionary is limited to the block size, so the compression is a bit
+ * worse than with one block. At most two blocks per thread are in memory.
+ */
+public class ParallelXzOutputStream extends OutputStream {
+
+  private static final byte[] HEADER_MAGIC = {(byte) 0xFD, '7', 'z', 'X', 'Z', 0};
+  private static final byte[] FOOTER_MAGIC = {'Y', 'Z'};
+  /**
+   * stream flags: check type CRC32.
+   */
+  private static final byte[] STREAM_FLAGS = {0, 0x01};
+  private static final int CHECK_SIZE = 4;
+  private static final int BLOCK_HEADER_SIZE = 12;
+  private static final int LZMA2_FILTER_ID = 0x21;
+  private static final int MIN_DICT_SIZE = 4096;
+
+  private final OutputStream out;
+  private final LZMA2Options options;
+  private final ExecutorService executor;
+  private final int maxPending;
+  private final Deque<Future<Block>> pending = new ArrayDeque<>();
+  private final List<Block> index = new ArrayList<>();
+  private byte[] buffer;
+  private int bufferSize = 0;
+  private boolean finished = false;
+
+  /**
+   * @param aOut the stream the xz data is written to
+   * @param aBlockSize the size of the uncompressed blocks in bytes
+   * @param aThreads the number of threads compressing
+   * @throws IOException if the stream header cannot be written
+   */
+  public ParallelXzOutputStream(final OutputStream aOut, final int aBlockSize, final int aThreads) throws IOException {
+    this(aOut, aBlockSize, aThreads, new LZMA2Options());
+  }
+
+  /**
+   * @param aOut the stream the xz data is written to
+   * @param aBlockSize the size of the uncompressed blocks in bytes
+   * @param aThreads the number of threads compressing
+   * @param aOptions the LZMA2 options, the dictionary is limited to the
+   * block size
+   * @throws IOException if the stream header cannot be written
+   */
+  public ParallelXzOutputStream(final OutputStream aOut, final int aBlockSize, final int aThreads,
+          final LZMA2Options aOptions) throws IOException {
+    if (aBlockSize <= 0 || aThreads <= 0) {
+      throw new IllegalArgumentException("block size " + aBlockSize + ", threads " + aThreads);
+    }
+    out = aOut;
+    options = (LZMA2Options) aOptions.clone();
+    options.setDictSize(Math.max(MIN_DICT_SIZE, Math.min(options.getDictSize(), aBlockSize)));
+    buffer = new byte[aBlockSize];
+    maxPending = aThreads * 2;
+
+    final AtomicInteger threadNumber = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(aThreads, runnable -> {
+      final Thread thread = new Thread(runnable, "xz-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    out.write(HEADER_MAGIC);
+    out.write(STREAM_FLAGS);
+    writeIntLE(out, crc32(STREAM_FLAGS, 0, STREAM_FLAGS.length));
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[]{(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, int off, int len) throws IOException {
+    if (finished) {
+      throw new IOException("stream finished");
+    }
+    while (len > 0) {
+      final int count = Math.min(len, buffer.length - bufferSize);
+      System.arraycopy(b, off, buffer, bufferSize, count);
+      bufferSize += count;
+      off += count;
+      len -= count;
+      if (bufferSize == buffer.length) {
+        submitBlock();
+      }
+    }
+  }
+
+  /**
+   * writes the blocks, the index and the footer, the underlying stream stays
+   * open.
+   *
+   * @throws IOException if writing fails
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    try {
+      if (bufferSize > 0) {
+        submitBlock();
+      }
+      while (!pending.isEmpty()) {
+        writeNextBlock();
+      }
+      writeIndexAndFooter();
+    } finally {
+      executor.shutdownNow();
+      buffer = null;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+    } finally {
+      out.close();
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    final byte[] data = buffer;
+    final int size = bufferSize;
+    pending.add(executor.submit(() -> compressBlock(data, size)));
+    // der Puffer gehört jetzt dem Block
+    buffer = new byte[data.length];
+    bufferSize = 0;
+    while (pending.size() >= maxPending) {
+      writeNextBlock();
+    }
+  }
+
+  private void writeNextBlock() throws IOException {
+    final Block block;
+    try {
+      block = pending.removeFirst().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("xz compression interrupted");
+    } catch (ExecutionException e) {
+      throw new IOException("xz compression failed", e.getCause());
+    }
+    out.write(block.data, 0, block.data.length);
+    index.add(block);
+    // die Daten werden nicht mehr gebraucht, nur die Größen für den Index
+    block.data = null;
+  }
+
+  private Block compressBlock(final byte[] aData, final int aSize) throws IOException {
+    final ByteArrayOutputStream blockOut = new ByteArrayOutputStream(aSize / 4 + 1024);
+
+    final byte[] header = new byte[BLOCK_HEADER_SIZE];
+    header[0] = (byte) (BLOCK_HEADER_SIZE / 4 - 1);
+    header[1] = 0; // ein Filter, ohne Größenangaben
+    header[2] = LZMA2_FILTER_ID;
+    header[3] = 1; // Größe der Filter-Properties
+    header[4] = getDictSizeProperty(options.getDictSize());
+    writeIntLE(header, BLOCK_HEADER_SIZE - CHECK_SIZE, crc32(header, 0, BLOCK_HEADER_SIZE - CHECK_SIZE));
+    blockOut.write(header);
+
+    final FinishableOutputStream lzma2 = options.getOutputStream(new FinishableWrapperOutputStream(blockOut));
+    lzma2.write(aData, 0, aSize);
+    lzma2.finish();
+
+    final long unpaddedSize = blockOut.size() + CHECK_SIZE;
+    while (blockOut.size() % 4 != 0) {
+      blockOut.write(0);
+    }
+    writeIntLE(blockOut, crc32(aData, 0, aSize));
+    return new Block(blockOut.toByteArray(), unpaddedSize, aSize);
+  }
+
+  private void writeIndexAndFooter() throws IOException {
+    final ByteArrayOutputStream indexOut = new ByteArrayOutputStream();
+    indexOut.write(0); // Index Indicator
+    writeVarInt(indexOut, index.size());
+    for (Block block : index) {
+      writeVarInt(indexOut, block.unpaddedSize);
+      writeVarInt(indexOut, block.uncompressedSize);
+    }
+    while (indexOut.size() % 4 != 0) {
+      indexOut.write(0);
+    }
+    final byte[] indexBytes = indexOut.toByteArray();
+    out.write(indexBytes);
+    writeIntLE(out, crc32(indexBytes, 0, indexBytes.length));
+
+    final byte[] footer = new byte[6];
+    writeIntLE(footer, 0, (indexBytes.length + CHECK_SIZE) / 4 - 1);
+    footer[4] = STREAM_FLAGS[0];
+    footer[5] = STREAM_FLAGS[1];
+    writeIntLE(out, crc32(footer, 0, footer.length));
+    out.write(footer);
+    out.write(FOOTER_MAGIC);
+  }
+
+  /**
+   * @return the LZMA2 property byte of the smallest dictionary size not less
+   * than aDictSize.
+   */
+  private static byte getDictSizeProperty(final int aDictSize) {
+    for (int property = 0; property < 40; property++) {
+      if (((2L | (property & 1)) << (property / 2 + 11)) >= aDictSize) {
+        return (byte) property;
+      }
+    }
+    return 40;
+  }
+
+  private static int crc32(final byte[] aData, final int aOffset, final int aLength) {
+    final CRC32 crc = new CRC32();
+    crc.update(aData, aOffset, aLength);
+    return (int) crc.getValue();
+  }
+
+  private static void writeIntLE(final OutputStream aOut, final int aValue) throws IOException {
+    final byte[] bytes = new byte[4];
+    writeIntLE(bytes, 0, aValue);
+    aOut.write(bytes);
+  }
+
+  private static void writeIntLE(final byte[] aTarget, final int aOffset, final int aValue) {
+    for (int i = 0; i < 4; i++) {
+      aTarget[aOffset + i] = (byte) (aValue >>> (8 * i));
+    }
+  }
+
+  private static void writeVarInt(final OutputStream aOut, long aValue) throws IOException {
+    while (aValue >= 0x80) {
+      aOut.write((int) (aValue | 0x80));
+      aValue >>>= 7;
+    }
+    aOut.write((int) aValue);
+  }
+
+  private static class Block {
+
+    private byte[] data;
+    private final long unpaddedSize;
+    private final long uncompressedSize;
+
+    Block(final byte[] aData, final long aUnpaddedSize, final long aUncompressedSize) {
+      data = aData;
+      unpaddedSize = aUnpaddedSize;
+      uncompressedSize = aUncompressedSize;
+    }
+  }
+}
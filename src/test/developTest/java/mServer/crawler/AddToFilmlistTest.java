@@ -26,6 +26,7 @@ public class AddToFilmlistTest {
   private static final String FILM_NAME_ONLINE_M3U8 = "onlinefilm.m3u8";
   private static final String FILM_NAME_OFFLINE_M3U8 = "offlinefilm.m3u8";
   private static final String FILM_NAME_OFFLINE_BUT_HTML_RESPONSE = "ardofflinefilm.mp4";
+  private static final String FILM_NAME_SERVER_ERROR = "servererror.mp4";
   private static final String FILM_NAME_ORF_JUGENDSCHUTZ = "ipad/gp/Jugendschutz0600b2000_Q8C.mp4/playlist.m3u8";
   private static final String FILM_TOPIC1 = "Topic 1";
   private static final String FILM_TOPIC2 = "Topic 2";
@@ -76,6 +77,8 @@ public class AddToFilmlistTest {
               // head not supported for m3u8
               return new MockResponse().setResponseCode(405);
             }
+          case "/" + FILM_NAME_SERVER_ERROR:
+            return new MockResponse().setResponseCode(500);
           case "/" + FILM_NAME_ORF_JUGENDSCHUTZ:
             if (request.getMethod().equalsIgnoreCase("get")) {
               return new MockResponse().setResponseCode(200);
@@ -177,6 +180,19 @@ public class AddToFilmlistTest {
     assertThat(list.size(), equalTo(2));
   }
 
+  @Test
+  public void testAddOldListServerErrorAdded() {
+    listToAdd.add(createTestFilm(Const.BR, FILM_TOPIC1, FILM_TITLE2, FILM_NAME_SERVER_ERROR));
+    final DatenFilm filmWithoutSize = createTestFilm(Const.BR, FILM_TOPIC1, FILM_TITLE3, FILM_NAME_SERVER_ERROR);
+    filmWithoutSize.arr[DatenFilm.FILM_GROESSE] = "";
+    listToAdd.add(filmWithoutSize);
+
+    AddToFilmlist target = new AddToFilmlist(list, listToAdd);
+    target.addOldList();
+
+    assertThat(list.size(), equalTo(4));
+  }
+
   @Test
   public void testAddOldListOfflineButHeadRequestSuccessfulHtmlNotAdded() {
     listToAdd.add(createTestFilm(Const.ARD, "ard film", "video offline",
@@ -0,0 +1,121 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilm;
+import static mServer.test.TestFilme.assertSameFilme;
+import static mServer.test.TestFilme.createText;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import mServer.test.TestFilme;
+import org.junit.Test;
+
+public class CompactFilmStoreTest {
+
+  private static DatenFilm createFilm(final int aNr) {
+    final DatenFilm film = TestFilme.createFilm(aNr);
+    // nicht gesetzte Felder
+    film.arr[DatenFilm.FILM_URL_AUTH] = aNr % 5 == 0 ? null : "";
+    film.arr[DatenFilm.FILM_ABO_NAME] = aNr % 5 == 1 ? null : "";
+    return film;
+  }
+
+  private static List<DatenFilm> createFilms() {
+    final List<DatenFilm> films = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      films.add(createFilm(i));
+    }
+
+    // Texte über die Grenze eines Abschnitts und größer als ein Abschnitt
+    final DatenFilm nearlyChunk = createFilm(1000);
+    nearlyChunk.arr[DatenFilm.FILM_BESCHREIBUNG] = createText(700_000, 'A');
+    films.add(nearlyChunk);
+    final DatenFilm largeText = createFilm(1001);
+    largeText.arr[DatenFilm.FILM_BESCHREIBUNG] = createText(1_500_000, 'b');
+    films.add(largeText);
+    final DatenFilm afterLargeText = createFilm(1002);
+    afterLargeText.arr[DatenFilm.FILM_TITEL] = createText(200_000, 'c');
+    films.add(afterLargeText);
+    return films;
+  }
+
+  @Test
+  public void testGetValue() {
+    final List<DatenFilm> films = createFilms();
+    final CompactFilmStore target = new CompactFilmStore(films);
+
+    assertThat(target.size(), equalTo(films.size()));
+    for (int row = 0; row < films.size(); row++) {
+      for (int field = 0; field < DatenFilm.MAX_ELEM; field++) {
+        assertThat("Film " + row + ", Feld " + field, target.getValue(row, field),
+                equalTo(films.get(row).arr[field]));
+      }
+    }
+  }
+
+  @Test
+  public void testGet() {
+    final List<DatenFilm> films = createFilms();
+    final CompactFilmStore target = new CompactFilmStore(films);
+
+    for (int row = 0; row < films.size(); row++) {
+      assertSameFilm(target.get(row), films.get(row));
+    }
+  }
+
+  @Test
+  public void testFindByUrl() {
+    final List<DatenFilm> films = createFilms();
+    final CompactFilmStore target = new CompactFilmStore(films);
+
+    for (DatenFilm film : films) {
+      assertSameFilm(target.findByUrl(film.getUrl()), film);
+    }
+    assertThat(target.findByUrl("https://cdn.example.org/unbekannt.mp4"), nullValue());
+    assertThat(target.findByUrl(null), nullValue());
+  }
+
+  @Test
+  public void testFindByUrlAfterAdd() {
+    final CompactFilmStore target = new CompactFilmStore();
+    final DatenFilm first = createFilm(1);
+    final DatenFilm second = createFilm(2);
+    target.add(first);
+
+    assertSameFilm(target.findByUrl(first.getUrl()), first);
+    assertThat(target.findByUrl(second.getUrl()), nullValue());
+
+    target.add(second);
+    assertSameFilm(target.findByUrl(second.getUrl()), second);
+  }
+
+  @Test
+  public void testToListeFilme() {
+    final List<DatenFilm> films = createFilms();
+    final CompactFilmStore target = new CompactFilmStore(films);
+
+    assertSameFilme(target.toListeFilme(), films);
+    assertSameFilme(target.toListeFilme("ORF"), films.stream()
+            .filter(film -> "ORF".equals(film.arr[DatenFilm.FILM_SENDER]))
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testClear() {
+    final CompactFilmStore target = new CompactFilmStore(createFilms());
+    target.clear();
+
+    assertThat(target.size(), equalTo(0));
+    assertThat(target.isEmpty(), equalTo(true));
+    assertThat(target.findByUrl(createFilm(1).getUrl()), nullValue());
+
+    final DatenFilm film = createFilm(1001);
+    film.arr[DatenFilm.FILM_BESCHREIBUNG] = createText(1_500_000, 'd');
+    target.add(film);
+    assertSameFilm(target.get(0), film);
+  }
+}
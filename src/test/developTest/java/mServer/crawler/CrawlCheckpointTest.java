@@ -0,0 +1,146 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilm;
+import static mServer.test.TestFilme.assertSameFilme;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.Config;
+import de.mediathekview.mlib.daten.DatenFilm;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import mServer.crawler.sender.zdf.ZdfDatenFilm;
+import mServer.test.TestFilme;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CrawlCheckpointTest {
+
+  private static final String SENDER = "ARD";
+  private static final String URL = "https://api.ardmediathek.de/page-gateway/pages/ard/item/1";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private int senderLoadHow;
+
+  @Before
+  public void setUp() {
+    senderLoadHow = CrawlerConfig.senderLoadHow;
+    CrawlerConfig.senderLoadHow = CrawlerConfig.LOAD_SHORT;
+    Config.setStop(false);
+  }
+
+  @After
+  public void tearDown() {
+    CrawlerConfig.senderLoadHow = senderLoadHow;
+    Config.setStop(false);
+  }
+
+  private Path getFile() {
+    return folder.getRoot().toPath().resolve("checkpoint");
+  }
+
+  private static List<DatenFilm> createFilms() {
+    return Arrays.asList(TestFilme.createFilm(1), TestFilme.createFilm(2));
+  }
+
+  /**
+   * runs a crawl which records the films of the detail page.
+   *
+   * @param aStopped true if the run is stopped
+   */
+  private void runWithRecord(final List<DatenFilm> aFilms, final boolean aStopped) {
+    final CrawlCheckpoint target = new CrawlCheckpoint(getFile());
+    target.start();
+    target.record(SENDER, URL, aFilms);
+    Config.setStop(aStopped);
+    target.finish();
+    Config.setStop(false);
+  }
+
+  @Test
+  public void testStoppedRunResumed() {
+    final List<DatenFilm> films = createFilms();
+    runWithRecord(films, true);
+    assertThat(Files.exists(getFile()), equalTo(true));
+
+    final CrawlCheckpoint target = new CrawlCheckpoint(getFile());
+    target.start();
+    assertThat(target.getFilms(SENDER, URL + "/2"), nullValue());
+    assertThat(target.getFilms("ZDF", URL), nullValue());
+    assertSameFilme(target.getFilms(SENDER, URL), films);
+    // jede Seite nur einmal übernehmen
+    assertThat(target.getFilms(SENDER, URL), nullValue());
+  }
+
+  @Test
+  public void testResumedPagesKeptForNextStop() {
+    final List<DatenFilm> films = createFilms();
+    runWithRecord(films, true);
+
+    // der fortgesetzte Lauf wird wieder abgebrochen, bevor die Seite dran war
+    final CrawlCheckpoint resumed = new CrawlCheckpoint(getFile());
+    resumed.start();
+    Config.setStop(true);
+    resumed.finish();
+    Config.setStop(false);
+
+    final CrawlCheckpoint target = new CrawlCheckpoint(getFile());
+    target.start();
+    assertSameFilme(target.getFilms(SENDER, URL), films);
+  }
+
+  @Test
+  public void testZdfFilmRestored() {
+    final DatenFilm film = TestFilme.createFilm(3);
+    final ZdfDatenFilm zdfFilm = new ZdfDatenFilm("ZDF", "Thema", "https://www.zdf.de/film", "Titel",
+            "https://rodlzdf-a.akamaihd.net/film.mp4", "", "18.10.2026", "20:15:00", 1800, "Beschreibung");
+    runWithRecord(Arrays.asList(film, zdfFilm), true);
+
+    final CrawlCheckpoint target = new CrawlCheckpoint(getFile());
+    target.start();
+    final List<DatenFilm> actual = target.getFilms(SENDER, URL);
+    assertThat(actual.size(), equalTo(2));
+    assertSameFilm(actual.get(0), film);
+    assertThat(actual.get(1), instanceOf(ZdfDatenFilm.class));
+    assertSameFilm(actual.get(1), zdfFilm);
+  }
+
+  @Test
+  public void testFinishedRunDiscarded() {
+    runWithRecord(createFilms(), false);
+    assertThat(Files.exists(getFile()), equalTo(false));
+
+    final CrawlCheckpoint target = new CrawlCheckpoint(getFile());
+    target.start();
+    assertThat(target.getFilms(SENDER, URL), nullValue());
+  }
+
+  @Test
+  public void testOtherRunTypeNotResumed() {
+    runWithRecord(createFilms(), true);
+
+    CrawlerConfig.senderLoadHow = CrawlerConfig.LOAD_LONG;
+    final CrawlCheckpoint target = new CrawlCheckpoint(getFile());
+    target.start();
+    assertThat(target.getFilms(SENDER, URL), nullValue());
+  }
+
+  @Test
+  public void testEmptyPageNotRecorded() {
+    runWithRecord(Collections.emptyList(), true);
+
+    final CrawlCheckpoint target = new CrawlCheckpoint(getFile());
+    target.start();
+    assertThat(target.getFilms(SENDER, URL), nullValue());
+  }
+}
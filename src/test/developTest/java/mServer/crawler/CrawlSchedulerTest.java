@@ -0,0 +1,133 @@
+package mServer.crawler;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import mServer.crawler.sender.MediathekReader;
+import mServer.crawler.sender.base.CrawlDeadline;
+import mServer.crawler.sender.base.HttpTransport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CrawlSchedulerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final CountDownLatch stopReaders = new CountDownLatch(1);
+  private final AtomicLong clock = new AtomicLong(1_000_000);
+  private Path history;
+
+  @Before
+  public void setUp() {
+    history = folder.getRoot().toPath().resolve("laufzeiten.txt");
+  }
+
+  @After
+  public void tearDown() {
+    stopReaders.countDown();
+    CrawlDeadline.start(0);
+  }
+
+  private MediathekReader createReader(final String aSender) {
+    final MediathekReader reader = mock(MediathekReader.class);
+    when(reader.getSendername()).thenReturn(aSender);
+    when(reader.getStartPrio()).thenReturn(1);
+    // der Reader läuft bis zum Ende des Tests
+    doAnswer(invocation -> {
+      stopReaders.await();
+      return null;
+    }).when(reader).run();
+    return reader;
+  }
+
+  private static HttpTransport createTransport(final boolean aSaturated) {
+    final HttpTransport transport = mock(HttpTransport.class);
+    when(transport.getMaxRequests()).thenReturn(100);
+    when(transport.getRunningCalls()).thenReturn(aSaturated ? 100 : 0);
+    when(transport.isHostSaturated(anyString())).thenReturn(aSaturated);
+    return transport;
+  }
+
+  private CrawlScheduler createScheduler(final boolean aSaturated, final MediathekReader... aReaders) {
+    return new CrawlScheduler(history, Arrays.asList(aReaders), createTransport(aSaturated), clock::get);
+  }
+
+  private void advance(final long aDuration, final TimeUnit aUnit) {
+    clock.addAndGet(aUnit.toMillis(aDuration));
+  }
+
+  @Test
+  public void testStartWithCapacity() {
+    final CrawlScheduler target = createScheduler(false, createReader("A"), createReader("B"));
+
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    // die Messwerte müssen sich erst einpendeln
+    assertThat(target.startNextIfPossible(), equalTo(false));
+    advance(11, TimeUnit.SECONDS);
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    assertThat(target.hasPending(), equalTo(false));
+    assertThat(target.getRunningCount(), equalTo(2));
+  }
+
+  @Test
+  public void testSaturatedTransportStartsAfterMaxWait() {
+    final CrawlScheduler target = createScheduler(true, createReader("A"), createReader("B"), createReader("C"));
+
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    advance(11, TimeUnit.SECONDS);
+    assertThat(target.startNextIfPossible(), equalTo(false));
+    advance(3, TimeUnit.MINUTES);
+    assertThat(target.startNextIfPossible(), equalTo(false));
+
+    advance(1, TimeUnit.MINUTES);
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    assertThat(target.getRunningCount(), equalTo(2));
+    // die Wartezeit beginnt mit dem Start neu
+    advance(11, TimeUnit.SECONDS);
+    assertThat(target.startNextIfPossible(), equalTo(false));
+    advance(4, TimeUnit.MINUTES);
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    assertThat(target.hasPending(), equalTo(false));
+  }
+
+  @Test
+  public void testSaturatedTransportStartsWhenRunTimeExceedsRemainingTime() throws IOException {
+    Files.write(history, Arrays.asList("A\t7200\t", "B\t3600\t"), StandardCharsets.UTF_8);
+    CrawlDeadline.start(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(30));
+    final CrawlScheduler target = createScheduler(true, createReader("A"), createReader("B"));
+
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    assertThat(target.startNextIfPossible(), equalTo(false));
+    advance(11, TimeUnit.SECONDS);
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    assertThat(target.hasPending(), equalTo(false));
+  }
+
+  @Test
+  public void testSaturatedTransportWaitsWhenRemainingTimeIsEnough() throws IOException {
+    Files.write(history, Arrays.asList("A\t120\t", "B\t60\t"), StandardCharsets.UTF_8);
+    CrawlDeadline.start(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(30));
+    final CrawlScheduler target = createScheduler(true, createReader("A"), createReader("B"));
+
+    assertThat(target.startNextIfPossible(), equalTo(true));
+    advance(11, TimeUnit.SECONDS);
+    assertThat(target.startNextIfPossible(), equalTo(false));
+    assertThat(target.hasPending(), equalTo(true));
+  }
+}
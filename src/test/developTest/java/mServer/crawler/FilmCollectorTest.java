@@ -0,0 +1,138 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.createFilm;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class FilmCollectorTest {
+
+  private static Set<String> getUrls(final List<DatenFilm> aFilms) {
+    final Set<String> urls = new HashSet<>();
+    aFilms.forEach(film -> urls.add(film.arr[DatenFilm.FILM_URL]));
+    return urls;
+  }
+
+  @Test
+  public void testDuplicateNotAdded() {
+    final FilmCollector target = new FilmCollector();
+    final DatenFilm film = createFilm(1);
+    final DatenFilm duplicate = createFilm(1);
+    duplicate.arr[DatenFilm.FILM_TITEL] = "anderer Titel";
+    final DatenFilm otherSender = createFilm(1);
+    otherSender.arr[DatenFilm.FILM_SENDER] = "3Sat";
+
+    assertThat(target.addFilmVomSender(film), equalTo(true));
+    assertThat(target.addFilmVomSender(duplicate), equalTo(false));
+    assertThat(target.addFilmVomSender(otherSender), equalTo(true));
+    assertThat(target.size(), equalTo(2));
+  }
+
+  @Test
+  public void testGetFilmByUrl() {
+    final FilmCollector target = new FilmCollector();
+    final DatenFilm film = createFilm(1);
+    final DatenFilm otherSender = createFilm(1);
+    otherSender.arr[DatenFilm.FILM_SENDER] = "3Sat";
+    target.addFilmVomSender(film);
+    target.addFilmVomSender(otherSender);
+
+    // der zuerst gefundene Film, http und https sind gleich
+    assertThat(target.getFilmByUrl(film.arr[DatenFilm.FILM_URL]), sameInstance(film));
+    assertThat(target.getFilmByUrl(film.arr[DatenFilm.FILM_URL].replace("https://", "http://")), sameInstance(film));
+    assertThat(target.getFilmByUrl(createFilm(2).arr[DatenFilm.FILM_URL]), nullValue());
+  }
+
+  @Test
+  public void testConcurrentAdd() throws Exception {
+    final FilmCollector target = new FilmCollector();
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int offset = t * 100;
+        results.add(executor.submit(() -> {
+          int added = 0;
+          for (int i = 0; i < 1000; i++) {
+            // jeder Thread findet die meisten Filme auch
+            if (target.addFilmVomSender(createFilm((offset + i) % 1500))) {
+              added++;
+            }
+          }
+          return added;
+        }));
+      }
+      int added = 0;
+      for (Future<Integer> result : results) {
+        added += result.get(30, TimeUnit.SECONDS);
+      }
+      assertThat(added, equalTo(1500));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(target.size(), equalTo(1500));
+    final ListeFilme liste = new ListeFilme();
+    target.drainTo(liste);
+    assertThat(liste.size(), equalTo(1500));
+    assertThat(getUrls(liste).size(), equalTo(1500));
+  }
+
+  @Test
+  public void testDrainTo() {
+    final FilmCollector target = new FilmCollector();
+    for (int i = 0; i < 300; i++) {
+      target.addFilmVomSender(createFilm(i));
+    }
+    final ListeFilme liste = new ListeFilme();
+    liste.add(createFilm(1000));
+
+    target.drainTo(liste);
+    assertThat(liste.size(), equalTo(301));
+    assertThat(target.size(), equalTo(0));
+    assertThat(target.getFilmByUrl(createFilm(1).arr[DatenFilm.FILM_URL]), nullValue());
+
+    // nach dem Leeren wieder wie neu
+    assertThat(target.addFilmVomSender(createFilm(1)), equalTo(true));
+    assertThat(target.size(), equalTo(1));
+  }
+
+  @Test
+  public void testApplyToSender() {
+    final FilmCollector target = new FilmCollector();
+    for (int i = 0; i < 100; i++) {
+      target.addFilmVomSender(createFilm(i));
+    }
+    final String sender = createFilm(0).arr[DatenFilm.FILM_SENDER];
+
+    target.applyToSender(sender, liste -> {
+      assertThat(liste.size(), equalTo(50));
+      liste.removeIf(film -> Integer.parseInt(film.arr[DatenFilm.FILM_NR]) % 2 == 0);
+    });
+    assertThat(target.size(), equalTo(75));
+    assertThat(target.addFilmVomSender(createFilm(1)), equalTo(false));
+
+    final ListeFilme liste = new ListeFilme();
+    target.drainTo(liste);
+    final Set<String> expected = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      if (i >= 50 || i % 2 == 1) {
+        expected.add(createFilm(i).arr[DatenFilm.FILM_URL]);
+      }
+    }
+    assertThat(getUrls(liste), equalTo(expected));
+  }
+}
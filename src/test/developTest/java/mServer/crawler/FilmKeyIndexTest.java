@@ -0,0 +1,124 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilme;
+import static mServer.test.TestFilme.assertSameMetaDaten;
+import static mServer.test.TestFilme.createListe;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import mServer.test.TestFilme;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FilmKeyIndexTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static ListeFilme createOrgList() {
+    final ListeFilme list = createListe(2000);
+    // doppelte Filme
+    list.add(TestFilme.createFilm(1));
+    return list;
+  }
+
+  private static DatenFilm createFilm(final int aNr, final int aField, final String aValue) {
+    final DatenFilm film = TestFilme.createFilm(aNr);
+    film.arr[aField] = aValue;
+    return film;
+  }
+
+  private static ListeFilme createAktList() {
+    final ListeFilme list = new ListeFilme();
+    for (int i = 1000; i < 3000; i++) {
+      // die Hälfte der alten Filme, mit neuer URL
+      list.add(createFilm(i, DatenFilm.FILM_URL, "https://cdn2.example.org/" + i + ".mp4"));
+    }
+    // Abweichungen in Schreibweise, Sender und Titel
+    list.add(createFilm(5, DatenFilm.FILM_TITEL, TestFilme.createFilm(5).arr[DatenFilm.FILM_TITEL].toUpperCase()));
+    list.add(createFilm(6, DatenFilm.FILM_SENDER, "3Sat"));
+    list.add(createFilm(7, DatenFilm.FILM_TITEL, "Titel 7 neu"));
+    list.add(createFilm(3000, DatenFilm.FILM_TITEL, ""));
+    list.add(createFilm(3000, DatenFilm.FILM_TITEL, ""));
+    return list;
+  }
+
+  private Path writeList(final ListeFilme aList) {
+    final Path json = folder.getRoot().toPath().resolve("filme-org.json");
+    assertThat(new FilmlistOutput(aList, json.toString()).addKeyIndex(json.toString()).write(), equalTo(true));
+    return json;
+  }
+
+  @Test
+  public void testNeueFilmeEqualsListeFilme() {
+    final ListeFilme org = createOrgList();
+    final ListeFilme akt = createAktList();
+    final Path json = writeList(org);
+
+    final FilmKeyIndex target = FilmKeyIndex.open(json.toString());
+    assertThat(target.size(), equalTo(2000));
+    assertSameFilme(target.neueFilme(akt), akt.neueFilme(org));
+  }
+
+  @Test
+  public void testContains() {
+    final ListeFilme org = createOrgList();
+    final ListeFilme akt = createAktList();
+    final FilmKeyIndex target = FilmKeyIndex.open(writeList(org).toString());
+
+    for (DatenFilm film : org) {
+      assertThat(target.contains(film), equalTo(true));
+    }
+    final ListeFilme neu = akt.neueFilme(org);
+    for (DatenFilm film : akt) {
+      assertThat(target.contains(film), equalTo(!neu.contains(film)));
+    }
+  }
+
+  @Test
+  public void testMetaListe() {
+    final ListeFilme org = createOrgList();
+    final FilmKeyIndex target = FilmKeyIndex.open(writeList(org).toString());
+
+    final ListeFilme actual = target.getMetaListe();
+    assertThat(actual.size(), equalTo(0));
+    assertSameMetaDaten(actual, org);
+  }
+
+  @Test
+  public void testEmptyList() {
+    final ListeFilme akt = createAktList();
+    final FilmKeyIndex target = FilmKeyIndex.open(writeList(new ListeFilme()).toString());
+
+    assertThat(target.size(), equalTo(0));
+    assertSameFilme(target.neueFilme(akt), akt.neueFilme(new ListeFilme()));
+  }
+
+  @Test
+  public void testKeysOfOtherJsonAreNotUsed() throws IOException {
+    final Path json = writeList(createOrgList());
+    final Path keys = FilmKeyIndex.getKeyPath(json);
+    final byte[] oldKeys = Files.readAllBytes(keys);
+    final ListeFilme other = createOrgList();
+    other.add(TestFilme.createFilm(5000));
+    writeList(other);
+    Files.write(keys, oldKeys);
+
+    assertThat(FilmKeyIndex.open(json.toString()), nullValue());
+  }
+
+  @Test
+  public void testMissingKeysAreNotUsed() throws IOException {
+    final Path json = writeList(createOrgList());
+    Files.delete(FilmKeyIndex.getKeyPath(json));
+
+    assertThat(FilmKeyIndex.open(json.toString()), nullValue());
+  }
+}
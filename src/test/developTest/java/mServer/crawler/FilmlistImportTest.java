@@ -0,0 +1,103 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilme;
+import static mServer.test.TestFilme.createFilm;
+import static mServer.test.TestFilme.createListe;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.ListeFilme;
+import de.mediathekview.mlib.filmlisten.FilmlisteLesen;
+import de.mediathekview.mlib.filmlisten.WriteFilmlistJson;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FilmlistImportTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private String importA;
+  private String importB;
+
+  private String writeImport(final String aName, final int aFrom, final int aTo, final int... aDuplicates) {
+    final ListeFilme liste = new ListeFilme();
+    for (int i = aFrom; i < aTo; i++) {
+      liste.add(createFilm(i));
+    }
+    // doppelte URLs in einer Liste
+    for (int duplicate : aDuplicates) {
+      liste.add(createFilm(duplicate));
+    }
+    final Path file = folder.getRoot().toPath().resolve(aName);
+    new WriteFilmlistJson().filmlisteSchreibenJson(file.toString(), liste);
+    return file.toString();
+  }
+
+  private static ListeFilme copy(final ListeFilme aListe) {
+    final ListeFilme copy = new ListeFilme();
+    copy.addAll(aListe);
+    return copy;
+  }
+
+  /**
+   * the import as before: read the whole list and sort it in.
+   */
+  private static void updateListe(final ListeFilme aListe, final String aImport) {
+    final ListeFilme tmpListe = new ListeFilme();
+    new FilmlisteLesen().readFilmListe(aImport, tmpListe, 0);
+    aListe.updateListe(tmpListe, false, false);
+  }
+
+  @Before
+  public void setUp() {
+    importA = writeImport("import-a.json", 900, 1200, 950, 1100, 1100);
+    importB = writeImport("import-b.json", 1150, 1300, 1250);
+  }
+
+  @Test
+  public void testImportEqualsUpdateListe() {
+    final ListeFilme base = createListe(1000);
+    final ListeFilme expected = copy(base);
+    updateListe(expected, importA);
+    updateListe(expected, importB);
+
+    final ListeFilme actual = copy(base);
+    final FilmlistImport target = new FilmlistImport(actual);
+    assertThat(target.importListe(importA), equalTo(303));
+    assertThat(target.importListe(importB), equalTo(151));
+
+    assertSameFilme(actual, expected);
+  }
+
+  @Test
+  public void testImportOfPrefetchedListEqualsUpdateListe() {
+    final ListeFilme base = createListe(1000);
+    final ListeFilme expected = copy(base);
+    updateListe(expected, importA);
+    updateListe(expected, importB);
+
+    final ListeFilme actual = copy(base);
+    final FilmlistImport target = new FilmlistImport(actual);
+    final CompactFilmStore prefetched = new CompactFilmStore();
+    FilmlistImport.read(importA, prefetched::add);
+    assertThat(target.importListe(prefetched), equalTo(303));
+    assertThat(target.importListe(importB), equalTo(151));
+
+    assertSameFilme(actual, expected);
+  }
+
+  @Test
+  public void testImportIntoEmptyList() {
+    final ListeFilme expected = new ListeFilme();
+    updateListe(expected, importA);
+
+    final ListeFilme actual = new ListeFilme();
+    new FilmlistImport(actual).importListe(importA);
+
+    assertSameFilme(actual, expected);
+  }
+}
@@ -0,0 +1,109 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilme;
+import static mServer.test.TestFilme.createListe;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.tukaani.xz.XZInputStream;
+
+public class FilmlistOutputTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path getPath(final String aName) {
+    return folder.getRoot().toPath().resolve(aName);
+  }
+
+  private static byte[] decompress(final Path aFile) throws IOException {
+    try (InputStream in = new XZInputStream(Files.newInputStream(aFile))) {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[1 << 16];
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private long countTempFiles() throws IOException {
+    try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+      return files.filter(file -> file.getFileName().toString().endsWith(".tmp")).count();
+    }
+  }
+
+  @Test
+  public void testWriteAllFiles() throws IOException {
+    final ListeFilme liste = createListe(500);
+    final Path json = getPath("filme.json");
+    final Path copy = getPath("filme-org.json");
+
+    final boolean result = new FilmlistOutput(liste, json.toString())
+            .addCopy(copy.toString())
+            .addCopy(getPath("filme-diff.json").toString())
+            .addCompressed(getPath("filme.xz").toString())
+            .addCompressed(getPath("filme-org.xz").toString())
+            .addSnapshot(json.toString())
+            .addSnapshot(copy.toString())
+            .addKeyIndex(copy.toString())
+            .write();
+
+    assertThat(result, equalTo(true));
+    final byte[] expected = Files.readAllBytes(json);
+    assertArrayEquals(Files.readAllBytes(copy), expected);
+    assertArrayEquals(Files.readAllBytes(getPath("filme-diff.json")), expected);
+    assertArrayEquals(decompress(getPath("filme.xz")), expected);
+    assertArrayEquals(Files.readAllBytes(getPath("filme-org.xz")), Files.readAllBytes(getPath("filme.xz")));
+
+    // Snapshot und Index passen zu der Datei, für die sie geschrieben wurden
+    for (Path file : new Path[]{json, copy}) {
+      final ListeFilme fromSnapshot = new ListeFilme();
+      assertThat(FilmlistSnapshot.read(file.toString(), fromSnapshot), equalTo(true));
+      assertSameFilme(fromSnapshot, liste, DatenFilm.JSON_SELECTED_COLUMNS);
+    }
+    assertThat(FilmKeyIndex.open(copy.toString()), notNullValue());
+    assertThat(countTempFiles(), equalTo(0L));
+  }
+
+  @Test
+  public void testOnlyJson() throws IOException {
+    final Path json = getPath("filme.json");
+
+    assertThat(new FilmlistOutput(createListe(10), json.toString()).write(), equalTo(true));
+    try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+      assertThat(files.count(), equalTo(1L));
+    }
+  }
+
+  @Test
+  public void testFailedCopyReported() throws IOException {
+    final Path json = getPath("filme.json");
+    final Path missingFolder = getPath("fehlt").resolve("filme-org.json");
+
+    final boolean result = new FilmlistOutput(createListe(10), json.toString())
+            .addCopy(missingFolder.toString())
+            .addCompressed(getPath("filme.xz").toString())
+            .write();
+
+    assertThat(result, equalTo(false));
+    // die übrigen Dateien werden trotzdem geschrieben
+    assertArrayEquals(decompress(getPath("filme.xz")), Files.readAllBytes(json));
+    assertThat(Files.exists(missingFolder), equalTo(false));
+    assertThat(countTempFiles(), equalTo(0L));
+  }
+}
@@ -0,0 +1,101 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilme;
+import static mServer.test.TestFilme.assertSameMetaDaten;
+import static mServer.test.TestFilme.createListe;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import de.mediathekview.mlib.filmlisten.FilmlisteLesen;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FilmlistSnapshotTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path writeList(final ListeFilme aList) throws IOException {
+    final Path json = folder.getRoot().toPath().resolve("filme.json");
+    assertThat(new FilmlistOutput(aList, json.toString()).addSnapshot(json.toString()).write(), equalTo(true));
+    return json;
+  }
+
+  private static void assertSameList(final ListeFilme aActual, final ListeFilme aExpected) {
+    assertSameMetaDaten(aActual, aExpected);
+    assertSameFilme(aActual, aExpected, DatenFilm.JSON_SELECTED_COLUMNS);
+  }
+
+  @Test
+  public void testReadEqualsJson() throws IOException {
+    final Path json = writeList(createListe(500));
+    assertThat(Files.isRegularFile(FilmlistSnapshot.getSnapshotPath(json)), equalTo(true));
+
+    final ListeFilme fromJson = new ListeFilme();
+    new FilmlisteLesen().readFilmListe(json.toString(), fromJson, 0);
+    final ListeFilme fromSnapshot = new ListeFilme();
+
+    assertThat(FilmlistSnapshot.read(json.toString(), fromSnapshot), equalTo(true));
+    assertSameList(fromSnapshot, fromJson);
+  }
+
+  @Test
+  public void testGetValueEqualsJson() throws IOException {
+    final Path json = writeList(createListe(100));
+    final ListeFilme fromJson = new ListeFilme();
+    new FilmlisteLesen().readFilmListe(json.toString(), fromJson, 0);
+
+    final FilmlistSnapshot target = FilmlistSnapshot.open(json.toString());
+    try {
+      assertThat(target.size(), equalTo(fromJson.size()));
+      for (int row = 0; row < fromJson.size(); row++) {
+        for (int field : DatenFilm.JSON_SELECTED_COLUMNS) {
+          assertThat(target.getValue(row, field), equalTo(fromJson.get(row).arr[field]));
+        }
+      }
+    } finally {
+      target.close();
+    }
+  }
+
+  @Test
+  public void testEmptyList() throws IOException {
+    final Path json = writeList(createListe(0));
+    final ListeFilme fromSnapshot = createListe(3);
+
+    assertThat(FilmlistSnapshot.read(json.toString(), fromSnapshot), equalTo(true));
+    assertThat(fromSnapshot.size(), equalTo(0));
+  }
+
+  @Test
+  public void testSnapshotOfOtherJsonIsNotRead() throws IOException {
+    final Path json = writeList(createListe(100));
+    final Path snapshot = FilmlistSnapshot.getSnapshotPath(json);
+    final Path oldSnapshot = snapshot.resolveSibling("old" + FilmlistSnapshot.SUFFIX);
+    Files.move(snapshot, oldSnapshot);
+    writeList(createListe(101));
+    Files.move(oldSnapshot, snapshot, StandardCopyOption.REPLACE_EXISTING);
+
+    final ListeFilme fromSnapshot = createListe(3);
+    assertThat(FilmlistSnapshot.open(json.toString()), nullValue());
+    assertThat(FilmlistSnapshot.read(json.toString(), fromSnapshot), equalTo(false));
+    assertThat(fromSnapshot.size(), equalTo(3));
+  }
+
+  @Test
+  public void testMissingSnapshotIsNotRead() throws IOException {
+    final Path json = writeList(createListe(10));
+    Files.delete(FilmlistSnapshot.getSnapshotPath(json));
+
+    assertThat(FilmlistSnapshot.open(json.toString()), nullValue());
+    assertThat(FilmlistSnapshot.read(json.toString(), new ListeFilme()), equalTo(false));
+  }
+}
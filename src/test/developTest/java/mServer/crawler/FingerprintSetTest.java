@@ -0,0 +1,137 @@
+package mServer.crawler;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class FingerprintSetTest {
+
+  private static List<DatenFilm> createFilms(final long[] aKeys) {
+    final List<DatenFilm> films = new ArrayList<>(aKeys.length);
+    for (long key : aKeys) {
+      final DatenFilm film = new DatenFilm();
+      film.arr[DatenFilm.FILM_NR] = String.valueOf(key);
+      films.add(film);
+    }
+    return films;
+  }
+
+  private static long getKey(final DatenFilm aFilm) {
+    return Long.parseLong(aFilm.arr[DatenFilm.FILM_NR]);
+  }
+
+  private static long[] createKeys(final int aCount, final long aSeed) {
+    final Random random = new Random(aSeed);
+    final long[] keys = new long[aCount];
+    for (int i = 0; i < aCount; i++) {
+      switch (i % 10) {
+        case 0:
+          // doppelte Schlüssel
+          keys[i] = i > 0 ? keys[random.nextInt(i)] : 0;
+          break;
+        case 1:
+          // gleiche obere Bits, also derselbe Shard
+          keys[i] = 0x7000000000000000L | random.nextInt(1000);
+          break;
+        case 2:
+          keys[i] = random.nextInt(100);
+          break;
+        default:
+          keys[i] = random.nextLong();
+      }
+    }
+    keys[aCount / 2] = 0;
+    return keys;
+  }
+
+  private static void assertSameAs(final FingerprintSet aActual, final long[] aKeys, final long aSeed) {
+    final Set<Long> expected = new HashSet<>();
+    for (long key : aKeys) {
+      expected.add(key);
+    }
+
+    assertThat(aActual.size(), equalTo(expected.size()));
+    for (long key : aKeys) {
+      assertThat(aActual.contains(key), equalTo(true));
+    }
+    final Random random = new Random(aSeed + 1);
+    for (int i = 0; i < aKeys.length; i++) {
+      final long key = i % 2 == 0 ? random.nextLong() : random.nextInt(200) - 100;
+      assertThat(aActual.contains(key), equalTo(expected.contains(key)));
+    }
+  }
+
+  @Test
+  public void testOfSmallList() {
+    final long[] keys = createKeys(1000, 1);
+
+    assertSameAs(FingerprintSet.of(createFilms(keys), FingerprintSetTest::getKey), keys, 1);
+  }
+
+  @Test
+  public void testOfLargeListBuiltInParallel() {
+    final long[] keys = createKeys(100_000, 2);
+
+    assertSameAs(FingerprintSet.of(createFilms(keys), FingerprintSetTest::getKey), keys, 2);
+  }
+
+  @Test
+  public void testOfEmptyList() {
+    final FingerprintSet target = FingerprintSet.of(new ArrayList<>(), FingerprintSetTest::getKey);
+
+    assertThat(target.size(), equalTo(0));
+    assertThat(target.contains(0), equalTo(false));
+    assertThat(target.contains(42), equalTo(false));
+  }
+
+  @Test
+  public void testAddWithResize() {
+    final long[] keys = createKeys(100_000, 3);
+    final FingerprintSet target = new FingerprintSet();
+    final Set<Long> expected = new HashSet<>();
+
+    for (long key : keys) {
+      assertThat(target.add(key), equalTo(expected.add(key)));
+    }
+
+    assertSameAs(target, keys, 3);
+  }
+
+  @Test
+  public void testAddToLargeList() {
+    final long[] keys = createKeys(100_000, 4);
+    final long[] moreKeys = createKeys(10_000, 5);
+    final FingerprintSet target = FingerprintSet.of(createFilms(keys), FingerprintSetTest::getKey);
+    final Set<Long> expected = new HashSet<>();
+    for (long key : keys) {
+      expected.add(key);
+    }
+
+    for (long key : moreKeys) {
+      assertThat(target.add(key), equalTo(expected.add(key)));
+    }
+
+    final long[] allKeys = new long[keys.length + moreKeys.length];
+    System.arraycopy(keys, 0, allKeys, 0, keys.length);
+    System.arraycopy(moreKeys, 0, allKeys, keys.length, moreKeys.length);
+    assertSameAs(target, allKeys, 4);
+  }
+
+  @Test
+  public void testZeroKey() {
+    final FingerprintSet target = new FingerprintSet();
+
+    assertThat(target.contains(0), equalTo(false));
+    assertThat(target.add(0), equalTo(true));
+    assertThat(target.add(0), equalTo(false));
+    assertThat(target.contains(0), equalTo(true));
+    assertThat(target.size(), equalTo(1));
+  }
+}
@@ -0,0 +1,108 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilme;
+import static mServer.test.TestFilme.createListe;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.Config;
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import java.util.Arrays;
+import java.util.Collections;
+import mServer.crawler.sender.base.CancellationToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ImportPrefetchTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ImportPrefetch target = new ImportPrefetch();
+
+  @Before
+  public void setUp() {
+    CancellationToken.startRun();
+    Config.setStop(false);
+  }
+
+  @After
+  public void tearDown() {
+    target.clear();
+    CancellationToken.startRun();
+    Config.setStop(false);
+  }
+
+  private String write(final String aName, final ListeFilme aListe) {
+    final String file = folder.getRoot().toPath().resolve(aName).toString();
+    assertThat(new FilmlistOutput(aListe, file).write(), equalTo(true));
+    return file;
+  }
+
+  @Test
+  public void testListLoaded() {
+    final ListeFilme liste = createListe(300);
+    final String file = write("filme.json", liste);
+
+    target.start(Arrays.asList(file, "", null));
+    final CompactFilmStore actual = target.get(file);
+    assertThat(actual, notNullValue());
+    assertSameFilme(actual.toListeFilme(), liste, DatenFilm.JSON_SELECTED_COLUMNS);
+  }
+
+  @Test
+  public void testSameSourceLoadedOnce() {
+    final String file = write("filme.json", createListe(10));
+
+    target.start(Arrays.asList(file, file));
+    final CompactFilmStore actual = target.get(file);
+    target.start(Collections.singletonList(file));
+    assertThat(target.get(file), sameInstance(actual));
+  }
+
+  @Test
+  public void testUnknownSourceNotLoaded() {
+    final String file = write("filme.json", createListe(10));
+
+    target.start(Collections.singletonList(file));
+    assertThat(target.get(folder.getRoot().toPath().resolve("andere.json").toString()), nullValue());
+    target.clear();
+    assertThat(target.get(file), nullValue());
+  }
+
+  @Test
+  public void testStoppedRunDiscarded() {
+    final String file = write("filme.json", createListe(10));
+    Config.setStop(true);
+
+    target.start(Collections.singletonList(file));
+    assertThat(target.get(file), nullValue());
+  }
+
+  @Test
+  public void testCancelledRunDiscardedAfterReset() {
+    final String file = write("filme.json", createListe(10));
+    CancellationToken.cancelRun();
+
+    target.start(Collections.singletonList(file));
+    // der nächste Lauf setzt den Stop zurück, der Token des Ladens bleibt abgebrochen
+    CancellationToken.startRun();
+    Config.setStop(false);
+    assertThat(target.get(file), nullValue());
+  }
+
+  @Test
+  public void testEmptyListDiscarded() {
+    final String file = write("filme.json", new ListeFilme());
+
+    target.start(Collections.singletonList(file));
+    assertThat(target.get(file), nullValue());
+  }
+}
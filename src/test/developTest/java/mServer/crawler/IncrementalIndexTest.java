@@ -0,0 +1,162 @@
+package mServer.crawler;
+
+import static mServer.test.TestFilme.assertSameFilme;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import mServer.test.TestFilme;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalIndexTest {
+
+  private static final String SENDER = "ARD";
+  private static final int REVALIDATION_SAMPLE = 10;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(1000));
+  private int senderLoadHow;
+
+  @Before
+  public void setUp() {
+    senderLoadHow = CrawlerConfig.senderLoadHow;
+    CrawlerConfig.senderLoadHow = CrawlerConfig.LOAD_INCREMENTAL;
+  }
+
+  @After
+  public void tearDown() {
+    CrawlerConfig.senderLoadHow = senderLoadHow;
+  }
+
+  private IncrementalIndex createIndex() {
+    final Path file = folder.getRoot().toPath().resolve("incremental.idx");
+    return new IncrementalIndex(file, now::get);
+  }
+
+  /**
+   * @param aRunNumber the number of the run
+   * @param aSampled true for an id loaded again in the run
+   * @return an id (not) in the sample of the run
+   */
+  private static String createId(final int aRunNumber, final boolean aSampled) {
+    for (int i = 0;; i++) {
+      final String id = "detail-" + i;
+      if ((Math.floorMod(id.hashCode() + aRunNumber, REVALIDATION_SAMPLE) == 0) == aSampled) {
+        return id;
+      }
+    }
+  }
+
+  private static List<DatenFilm> createFilms() {
+    return Arrays.asList(TestFilme.createFilm(1), TestFilme.createFilm(2));
+  }
+
+  /**
+   * records the films in a first run, the next run has the number 1.
+   */
+  private void recordFilms(final String aId, final List<DatenFilm> aFilms) {
+    final IncrementalIndex index = createIndex();
+    index.start(new CompactFilmStore());
+    index.recordFilms(SENDER, aId, aFilms);
+    index.finish();
+  }
+
+  /**
+   * starts the next run with the films of the previous one and tries to reuse
+   * the films of the id.
+   *
+   * @return the reused films, null if the page must be loaded
+   */
+  private List<DatenFilm> reuseFilms(final String aId, final List<DatenFilm> aFilmeAlt) {
+    final IncrementalIndex index = createIndex();
+    index.start(new CompactFilmStore(aFilmeAlt));
+    final List<DatenFilm> reused = new ArrayList<>();
+    final boolean result = index.reuseFilms(SENDER, aId, reused::add);
+    index.finish();
+    if (!result) {
+      assertThat(reused.size(), equalTo(0));
+      return null;
+    }
+    return reused;
+  }
+
+  @Test
+  public void testReuseFilms() {
+    final String id = createId(1, false);
+    final List<DatenFilm> films = createFilms();
+    recordFilms(id, films);
+
+    now.addAndGet(TimeUnit.DAYS.toMillis(7) - 1);
+    assertSameFilme(reuseFilms(id, films), films);
+  }
+
+  @Test
+  public void testUnknownIdLoaded() {
+    final List<DatenFilm> films = createFilms();
+    recordFilms(createId(1, false), films);
+
+    assertThat(reuseFilms("detail-unbekannt", films), equalTo(null));
+  }
+
+  @Test
+  public void testStaleIdLoaded() {
+    final String id = createId(1, false);
+    final List<DatenFilm> films = createFilms();
+    recordFilms(id, films);
+
+    now.addAndGet(TimeUnit.DAYS.toMillis(7));
+    assertThat(reuseFilms(id, films), equalTo(null));
+  }
+
+  @Test
+  public void testSampledIdLoaded() {
+    final String id = createId(1, true);
+    final List<DatenFilm> films = createFilms();
+    recordFilms(id, films);
+
+    assertThat(reuseFilms(id, films), equalTo(null));
+    // in der nächsten Runde nicht mehr in der Stichprobe
+    assertSameFilme(reuseFilms(id, films), films);
+  }
+
+  @Test
+  public void testChangedFilmLoaded() {
+    final String id = createId(1, false);
+    recordFilms(id, createFilms());
+
+    final List<DatenFilm> filmeAlt = createFilms();
+    filmeAlt.get(1).arr[DatenFilm.FILM_TITEL] = "Titel geändert";
+    assertThat(reuseFilms(id, filmeAlt), equalTo(null));
+  }
+
+  @Test
+  public void testMissingFilmLoaded() {
+    final String id = createId(1, false);
+    final List<DatenFilm> films = createFilms();
+    recordFilms(id, films);
+
+    assertThat(reuseFilms(id, films.subList(0, 1)), equalTo(null));
+  }
+
+  @Test
+  public void testNotIncrementalLoaded() {
+    final String id = createId(1, false);
+    final List<DatenFilm> films = createFilms();
+    recordFilms(id, films);
+
+    CrawlerConfig.senderLoadHow = CrawlerConfig.LOAD_SHORT;
+    assertThat(reuseFilms(id, films), equalTo(null));
+  }
+}
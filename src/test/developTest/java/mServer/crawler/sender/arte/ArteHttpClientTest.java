@@ -0,0 +1,72 @@
+package mServer.crawler.sender.arte;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import mServer.crawler.FilmeSuchen;
+import mServer.crawler.RunSender;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArteHttpClientTest {
+
+  private static final Logger LOG = LogManager.getLogger(ArteHttpClientTest.class);
+  private static final String SENDER = "ArteHttpClientTest";
+
+  private MockWebServer mockServer;
+  private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) {
+        requestTimes.add(System.nanoTime());
+        if (requestTimes.size() < 3) {
+          return new MockResponse().setResponseCode(429);
+        }
+        return new MockResponse().setResponseCode(200).setBody("{\"name\":\"arte\"}");
+      }
+    });
+    mockServer.start();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mockServer.shutdown();
+  }
+
+  private static class Dto {
+
+    private String name;
+  }
+
+  @Test
+  public void testTooManyRequestsWithoutRetryAfterNotRetriedImmediately() {
+    final long fehlversuche = FilmeSuchen.listeSenderLaufen.get(SENDER, RunSender.Count.FEHLVERSUCHE);
+
+    final Dto actual = ArteHttpClient.executeRequest(SENDER, LOG, new Gson(), mockServer.url("/api/video").toString(),
+            Dto.class);
+
+    assertThat(actual.name, equalTo("arte"));
+    assertThat(mockServer.getRequestCount(), equalTo(3));
+    assertThat(FilmeSuchen.listeSenderLaufen.get(SENDER, RunSender.Count.FEHLVERSUCHE), equalTo(fehlversuche + 2));
+    // jeder 429 halbiert die Rate (höchstens 20/s), gewartet wird das doppelte bzw. vierfache Intervall
+    final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(requestTimes.get(2) - requestTimes.get(0));
+    assertTrue("elapsed " + elapsedMillis, elapsedMillis >= 1000);
+  }
+}
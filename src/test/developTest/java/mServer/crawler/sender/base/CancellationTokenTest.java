@@ -0,0 +1,157 @@
+package mServer.crawler.sender.base;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import de.mediathekview.mlib.Config;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import mServer.tool.MserverDaten;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CancellationTokenTest {
+
+  private static final String SENDER = "CancellationTokenTest";
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final AtomicInteger received = new AtomicInteger();
+  private MockWebServer mockServer;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() throws IOException {
+    CancellationToken.startRun();
+    mockServer = new MockWebServer();
+    // der Server antwortet erst am Ende des Tests
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+        received.incrementAndGet();
+        release.await(30, TimeUnit.SECONDS);
+        return new MockResponse().setResponseCode(200);
+      }
+    });
+    mockServer.start();
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    release.countDown();
+    executor.shutdownNow();
+    mockServer.shutdown();
+    CancellationToken.startRun();
+    Config.setStop(false);
+  }
+
+  private Future<Integer> execute(final String aPath) {
+    return executor.submit(() -> {
+      final String previous = SenderQuota.enter(SENDER);
+      try (Response response = HttpTransport.getInstance().getHttpClient()
+              .newCall(new Request.Builder().url(mockServer.url(aPath)).build()).execute()) {
+        return response.code();
+      } finally {
+        SenderQuota.exit(previous);
+      }
+    });
+  }
+
+  private static void assertFailsWithIOException(final Future<?> aFuture) throws Exception {
+    try {
+      aFuture.get(5, TimeUnit.SECONDS);
+      fail("no exception");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(IOException.class));
+    }
+  }
+
+  private static void awaitCount(final AtomicInteger aCount, final int aExpected) throws InterruptedException {
+    final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (aCount.get() < aExpected && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    assertThat(aCount.get(), equalTo(aExpected));
+  }
+
+  @Test
+  public void testSleepWokenByCancel() throws Exception {
+    final CancellationToken token = CancellationToken.getRunToken();
+    final Future<Boolean> sleep = executor.submit(() -> token.sleep(1, TimeUnit.MINUTES));
+    Thread.sleep(100);
+
+    CancellationToken.cancelRun();
+    assertThat(sleep.get(5, TimeUnit.SECONDS), equalTo(true));
+    assertThat(Config.getStop(), equalTo(true));
+  }
+
+  @Test
+  public void testRetryAfterWaitWokenByCancel() throws Exception {
+    final HostRateLimiter limiter = new HostRateLimiter(Collections.emptyMap());
+    limiter.onResponse("api.example.org", 429, "600");
+    final Future<?> acquire = executor.submit(() -> {
+      limiter.acquire("api.example.org");
+      return null;
+    });
+    Thread.sleep(100);
+    assertThat(acquire.isDone(), equalTo(false));
+
+    CancellationToken.cancelRun();
+    acquire.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testRunningCallAborted() throws Exception {
+    final Future<Integer> call = execute("/seite.json");
+    awaitCount(received, 1);
+
+    CancellationToken.cancelRun();
+    assertFailsWithIOException(call);
+  }
+
+  @Test
+  public void testWaitForSenderPermitWokenByCancel() throws Exception {
+    // alle Permits des Senders sind belegt, ein weiterer Request wartet
+    final List<Future<Integer>> calls = new ArrayList<>();
+    final int maxRequests = MserverDaten.getCrawlerSenderMaxRequests();
+    for (int i = 0; i <= maxRequests; i++) {
+      calls.add(execute("/seite" + i + ".json"));
+    }
+    awaitCount(received, maxRequests);
+    Thread.sleep(100);
+    assertThat(SenderQuota.getActiveRequests(SENDER), equalTo(maxRequests));
+
+    CancellationToken.cancelRun();
+    for (Future<Integer> call : calls) {
+      assertFailsWithIOException(call);
+    }
+    assertThat(received.get(), equalTo(maxRequests));
+    assertThat(SenderQuota.getActiveRequests(SENDER), equalTo(0));
+  }
+
+  @Test
+  public void testNewCallFailsAfterCancel() throws Exception {
+    CancellationToken.cancelRun();
+
+    assertFailsWithIOException(execute("/seite.json"));
+    assertThat(received.get(), equalTo(0));
+  }
+}
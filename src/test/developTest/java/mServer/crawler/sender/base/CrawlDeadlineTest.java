@@ -0,0 +1,119 @@
+package mServer.crawler.sender.base;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import mServer.crawler.sender.MediathekReader;
+import org.junit.After;
+import org.junit.Test;
+
+public class CrawlDeadlineTest {
+
+  private static final String SENDER = "Testsender";
+  private static final long BUDGET_MILLIS = 400;
+
+  private static class UrlTask extends AbstractUrlTask<String, CrawlerUrlDTO> {
+
+    private static final long serialVersionUID = 1L;
+
+    UrlTask(final MediathekReader aCrawler, final ConcurrentLinkedQueue<CrawlerUrlDTO> aUrls) {
+      super(aCrawler, aUrls);
+    }
+
+    @Override
+    protected void processElement(final CrawlerUrlDTO aDTO) {
+      addResult(aDTO.getUrl());
+    }
+
+    @Override
+    protected AbstractRecursivConverterTask<String, CrawlerUrlDTO> createNewOwnInstance(
+            final ConcurrentLinkedQueue<CrawlerUrlDTO> aElementsToProcess) {
+      return new UrlTask(crawler, aElementsToProcess);
+    }
+  }
+
+  private static CrawlerUrlDTO createUrl(final String aUrl, final CrawlPriority aPriority) {
+    final CrawlerUrlDTO url = new CrawlerUrlDTO(aUrl);
+    if (aPriority != null) {
+      url.setPriority(aPriority);
+    }
+    return url;
+  }
+
+  /**
+   * starts the budget of the sender and waits until 80% of it are used.
+   */
+  private static void useBudget() throws InterruptedException {
+    CrawlDeadline.start(System.currentTimeMillis() + BUDGET_MILLIS);
+    CrawlDeadline.startSender(SENDER);
+    Thread.sleep(BUDGET_MILLIS * 8 / 10);
+  }
+
+  private static Set<String> runTask(final CrawlerUrlDTO... aUrls) {
+    final MediathekReader crawler = mock(MediathekReader.class);
+    when(crawler.getSendername()).thenReturn(SENDER);
+    final ConcurrentLinkedQueue<CrawlerUrlDTO> urls = new ConcurrentLinkedQueue<>();
+    for (CrawlerUrlDTO url : aUrls) {
+      urls.add(url);
+    }
+    return new UrlTask(crawler, urls).invoke();
+  }
+
+  @After
+  public void tearDown() {
+    CrawlDeadline.start(0);
+  }
+
+  @Test
+  public void testDefaultPriorityIsUnprioritised() {
+    assertThat(new CrawlerUrlDTO("https://www.example.org").getPriority(), equalTo(CrawlPriority.UNPRIORITISED));
+  }
+
+  @Test
+  public void testWithoutDeadlineAllPrioritiesAreWithinBudget() {
+    CrawlDeadline.start(0);
+    CrawlDeadline.startSender(SENDER);
+
+    for (CrawlPriority priority : CrawlPriority.values()) {
+      assertThat(CrawlDeadline.isWithinBudget(SENDER, priority), equalTo(true));
+    }
+  }
+
+  @Test
+  public void testPrioritiesAfterMostOfTheBudget() throws InterruptedException {
+    useBudget();
+
+    assertThat(CrawlDeadline.isWithinBudget(SENDER, CrawlPriority.FRESH), equalTo(true));
+    assertThat(CrawlDeadline.isWithinBudget(SENDER, CrawlPriority.UNPRIORITISED), equalTo(true));
+    assertThat(CrawlDeadline.isWithinBudget(SENDER, CrawlPriority.TOPIC), equalTo(false));
+    assertThat(CrawlDeadline.isWithinBudget(SENDER, CrawlPriority.ARCHIVE), equalTo(false));
+  }
+
+  @Test
+  public void testUnmarkedCrawlerProcessesAllUrlsAfterMostOfTheBudget() throws InterruptedException {
+    useBudget();
+
+    final Set<String> actual = runTask(createUrl("https://www.example.org/1", null),
+            createUrl("https://www.example.org/2", null));
+
+    assertThat(actual.size(), equalTo(2));
+    assertThat(CrawlDeadline.getSkipped(SENDER), equalTo(0));
+  }
+
+  @Test
+  public void testMarkedCrawlerLeavesOutLowPrioritiesAfterMostOfTheBudget() throws InterruptedException {
+    useBudget();
+
+    final Set<String> actual = runTask(createUrl("https://www.example.org/topic", CrawlPriority.TOPIC),
+            createUrl("https://www.example.org/fresh", CrawlPriority.FRESH),
+            createUrl("https://www.example.org/archive", CrawlPriority.ARCHIVE));
+
+    assertThat(actual.size(), equalTo(1));
+    assertThat(actual.contains("https://www.example.org/fresh"), equalTo(true));
+    assertThat(CrawlDeadline.getSkipped(SENDER), equalTo(2));
+  }
+}
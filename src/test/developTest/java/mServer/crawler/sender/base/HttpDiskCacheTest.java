@@ -0,0 +1,162 @@
+package mServer.crawler.sender.base;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HttpDiskCacheTest {
+
+  private static final String PATH = "/seite.json";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private MockWebServer mockServer;
+  private OkHttpClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    mockServer.start();
+    final HttpDiskCache cache = new HttpDiskCache(folder.getRoot().toPath(),
+            Collections.singleton(mockServer.getHostName()), 1024L * 1024L, TimeUnit.DAYS.toMillis(1));
+    client = new OkHttpClient.Builder().addInterceptor(cache).build();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mockServer.shutdown();
+  }
+
+  private static MockResponse ok(final String aEtag, final String aBody) {
+    return new MockResponse().setResponseCode(200)
+            .addHeader("ETag", aEtag)
+            .addHeader("Content-Type", "application/json")
+            .setBody(aBody);
+  }
+
+  private static MockResponse notModified(final String aEtag) {
+    return new MockResponse().setResponseCode(304).addHeader("ETag", aEtag);
+  }
+
+  private Response get() throws IOException {
+    return client.newCall(new Request.Builder().url(mockServer.url(PATH)).build()).execute();
+  }
+
+  private String getBody() throws IOException {
+    try (Response response = get()) {
+      assertThat(response.code(), equalTo(200));
+      return response.body().string();
+    }
+  }
+
+  private String takeIfNoneMatch() throws InterruptedException {
+    final RecordedRequest request = mockServer.takeRequest();
+    return request.getHeader("If-None-Match");
+  }
+
+  @Test
+  public void testNotModifiedReturnsStoredResponse() throws IOException, InterruptedException {
+    mockServer.enqueue(ok("\"a\"", "{\"inhalt\":1}"));
+    mockServer.enqueue(notModified("\"a\"").addHeader("Cache-Control", "max-age=60"));
+
+    assertThat(getBody(), equalTo("{\"inhalt\":1}"));
+    try (Response response = get()) {
+      assertThat(response.code(), equalTo(200));
+      assertThat(response.body().string(), equalTo("{\"inhalt\":1}"));
+      assertThat(response.header("Content-Type"), equalTo("application/json"));
+      // die Header der 304-Antwort ersetzen die gespeicherten
+      assertThat(response.header("Cache-Control"), equalTo("max-age=60"));
+    }
+
+    assertThat(takeIfNoneMatch(), nullValue());
+    assertThat(takeIfNoneMatch(), equalTo("\"a\""));
+  }
+
+  @Test
+  public void testNotModifiedUpdatesStoredHeaders() throws IOException, InterruptedException {
+    mockServer.enqueue(ok("\"a\"", "alt"));
+    mockServer.enqueue(notModified("\"b\"").addHeader("Cache-Control", "max-age=60"));
+    mockServer.enqueue(notModified("\"b\""));
+
+    getBody();
+    getBody();
+    try (Response response = get()) {
+      assertThat(response.body().string(), equalTo("alt"));
+      assertThat(response.header("Cache-Control"), equalTo("max-age=60"));
+    }
+
+    takeIfNoneMatch();
+    assertThat(takeIfNoneMatch(), equalTo("\"a\""));
+    assertThat(takeIfNoneMatch(), equalTo("\"b\""));
+  }
+
+  @Test
+  public void testOkReplacesStoredResponse() throws IOException, InterruptedException {
+    mockServer.enqueue(ok("\"a\"", "alt"));
+    mockServer.enqueue(ok("\"b\"", "neu"));
+    mockServer.enqueue(notModified("\"b\""));
+
+    assertThat(getBody(), equalTo("alt"));
+    assertThat(getBody(), equalTo("neu"));
+    assertThat(getBody(), equalTo("neu"));
+
+    takeIfNoneMatch();
+    assertThat(takeIfNoneMatch(), equalTo("\"a\""));
+    assertThat(takeIfNoneMatch(), equalTo("\"b\""));
+  }
+
+  @Test
+  public void testServerErrorKeepsStoredResponse() throws IOException, InterruptedException {
+    mockServer.enqueue(ok("\"a\"", "alt"));
+    mockServer.enqueue(new MockResponse().setResponseCode(503));
+    mockServer.enqueue(new MockResponse().setResponseCode(429));
+    mockServer.enqueue(notModified("\"a\""));
+
+    assertThat(getBody(), equalTo("alt"));
+    try (Response response = get()) {
+      assertThat(response.code(), equalTo(503));
+    }
+    try (Response response = get()) {
+      assertThat(response.code(), equalTo(429));
+    }
+    assertThat(getBody(), equalTo("alt"));
+
+    takeIfNoneMatch();
+    assertThat(takeIfNoneMatch(), equalTo("\"a\""));
+    assertThat(takeIfNoneMatch(), equalTo("\"a\""));
+    assertThat(takeIfNoneMatch(), equalTo("\"a\""));
+  }
+
+  @Test
+  public void testNotFoundDeletesStoredResponse() throws IOException, InterruptedException {
+    mockServer.enqueue(ok("\"a\"", "alt"));
+    mockServer.enqueue(new MockResponse().setResponseCode(404));
+    mockServer.enqueue(ok("\"b\"", "neu"));
+
+    assertThat(getBody(), equalTo("alt"));
+    try (Response response = get()) {
+      assertThat(response.code(), equalTo(404));
+    }
+    assertThat(getBody(), equalTo("neu"));
+
+    takeIfNoneMatch();
+    assertThat(takeIfNoneMatch(), equalTo("\"a\""));
+    assertThat(takeIfNoneMatch(), nullValue());
+  }
+}
@@ -0,0 +1,82 @@
+package mServer.crawler.sender.base;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import mServer.tool.MserverDaten;
+import okhttp3.CacheControl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SenderQuotaTest {
+
+  private static final String SENDER = "SenderQuotaTest";
+
+  private MockWebServer mockServer;
+
+  @Before
+  public void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) {
+        return new MockResponse().setResponseCode(200).setBody("#EXTM3U " + request.getPath());
+      }
+    });
+    mockServer.start();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mockServer.shutdown();
+  }
+
+  private Response execute(final String aPath) throws IOException {
+    // ohne Puffer, der Body bleibt offen bis er geschlossen wird
+    final Request request = new Request.Builder().url(mockServer.url(aPath))
+            .cacheControl(new CacheControl.Builder().noStore().build()).build();
+    return HttpTransport.getInstance().getHttpClient().newCall(request).execute();
+  }
+
+  @Test
+  public void testRequestWhileBodiesOfSenderAreOpen() throws Exception {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<String> nested = executor.submit(() -> {
+        final String previous = SenderQuota.enter(SENDER);
+        final List<Response> open = new ArrayList<>();
+        try {
+          for (int i = 0; i <= MserverDaten.getCrawlerSenderMaxRequests(); i++) {
+            open.add(execute("/film" + i + ".json"));
+          }
+          assertThat(SenderQuota.getActiveRequests(SENDER), equalTo(0));
+          try (Response response = execute("/film.m3u8")) {
+            return response.body().string();
+          }
+        } finally {
+          open.forEach(Response::close);
+          SenderQuota.exit(previous);
+        }
+      });
+
+      assertThat(nested.get(10, TimeUnit.SECONDS), equalTo("#EXTM3U /film.m3u8"));
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(SenderQuota.getHosts(SENDER).contains(mockServer.getHostName()), equalTo(true));
+  }
+}
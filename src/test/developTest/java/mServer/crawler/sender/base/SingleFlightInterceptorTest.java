@@ -0,0 +1,175 @@
+package mServer.crawler.sender.base;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import okhttp3.CacheControl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SingleFlightInterceptorTest {
+
+  private static final long MAX_BYTES = 100;
+  private static final long MAX_ENTRY_BYTES = 40;
+
+  private MockWebServer mockServer;
+  private SingleFlightInterceptor target;
+  private OkHttpClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) {
+        if (request.getPath().startsWith("/fehlt")) {
+          return new MockResponse().setResponseCode(404).setBody("nicht gefunden");
+        }
+        if (request.getPath().startsWith("/gross")) {
+          return new MockResponse().setBody(createBody(request.getPath(), 1000));
+        }
+        return new MockResponse().setBody(createBody(request.getPath(), 30));
+      }
+    });
+    mockServer.start();
+    target = new SingleFlightInterceptor(MAX_BYTES, MAX_ENTRY_BYTES);
+    client = new OkHttpClient.Builder().addInterceptor(target).build();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mockServer.shutdown();
+  }
+
+  private static String createBody(final String aPath, final int aLength) {
+    final StringBuilder body = new StringBuilder(aPath);
+    while (body.length() < aLength) {
+      body.append('.');
+    }
+    return body.toString();
+  }
+
+  private String get(final Request.Builder aRequest) throws IOException {
+    try (Response response = client.newCall(aRequest.build()).execute()) {
+      return response.body().string();
+    }
+  }
+
+  private String get(final String aPath) throws IOException {
+    return get(new Request.Builder().url(mockServer.url(aPath)));
+  }
+
+  @Test
+  public void testConcurrentRequestsShareOneResponse() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+        release.await(10, TimeUnit.SECONDS);
+        return new MockResponse().setBody(createBody(request.getPath(), 30));
+      }
+    });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> get("/seite.json")));
+      }
+      // alle Requests laufen, bevor der Server antwortet
+      Thread.sleep(500);
+      release.countDown();
+
+      for (Future<String> result : results) {
+        assertThat(result.get(10, TimeUnit.SECONDS), equalTo(createBody("/seite.json", 30)));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(mockServer.getRequestCount(), equalTo(1));
+  }
+
+  @Test
+  public void testRecentResponseReused() throws IOException {
+    assertThat(get("/seite.json?b=2&a=1"), equalTo(createBody("/seite.json?b=2&a=1", 30)));
+    // die Reihenfolge der Parameter ändert die Antwort nicht
+    assertThat(get("/seite.json?a=1&b=2"), equalTo(createBody("/seite.json?b=2&a=1", 30)));
+    assertThat(mockServer.getRequestCount(), equalTo(1));
+  }
+
+  @Test
+  public void testOtherHeadersNotShared() throws IOException {
+    get("/seite.json");
+    get(new Request.Builder().url(mockServer.url("/seite.json")).header("Accept-Language", "fr"));
+
+    assertThat(mockServer.getRequestCount(), equalTo(2));
+  }
+
+  @Test
+  public void testLargeBodyNotBuffered() throws IOException {
+    assertThat(get("/gross.json"), equalTo(createBody("/gross.json", 1000)));
+    assertThat(get("/gross.json"), equalTo(createBody("/gross.json", 1000)));
+
+    assertThat(mockServer.getRequestCount(), equalTo(2));
+  }
+
+  @Test
+  public void testNoStoreNotShared() throws IOException {
+    final Request.Builder request = new Request.Builder().url(mockServer.url("/seite.json"))
+            .cacheControl(new CacheControl.Builder().noStore().build());
+    get(request);
+    get(request);
+
+    assertThat(mockServer.getRequestCount(), equalTo(2));
+  }
+
+  @Test
+  public void testErrorNotKept() throws IOException {
+    try (Response response = client.newCall(new Request.Builder().url(mockServer.url("/fehlt.json")).build()).execute()) {
+      assertThat(response.code(), equalTo(404));
+      assertThat(response.body().string(), equalTo("nicht gefunden"));
+    }
+    get("/fehlt.json");
+
+    assertThat(mockServer.getRequestCount(), equalTo(2));
+  }
+
+  @Test
+  public void testRecentLimitedByBytes() throws IOException {
+    // je 30 Bytes, es passen drei Antworten
+    for (int i = 1; i <= 4; i++) {
+      get("/seite" + i + ".json");
+    }
+    get("/seite4.json");
+    get("/seite2.json");
+    assertThat(mockServer.getRequestCount(), equalTo(4));
+
+    get("/seite1.json");
+    assertThat(mockServer.getRequestCount(), equalTo(5));
+  }
+
+  @Test
+  public void testClear() throws IOException {
+    get("/seite.json");
+    target.clear();
+    get("/seite.json");
+
+    assertThat(mockServer.getRequestCount(), equalTo(2));
+  }
+}
@@ -0,0 +1,256 @@
+package mServer.crawler.sender.base;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UrlProbeCacheTest {
+
+  private static final long TTL = TimeUnit.HOURS.toMillis(1);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private MockWebServer mockServer;
+  private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(1000));
+  private final AtomicInteger statusCode = new AtomicInteger(200);
+
+  @Before
+  public void setUp() throws IOException {
+    mockServer = new MockWebServer();
+    mockServer.start();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    mockServer.shutdown();
+  }
+
+  private Path getFile() {
+    return folder.getRoot().toPath().resolve("url-probes.idx");
+  }
+
+  private UrlProbeCache createCache() {
+    return new UrlProbeCache(getFile(), TTL, 8 * TTL);
+  }
+
+  private UrlProbeCache createCacheWithClock() {
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) {
+        return new MockResponse().setResponseCode(statusCode.get());
+      }
+    });
+    return new UrlProbeCache(getFile(), TTL, 8 * TTL, now::get);
+  }
+
+  /**
+   * probes the url after the given time and checks whether a request is sent.
+   */
+  private void assertProbe(final UrlProbeCache aTarget, final long aAfter, final boolean aRequested) {
+    final int requestCount = mockServer.getRequestCount();
+    now.addAndGet(aAfter);
+    aTarget.probe(url("/film.mp4"));
+    assertThat(mockServer.getRequestCount(), equalTo(aRequested ? requestCount + 1 : requestCount));
+  }
+
+  private String url(final String aPath) {
+    return mockServer.url(aPath).toString();
+  }
+
+  @Test
+  public void testHeadNotAllowedGetUsed() throws InterruptedException {
+    // wie bei m3u8-Dateien: HEAD wird abgelehnt, GET liefert die Datei
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) {
+        if ("GET".equals(request.getMethod())) {
+          return new MockResponse().setResponseCode(200)
+                  .addHeader("Content-Type", "application/vnd.apple.mpegurl")
+                  .setBody("#EXTM3U");
+        }
+        return new MockResponse().setResponseCode(405);
+      }
+    });
+    final UrlProbeCache target = createCache();
+    final String url = url("/film.m3u8");
+
+    assertThat(target.probe(url).get().getStatusCode(), equalTo(405));
+    assertThat(mockServer.takeRequest().getMethod(), equalTo("HEAD"));
+
+    final UrlProbeCache.Probe probe = target.probe(url, true).get();
+    assertThat(probe.isSuccessful(), equalTo(true));
+    assertThat(probe.getContentType(), equalTo("application/vnd.apple.mpegurl"));
+    assertThat(mockServer.takeRequest().getMethod(), equalTo("GET"));
+
+    // die Ergebnisse von HEAD und GET werden getrennt gemerkt
+    assertThat(target.probe(url).get().getStatusCode(), equalTo(405));
+    assertThat(target.probe(url, true).get().getStatusCode(), equalTo(200));
+    assertThat(mockServer.getRequestCount(), equalTo(2));
+  }
+
+  @Test
+  public void testConcurrentProbesSendOneRequest() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+        release.await(10, TimeUnit.SECONDS);
+        return new MockResponse().setResponseCode(200).addHeader("Content-Length", "12000000");
+      }
+    });
+    final UrlProbeCache target = createCache();
+    final String url = url("/film.mp4");
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Optional<UrlProbeCache.Probe>>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> target.probe(url)));
+      }
+      // alle Aufrufe laufen, bevor der Server antwortet
+      Thread.sleep(500);
+      release.countDown();
+
+      for (Future<Optional<UrlProbeCache.Probe>> result : results) {
+        assertThat(result.get(10, TimeUnit.SECONDS).get().getContentLengthMb(), equalTo(12L));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(mockServer.getRequestCount(), equalTo(1));
+  }
+
+  @Test
+  public void testSaveAndRead() {
+    mockServer.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(final RecordedRequest request) {
+        switch (request.getPath()) {
+          case "/film.mp4":
+            return new MockResponse().setResponseCode(200)
+                    .addHeader("Content-Length", "42000000")
+                    .addHeader("Content-Type", "video/mp4");
+          case "/weiter.mp4":
+            return new MockResponse().setResponseCode(302).addHeader("Location", "/ziel.mp4");
+          case "/ziel.mp4":
+            return new MockResponse().setResponseCode(200).addHeader("Content-Type", "video/mp4");
+          default:
+            return new MockResponse().setResponseCode(404);
+        }
+      }
+    });
+    final UrlProbeCache first = createCache();
+    first.probe(url("/film.mp4"));
+    first.probe(url("/weiter.mp4"));
+    first.probe(url("/fehlt.mp4"));
+    first.probe(url("/film.mp4"), true);
+    first.save();
+    final int requestCount = mockServer.getRequestCount();
+
+    final UrlProbeCache target = createCache();
+    final UrlProbeCache.Probe film = target.probe(url("/film.mp4")).get();
+    assertThat(film.getStatusCode(), equalTo(200));
+    assertThat(film.getContentLength(), equalTo(42_000_000L));
+    assertThat(film.getContentType(), equalTo("video/mp4"));
+    assertThat(film.getFinalUrl(), equalTo(url("/film.mp4")));
+    assertThat(target.probe(url("/weiter.mp4")).get().getFinalUrl(), equalTo(url("/ziel.mp4")));
+    assertThat(target.probe(url("/fehlt.mp4")).get().getStatusCode(), equalTo(404));
+    assertThat(target.probe(url("/film.mp4"), true).get().getFinalUrl(), equalTo(url("/film.mp4")));
+    assertThat(mockServer.getRequestCount(), equalTo(requestCount));
+  }
+
+  @Test
+  public void testTtlDoubledWithEachSuccess() {
+    final UrlProbeCache target = createCacheWithClock();
+
+    assertProbe(target, 0, true);
+    assertProbe(target, TTL - 1, false);
+    assertProbe(target, 1, true);
+    assertProbe(target, 2 * TTL - 1, false);
+    assertProbe(target, 1, true);
+    assertProbe(target, 4 * TTL - 1, false);
+    assertProbe(target, 1, true);
+  }
+
+  @Test
+  public void testTtlLimitedToMaxTtl() {
+    final UrlProbeCache target = createCacheWithClock();
+
+    assertProbe(target, 0, true);
+    assertProbe(target, TTL, true);
+    assertProbe(target, 2 * TTL, true);
+    assertProbe(target, 4 * TTL, true);
+    // 8 * TTL ist das Maximum
+    assertProbe(target, 8 * TTL, true);
+    assertProbe(target, 8 * TTL - 1, false);
+    assertProbe(target, 1, true);
+  }
+
+  @Test
+  public void testFailureKeptAnEighthOfTtl() {
+    statusCode.set(404);
+    final UrlProbeCache target = createCacheWithClock();
+
+    assertProbe(target, 0, true);
+    assertProbe(target, TTL / 8 - 1, false);
+    assertProbe(target, 1, true);
+    assertProbe(target, TTL / 8 - 1, false);
+    assertProbe(target, 1, true);
+  }
+
+  @Test
+  public void testFirstFailureAfterSuccessCheckedAgain() {
+    final UrlProbeCache target = createCacheWithClock();
+    assertProbe(target, 0, true);
+    assertProbe(target, TTL, true);
+
+    statusCode.set(404);
+    assertProbe(target, 2 * TTL, true);
+    // evtl. nur ein kurzer Ausfall: sofort wieder prüfen
+    assertProbe(target, 0, true);
+    assertProbe(target, TTL / 8 - 1, false);
+    assertProbe(target, 1, true);
+
+    statusCode.set(200);
+    assertProbe(target, TTL / 8, true);
+    assertProbe(target, TTL - 1, false);
+  }
+
+  @Test
+  public void testTransientFailureNotStored() {
+    final UrlProbeCache target = createCacheWithClock();
+    assertProbe(target, 0, true);
+
+    statusCode.set(500);
+    assertProbe(target, TTL, true);
+    assertProbe(target, 0, true);
+
+    // der Verlauf bleibt: der nächste Erfolg zählt als zweiter
+    statusCode.set(200);
+    assertProbe(target, 0, true);
+    assertProbe(target, 2 * TTL - 1, false);
+    assertProbe(target, 1, true);
+  }
+}
@@ -0,0 +1,152 @@
+package mServer.test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import de.mediathekview.mlib.daten.DatenFilm;
+import de.mediathekview.mlib.daten.ListeFilme;
+import java.util.List;
+
+/**
+ * Films and film lists for the tests of the film list classes.
+ */
+public final class TestFilme {
+
+  private static final String[] SENDERS = {"ARD", "ZDF", "ORF", "SRF"};
+
+  private TestFilme() {
+  }
+
+  /**
+   * @param aLength the number of chars
+   * @param aFirst the first letter of the text
+   * @return a text with umlauts and chars outside the BMP, so UTF-8 needs
+   * several bytes per char
+   */
+  public static String createText(final int aLength, final char aFirst) {
+    final StringBuilder text = new StringBuilder(aLength + 1);
+    for (int i = 0; i < aLength; i++) {
+      switch (i % 7) {
+        case 0:
+          text.append('ä');
+          break;
+        case 1:
+          text.append("🎬");
+          i++;
+          break;
+        default:
+          text.append((char) (aFirst + i % 26));
+      }
+    }
+    return text.toString();
+  }
+
+  /**
+   * @param aNr the number of the film, films with the same number are equal
+   * @return a film with all fields of the film list set; sender and topic
+   * repeat for consecutive numbers, some fields are empty
+   */
+  public static DatenFilm createFilm(final int aNr) {
+    final DatenFilm film = new DatenFilm(SENDERS[aNr / 50 % SENDERS.length], "Thema äöü " + aNr / 10,
+            "https://www.example.org/film/" + aNr, "Titel " + aNr + " – „Sonderzeichen“",
+            "https://cdn.example.org/" + aNr + ".mp4", "", "0" + (1 + aNr % 9) + ".10.2020", "20:15:00", 1800 + aNr,
+            aNr % 7 == 0 ? "" : "Beschreibung " + aNr + "\nmit zweiter Zeile");
+    film.arr[DatenFilm.FILM_NR] = String.valueOf(aNr);
+    film.arr[DatenFilm.FILM_URL_SUBTITLE] = aNr % 2 == 0 ? "https://cdn.example.org/" + aNr + ".xml" : "";
+    film.arr[DatenFilm.FILM_URL_KLEIN] = "24|" + aNr + "_small.mp4";
+    film.arr[DatenFilm.FILM_URL_HD] = aNr % 3 == 0 ? "" : "24|" + aNr + "_hd.mp4";
+    film.arr[DatenFilm.FILM_URL_HISTORY] = createText(aNr % 300, 'a');
+    film.arr[DatenFilm.FILM_GEO] = aNr % 5 == 0 ? DatenFilm.GEO_DE + "-" + DatenFilm.GEO_AT : "";
+    return film;
+  }
+
+  /**
+   * @param aCount the number of films
+   * @return a film list with meta data and the films 0 to aCount - 1
+   */
+  public static ListeFilme createListe(final int aCount) {
+    final ListeFilme liste = new ListeFilme();
+    liste.metaDaten[ListeFilme.FILMLISTE_DATUM_NR] = "18.10.2026, 12:00";
+    liste.metaDaten[ListeFilme.FILMLISTE_DATUM_GMT_NR] = "18.10.2026, 10:00";
+    liste.metaDaten[ListeFilme.FILMLISTE_VERSION_NR] = "3";
+    liste.metaDaten[ListeFilme.FILMLISTE_PRGRAMM_NR] = "MSearch";
+    liste.metaDaten[ListeFilme.FILMLISTE_ID_NR] = "1234abcd";
+    for (int i = 0; i < aCount; i++) {
+      liste.add(createFilm(i));
+    }
+    return liste;
+  }
+
+  /**
+   * @return all fields of a film
+   */
+  public static int[] allFields() {
+    final int[] fields = new int[DatenFilm.MAX_ELEM];
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] = i;
+    }
+    return fields;
+  }
+
+  /**
+   * asserts that the fields of the films are equal.
+   *
+   * @param aActual the film to check
+   * @param aExpected the expected film
+   * @param aFields the fields to compare
+   */
+  public static void assertSameFilm(final DatenFilm aActual, final DatenFilm aExpected, final int... aFields) {
+    for (int field : aFields) {
+      assertThat("Feld " + field, aActual.arr[field], equalTo(aExpected.arr[field]));
+    }
+  }
+
+  /**
+   * asserts that all fields of the films are equal.
+   *
+   * @param aActual the film to check
+   * @param aExpected the expected film
+   */
+  public static void assertSameFilm(final DatenFilm aActual, final DatenFilm aExpected) {
+    assertSameFilm(aActual, aExpected, allFields());
+  }
+
+  /**
+   * asserts that the lists contain equal films in the same order.
+   *
+   * @param aActual the films to check
+   * @param aExpected the expected films
+   * @param aFields the fields to compare
+   */
+  public static void assertSameFilme(final List<DatenFilm> aActual, final List<DatenFilm> aExpected,
+          final int... aFields) {
+    assertThat(aActual.size(), equalTo(aExpected.size()));
+    for (int i = 0; i < aExpected.size(); i++) {
+      assertThat("Film " + i, aActual.get(i).arr[DatenFilm.FILM_URL],
+              equalTo(aExpected.get(i).arr[DatenFilm.FILM_URL]));
+      assertSameFilm(aActual.get(i), aExpected.get(i), aFields);
+    }
+  }
+
+  /**
+   * asserts that the lists contain equal films in the same order.
+   *
+   * @param aActual the films to check
+   * @param aExpected the expected films
+   */
+  public static void assertSameFilme(final List<DatenFilm> aActual, final List<DatenFilm> aExpected) {
+    assertSameFilme(aActual, aExpected, allFields());
+  }
+
+  /**
+   * asserts that the meta data of the lists are equal.
+   *
+   * @param aActual the list to check
+   * @param aExpected the expected list
+   */
+  public static void assertSameMetaDaten(final ListeFilme aActual, final ListeFilme aExpected) {
+    for (int i = 0; i < ListeFilme.MAX_ELEM; i++) {
+      assertThat("Metadaten " + i, aActual.metaDaten[i], equalTo(aExpected.metaDaten[i]));
+    }
+  }
+}
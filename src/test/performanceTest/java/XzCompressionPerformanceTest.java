@@ -0,0 +1,95 @@
+import mServer.tool.ParallelXzOutputStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Compares the single-threaded xz compression with the parallel one on data
+ * looking like a film list.
+ */
+public class XzCompressionPerformanceTest
+{
+    private static final int DATA_SIZE = 64 << 20;
+    private static final int BLOCK_SIZE = 8 << 20;
+    private static final String[] SENDER = {"ARD", "ZDF", "3Sat", "ARTE.DE", "KiKA", "SWR", "NDR", "BR"};
+    private byte[] data;
+
+    @Before
+    public void setUp()
+    {
+        final Random random = new Random(42);
+        final StringBuilder builder = new StringBuilder(DATA_SIZE + 1024);
+        builder.append("{\"Filmliste\":[\"01.01.2021, 10:00\",\"3\",\"MSearch\",\"id\"]");
+        while (builder.length() < DATA_SIZE)
+        {
+            final int id = random.nextInt(1_000_000);
+            builder.append(",\"X\":[\"").append(SENDER[random.nextInt(SENDER.length)])
+                    .append("\",\"Thema ").append(random.nextInt(5000))
+                    .append("\",\"Titel ").append(id)
+                    .append("\",\"").append(String.format("%02d.%02d.2021", 1 + random.nextInt(28), 1 + random.nextInt(12)))
+                    .append("\",\"").append(String.format("%02d:%02d:00", random.nextInt(24), random.nextInt(60)))
+                    .append("\",\"00:").append(10 + random.nextInt(50)).append(":00\",\"").append(random.nextInt(2000))
+                    .append("\",\"Beschreibung des Films ").append(id).append(" mit etwas Text ").append(random.nextLong())
+                    .append("\",\"https://media.example.de/video/").append(id).append("/high.mp4")
+                    .append("\",\"https://www.example.de/sendung/").append(id).append("\"]");
+        }
+        builder.append('}');
+        data = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testXzCompressionPerformance() throws IOException
+    {
+        final int threads = Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        final ByteArrayOutputStream single = new ByteArrayOutputStream();
+        try (OutputStream out = new XZOutputStream(single, new LZMA2Options()))
+        {
+            out.write(data);
+        }
+        final long singleMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        final ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        try (OutputStream out = new ParallelXzOutputStream(parallel, BLOCK_SIZE, threads))
+        {
+            out.write(data);
+        }
+        final long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertArrayEquals(data, decompress(parallel.toByteArray()));
+
+        System.out.println("xz " + (data.length >> 20) + " MB");
+        System.out.println("  XZOutputStream:                          " + singleMillis + " ms, " + single.size() + " bytes");
+        System.out.println("  ParallelXzOutputStream (" + threads + " threads): " + parallelMillis + " ms, "
+                + parallel.size() + " bytes");
+    }
+
+    private static byte[] decompress(final byte[] aCompressed) throws IOException
+    {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(DATA_SIZE + 1024);
+        try (InputStream in = new XZInputStream(new ByteArrayInputStream(aCompressed)))
+        {
+            final byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) > 0)
+            {
+                result.write(buffer, 0, read);
+            }
+        }
+        return result.toByteArray();
+    }
+}